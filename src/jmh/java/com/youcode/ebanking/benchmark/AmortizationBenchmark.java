@@ -0,0 +1,64 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.model.AmortizationType;
+import com.youcode.ebanking.service.AmortizationEngine;
+import com.youcode.ebanking.service.AmortizationSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a full 30-year schedule and of the incremental recomputation after a late prepayment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    @Param({"ANNUITY", "LINEAR"})
+    public AmortizationType type;
+
+    // Échéance (0-based) après laquelle le remboursement anticipé est enregistré
+    @Param({"300"})
+    public int prepaidInstallment;
+
+    private AmortizationEngine.Terms terms;
+    private AmortizationSchedule base;
+    private long[] prepayments;
+
+    @Setup
+    public void setUp() {
+        terms = new AmortizationEngine.Terms(type, 250_000_00, 385, 360);
+        base = AmortizationEngine.compute(terms, null, 0);
+        prepayments = new long[terms.termMonths()];
+        prepayments[prepaidInstallment] = 5_000_00;
+    }
+
+    @Benchmark
+    public AmortizationSchedule fullSchedule() {
+        return AmortizationEngine.compute(terms, null, 0);
+    }
+
+    @Benchmark
+    public AmortizationSchedule prepaymentFullRecompute() {
+        return AmortizationEngine.compute(terms, prepayments, 1);
+    }
+
+    @Benchmark
+    public AmortizationSchedule prepaymentIncremental() {
+        return AmortizationEngine.withPrepayment(terms, base, prepaidInstallment, 5_000_00, 1);
+    }
+}
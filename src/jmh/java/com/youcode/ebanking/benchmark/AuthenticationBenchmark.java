@@ -0,0 +1,138 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.audit.AuditLog;
+import com.youcode.ebanking.exception.LoginThrottledException;
+import com.youcode.ebanking.security.AuthenticationMetrics;
+import com.youcode.ebanking.security.CustomAuthenticationProvider;
+import com.youcode.ebanking.security.LoginThrottle;
+import com.youcode.ebanking.security.PasswordHashingService;
+import com.youcode.ebanking.security.VerifiedCredentialCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CustomAuthenticationProvider#authenticate} with an in-memory {@code UserDetailsService}: the cost of a
+ * login without the database, for a warm credential cache, a full BCrypt verification (cost 10, the default),
+ * a wrong password and a throttled username.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "bench-user";
+    private static final String LOCKED_USERNAME = "bench-locked";
+    private static final String PASSWORD = "Passw0rd!";
+
+    private PasswordHashingService hashingService;
+    private VerifiedCredentialCache credentialCache;
+    private AuditLog auditLog;
+    private CustomAuthenticationProvider provider;
+    private CustomAuthenticationProvider throttledProvider;
+
+    private Authentication valid;
+    private Authentication wrongPassword;
+    private Authentication locked;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        String hash = encoder.encode(PASSWORD);
+        hashingService = new PasswordHashingService(encoder, 0, 64, Duration.ofSeconds(30));
+        credentialCache = new VerifiedCredentialCache(10_000, Duration.ofMinutes(5));
+        // Journal d'audit sans destination : seul le coût de l'enfilage reste sur le chemin mesuré
+        auditLog = new AuditLog(batch -> { }, 65_536, 500, AuditLog.OverflowPolicy.DROP, Duration.ZERO);
+        auditLog.start();
+
+        UserDetails user = User.withUsername(USERNAME).password(hash).roles("USER").build();
+        UserDetails lockedUser = User.withUsername(LOCKED_USERNAME).password(hash).roles("USER").build();
+        // Limitation désactivée : les échecs répétés de la mesure ne doivent pas bloquer le compte
+        provider = new CustomAuthenticationProvider(username -> user, hashingService,
+                (details, newPassword) -> details, new StandardEnvironment(), credentialCache,
+                new LoginThrottle(false, 1_000, 5, Duration.ofMinutes(1), 20, Duration.ofSeconds(3),
+                        Duration.ofSeconds(30), Duration.ofHours(1)), new AuthenticationMetrics(), auditLog);
+        throttledProvider = new CustomAuthenticationProvider(username -> lockedUser, hashingService,
+                (details, newPassword) -> details, new StandardEnvironment(),
+                new VerifiedCredentialCache(10_000, Duration.ofMinutes(5)),
+                new LoginThrottle(true, 1_000, 5, Duration.ofMinutes(1), 20, Duration.ofSeconds(3),
+                        Duration.ofHours(1), Duration.ofHours(1)), new AuthenticationMetrics(), auditLog);
+
+        valid = new UsernamePasswordAuthenticationToken(USERNAME, PASSWORD);
+        wrongPassword = new UsernamePasswordAuthenticationToken(USERNAME, "wrong-password");
+        locked = new UsernamePasswordAuthenticationToken(LOCKED_USERNAME, "wrong-password");
+
+        provider.authenticate(valid);
+        // Échecs jusqu'au blocage : les appels suivants sont refusés avant tout hachage
+        try {
+            while (true) {
+                try {
+                    throttledProvider.authenticate(locked);
+                } catch (BadCredentialsException ignored) {
+                    // échec compté, on continue
+                }
+            }
+        } catch (LoginThrottledException expected) {
+            // bloqué
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        hashingService.shutdown();
+        auditLog.stop();
+    }
+
+    @Benchmark
+    public Authentication cachedCredentials() {
+        return provider.authenticate(valid);
+    }
+
+    @Benchmark
+    public Authentication bcryptVerification() {
+        credentialCache.invalidate(USERNAME);
+        return provider.authenticate(valid);
+    }
+
+    @Benchmark
+    public AuthenticationException wrongPassword() {
+        return rejection(provider, wrongPassword);
+    }
+
+    @Benchmark
+    public AuthenticationException throttled() {
+        return rejection(throttledProvider, locked);
+    }
+
+    private static AuthenticationException rejection(CustomAuthenticationProvider provider,
+                                                     Authentication authentication) {
+        try {
+            provider.authenticate(authentication);
+            throw new IllegalStateException("Authentification acceptée de façon inattendue");
+        } catch (AuthenticationException e) {
+            return e;
+        }
+    }
+}
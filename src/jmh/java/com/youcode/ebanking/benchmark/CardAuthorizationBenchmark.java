@@ -0,0 +1,141 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.EBankingApplication;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.Card;
+import com.youcode.ebanking.model.CardStatus;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.CardRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.service.AccountService;
+import com.youcode.ebanking.service.CardAuthorizationEngine;
+import com.youcode.ebanking.service.CardAuthorizationEngine.Authorization;
+import com.youcode.ebanking.service.CardHoldWriter;
+import com.youcode.ebanking.service.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CardAuthorizationEngine#authorize} followed by the release of its hold, from 16 threads against the
+ * application started on an in-memory H2 (profile {@code perf}), write-behind included.
+ * <p>
+ * {@code SHARED}: every thread spends on the same card and account, so the usage and balance CAS loops collide;
+ * {@code PER_THREAD}: one card and account per thread. Sampled to report the latency percentiles.
+ * <p>
+ * The engine answers far faster than the write-behind drains, so each call first waits, outside the measurement,
+ * for the writer's backlog to fall back: the samples are those of approvals, not of the {@code ISSUER_UNAVAILABLE}
+ * declines of a saturated queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class CardAuthorizationBenchmark {
+
+    public enum Cards {
+        SHARED,
+        PER_THREAD
+    }
+
+    private static final int THREADS = 16;
+    private static final long AMOUNT = 12_50;
+    private static final int MAX_BACKLOG = 10_000;
+
+    @Param({"SHARED", "PER_THREAD"})
+    public Cards cards;
+
+    private ConfigurableApplicationContext context;
+    private CardAuthorizationEngine engine;
+    private CardHoldWriter holdWriter;
+    private long[] cardIds;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Spender {
+        private long cardId;
+
+        @Setup
+        public void pickCard(CardAuthorizationBenchmark benchmark) {
+            int thread = benchmark.nextThread.getAndIncrement();
+            cardId = benchmark.cardIds[benchmark.cards == Cards.SHARED ? 0 : thread % benchmark.cardIds.length];
+        }
+
+        @Setup(Level.Invocation)
+        public void awaitWriter(CardAuthorizationBenchmark benchmark) {
+            while (benchmark.holdWriter.backlog() > MAX_BACKLOG) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        // En argument comme au lancement du jar : spring.profiles.active de application.yml serait prioritaire
+        context = new SpringApplicationBuilder(EBankingApplication.class).run(
+                "--spring.profiles.active=perf",
+                "--server.port=0",
+                "--ebanking.journal.directory=" + Files.createTempDirectory("card-benchmark-journal"));
+        engine = context.getBean(CardAuthorizationEngine.class);
+        holdWriter = context.getBean(CardHoldWriter.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        CardRepository cardRepository = context.getBean(CardRepository.class);
+        AccountService accountService = context.getBean(AccountService.class);
+        RoleRegistry roleRegistry = context.getBean(RoleRegistry.class);
+
+        cardIds = new long[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            String username = "card-bench-" + i;
+            EbUser owner = userRepository.save(new EbUser().setUsername(username).setPassword("x")
+                    .setEmail(username + "@ebanking.com").setRole(roleRegistry.resolve(RoleRegistry.ROLE_USER))
+                    .setEnabled(true));
+            // Fonds et plafonds hors d'atteinte : chaque autorisation est acceptée puis libérée
+            Account account = accountRepository.save(accountService.newAccount(owner, null)
+                    .setBalance(1_000_000_000_00L));
+            cardIds[i] = cardRepository.save(new Card().setAccount(account).setStatus(CardStatus.ACTIVE)
+                    .setDailyLimit(Long.MAX_VALUE / 4).setMonthlyLimit(Long.MAX_VALUE / 2)
+                    .setIssuedAt(Instant.now())).getId();
+            // Premier passage hors mesure : charge la carte et le solde en mémoire
+            engine.release(engine.authorize(cardIds[i], AMOUNT, "warm-up").reference());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authorization authorizeAndRelease(Spender spender) {
+        Authorization authorization = engine.authorize(spender.cardId, AMOUNT, "benchmark");
+        if (!authorization.approved()) {
+            throw new IllegalStateException("Autorisation refusée : " + authorization.declineReason());
+        }
+        engine.release(authorization.reference());
+        return authorization;
+    }
+}
@@ -0,0 +1,95 @@
+package com.youcode.ebanking.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.GlobalExceptionHandler;
+import com.youcode.ebanking.dto.ErrorResponseDTO;
+import com.youcode.ebanking.exception.InsufficientFundsException;
+import com.youcode.ebanking.exception.InvalidCredentialsException;
+import com.youcode.ebanking.exception.LoginThrottledException;
+import com.youcode.ebanking.security.CustomAccessDeniedHandler;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An error response from throw to bytes: exception construction, the {@link GlobalExceptionHandler} method and the
+ * JSON body. The servlet and converter layers are left out. {@code badCredentialsWithStackTrace} is the path a
+ * wrong password took before stackless exceptions and pre-rendered bodies; run with {@code -prof gc} to compare
+ * allocation per failed request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorRenderingBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new CustomAccessDeniedHandler());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new MockHttpServletRequest("GET", "/api/users");
+    }
+
+    @Benchmark
+    public byte[] entityNotFound() throws JsonProcessingException {
+        return render(handler.handleEntityNotFound(new EntityNotFoundException("Compte introuvable : 42")));
+    }
+
+    @Benchmark
+    public byte[] insufficientFunds() throws JsonProcessingException {
+        return render(handler.handleDomainException(
+                new InsufficientFundsException("Solde insuffisant sur le compte 42")));
+    }
+
+    @Benchmark
+    public byte[] loginThrottled() throws JsonProcessingException {
+        return render(handler.handleLoginThrottled(
+                new LoginThrottledException("Trop de tentatives de connexion, veuillez réessayer plus tard",
+                        Duration.ofSeconds(30))));
+    }
+
+    @Benchmark
+    public byte[] badCredentials() throws JsonProcessingException {
+        return render(handler.handleValidationErrors(new InvalidCredentialsException()));
+    }
+
+    @Benchmark
+    public byte[] badCredentialsWithStackTrace() throws JsonProcessingException {
+        BadCredentialsException ex = new BadCredentialsException("Identifiants invalides");
+        return objectMapper.writeValueAsBytes(new ErrorResponseDTO("EB-AUTH-001", ex.getMessage(), 400));
+    }
+
+    @Benchmark
+    public byte[] genericError() throws JsonProcessingException {
+        return render(handler.handleGenericException(new IllegalStateException("boom"), request));
+    }
+
+    private byte[] render(ResponseEntity<?> response) throws JsonProcessingException {
+        if (response.getBody() instanceof byte[] body) {
+            return body;
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
@@ -0,0 +1,70 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.dto.LoanScheduleDTO;
+import com.youcode.ebanking.model.AmortizationType;
+import com.youcode.ebanking.service.AmortizationEngine;
+import com.youcode.ebanking.service.LoanScheduleCache;
+import com.youcode.ebanking.service.LoanSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent schedule reads against a warm {@link LoanScheduleCache} of 10 000 loans of 20 to 30 years:
+ * the hit path of {@code GET /api/myLoans/{id}/schedule} without the HTTP layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class LoanScheduleReadBenchmark {
+
+    private static final int LOANS = 10_000;
+
+    private LoanScheduleCache cache;
+
+    @Setup
+    public void setUp() {
+        cache = new LoanScheduleCache(LOANS * 360L, Duration.ofHours(1));
+        for (long id = 0; id < LOANS; id++) {
+            AmortizationEngine.Terms terms = new AmortizationEngine.Terms(
+                    id % 2 == 0 ? AmortizationType.ANNUITY : AmortizationType.LINEAR,
+                    100_000_00 + id * 1_000, 250 + (int) (id % 300), 240 + (int) (id % 121));
+            cache.put(new LoanSnapshot(id, "user" + id, "ACC" + id, "MAD", LocalDate.of(2025, 1, 5), terms,
+                    AmortizationEngine.compute(terms, null, 0)));
+        }
+    }
+
+    @Benchmark
+    public LoanScheduleDTO readSchedule() {
+        return cache.get(ThreadLocalRandom.current().nextLong(LOANS), LoanScheduleReadBenchmark::miss)
+                .toScheduleDTO();
+    }
+
+    @Benchmark
+    public long readNextPayment() {
+        LoanSnapshot snapshot = cache.get(ThreadLocalRandom.current().nextLong(LOANS),
+                LoanScheduleReadBenchmark::miss);
+        return snapshot.schedule().payment(snapshot.installmentsDue(LocalDate.of(2030, 6, 1)));
+    }
+
+    private static LoanSnapshot miss(Long loanId) {
+        throw new IllegalStateException("Cache froid : " + loanId);
+    }
+}
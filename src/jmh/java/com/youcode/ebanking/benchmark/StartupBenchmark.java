@@ -0,0 +1,142 @@
+package com.youcode.ebanking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the packaged application to its first answered request ({@code GET /actuator/health},
+ * through the security filter chain and the dispatcher), one new JVM per measurement on an in-memory H2
+ * (profile {@code perf}).
+ * <p>
+ * {@code FAT_JAR} is how the application was started so far; the other launches need the output of
+ * {@code mvn -Pfast-startup,benchmarks -DskipTests verify} in {@code target/application}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    public enum Launch {
+        FAT_JAR,
+        EXTRACTED,
+        AOT,
+        AOT_CDS
+    }
+
+    private static final Path TARGET = Path.of("target").toAbsolutePath();
+    private static final Path EXTRACTED = TARGET.resolve("application");
+    private static final String ARCHIVE = "application.jsa";
+
+    @Param({"FAT_JAR", "EXTRACTED", "AOT", "AOT_CDS"})
+    public Launch launch;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Path directory;
+    private Path jar;
+    private List<String> command;
+    private HttpRequest firstRequest;
+    private Process process;
+
+    @Setup
+    public void locateApplication() throws IOException {
+        Path fatJar = applicationJar(TARGET);
+        // Chemin de classes identique à celui de l'entraînement, sans quoi l'archive CDS est ignorée
+        directory = launch == Launch.FAT_JAR ? TARGET : EXTRACTED;
+        jar = fatJar.getFileName();
+        if (!Files.exists(directory.resolve(jar))) {
+            throw new IllegalStateException("Application extraite absente : -Pfast-startup,benchmarks");
+        }
+        if (launch == Launch.AOT_CDS && !Files.exists(directory.resolve(ARCHIVE))) {
+            throw new IllegalStateException("Archive CDS absente : " + directory.resolve(ARCHIVE));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareLaunch() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        if (launch == Launch.AOT_CDS) {
+            command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+        }
+        if (launch == Launch.AOT || launch == Launch.AOT_CDS) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", jar.toString(),
+                "--spring.profiles.active=perf",
+                "--server.port=" + port,
+                "--ebanking.journal.directory=" + Files.createTempDirectory("startup-journal")));
+        firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(TARGET.resolve("startup-benchmark.log").toFile())
+                .start();
+        while (true) {
+            try {
+                int status = client.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 200) {
+                    throw new IllegalStateException("Première requête en échec : HTTP " + status);
+                }
+                return status;
+            } catch (ConnectException e) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application arrêtée au démarrage (code " + process.exitValue()
+                            + "), voir target/startup-benchmark.log");
+                }
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static Path applicationJar(Path directory) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, "eBanking-*.jar")) {
+            for (Path candidate : jars) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Aucun jar dans " + directory.toAbsolutePath() + " : mvn package");
+    }
+}
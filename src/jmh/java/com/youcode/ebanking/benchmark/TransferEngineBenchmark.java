@@ -0,0 +1,120 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.EBankingApplication;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.service.AccountService;
+import com.youcode.ebanking.service.RoleRegistry;
+import com.youcode.ebanking.service.TransferEngine;
+import com.youcode.ebanking.service.TransferEngine.TransferCommand;
+import com.youcode.ebanking.service.TransferEngine.TransferResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link TransferEngine#transfer} from 16 threads against the application started on an in-memory H2
+ * (profile {@code perf}): account locks, group commit and balance checks, until the batch is committed.
+ * <p>
+ * {@code CONTENDED}: every thread moves money back and forth between the same two accounts, so the calls queue
+ * on their lock stripes; {@code UNCONTENDED}: each thread has its own pair and only the committer is shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class TransferEngineBenchmark {
+
+    public enum Accounts {
+        CONTENDED,
+        UNCONTENDED
+    }
+
+    private static final int THREADS = 16;
+    private static final long AMOUNT = 10_00;
+
+    @Param({"CONTENDED", "UNCONTENDED"})
+    public Accounts accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransferEngine engine;
+    private long[] accountIds;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Sender {
+        private TransferCommand outbound;
+        private TransferCommand inbound;
+        private boolean back;
+
+        @Setup
+        public void pickAccounts(TransferEngineBenchmark benchmark) {
+            int pair = benchmark.accounts == Accounts.CONTENDED ? 0 : benchmark.nextThread.getAndIncrement() % THREADS;
+            long first = benchmark.accountIds[2 * pair];
+            long second = benchmark.accountIds[2 * pair + 1];
+            outbound = new TransferCommand(first, second, AMOUNT, "benchmark");
+            inbound = new TransferCommand(second, first, AMOUNT, "benchmark");
+        }
+
+        // Aller-retour : les soldes restent stables quelle que soit la durée de la mesure
+        private TransferCommand next() {
+            back = !back;
+            return back ? outbound : inbound;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        // En argument comme au lancement du jar : spring.profiles.active de application.yml serait prioritaire
+        context = new SpringApplicationBuilder(EBankingApplication.class).run(
+                "--spring.profiles.active=perf",
+                "--server.port=0",
+                "--ebanking.journal.directory=" + Files.createTempDirectory("transfer-benchmark-journal"));
+        engine = context.getBean(TransferEngine.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        AccountService accountService = context.getBean(AccountService.class);
+        RoleRegistry roleRegistry = context.getBean(RoleRegistry.class);
+
+        accountIds = new long[2 * THREADS];
+        for (int i = 0; i < accountIds.length; i++) {
+            String username = "transfer-bench-" + i;
+            EbUser owner = userRepository.save(new EbUser().setUsername(username).setPassword("x")
+                    .setEmail(username + "@ebanking.com").setRole(roleRegistry.resolve(RoleRegistry.ROLE_USER))
+                    .setEnabled(true));
+            accountIds[i] = accountRepository.save(accountService.newAccount(owner, null)
+                    .setBalance(1_000_000_000_00L)).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResult transfer(Sender sender) {
+        return engine.transfer(sender.next());
+    }
+}
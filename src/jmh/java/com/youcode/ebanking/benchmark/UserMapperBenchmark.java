@@ -0,0 +1,50 @@
+package com.youcode.ebanking.benchmark;
+
+import com.youcode.ebanking.dto.UserResponseDTO;
+import com.youcode.ebanking.mapper.UserMapper;
+import com.youcode.ebanking.mapper.UserMapperImpl;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link UserMapper#userToUserResponseDTO} on a detached entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserMapper mapper;
+    private EbUser user;
+
+    @Setup
+    public void setUp() {
+        mapper = new UserMapperImpl();
+        user = new EbUser()
+                .setId(42L)
+                .setUsername("bench-user")
+                .setPassword("$2a$10$abcdefghijklmnopqrstuuRKz0T2bJcbnM1ZIuBGRXW1LGYLiP6Gq")
+                .setEmail("bench-user@ebanking.com")
+                .setRole(new Role("ROLE_USER"));
+    }
+
+    @Benchmark
+    public UserResponseDTO userToUserResponseDTO() {
+        return mapper.userToUserResponseDTO(user);
+    }
+}
@@ -1,17 +1,24 @@
 package com.youcode.ebanking;
 
-import com.youcode.ebanking.dto.ErrorResponseDTO;
-import com.youcode.ebanking.exception.UsernameAlreadyExistsException;
+import com.youcode.ebanking.exception.DomainException;
+import com.youcode.ebanking.exception.ErrorCode;
+import com.youcode.ebanking.exception.ErrorResponses;
+import com.youcode.ebanking.exception.HashingCapacityExceededException;
+import com.youcode.ebanking.exception.LoginThrottledException;
+import com.youcode.ebanking.exception.TransferInDoubtException;
+import com.youcode.ebanking.exception.TransferUnavailableException;
 import com.youcode.ebanking.security.CustomAccessDeniedHandler;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
@@ -21,29 +28,60 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    public static final String TRANSFER_REFERENCE = "X-Transfer-Reference";
+
+    private static final HttpHeaders RETRY_AFTER_ONE_SECOND = HttpHeaders.readOnlyHttpHeaders(retryAfter("1"));
+
     private final CustomAccessDeniedHandler accessDeniedHandler;
-    @ExceptionHandler(UsernameAlreadyExistsException.class)
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponseDTO handleUserAlreadyExists(UsernameAlreadyExistsException ex) {
-        return new ErrorResponseDTO(
-                ex.getMessage(),
-                HttpStatus.CONFLICT.value()
-        );
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<Object> handleDomainException(DomainException ex) {
+        return ErrorResponses.of(ex.getErrorCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(TransferUnavailableException.class)
+    public ResponseEntity<Object> handleTransferUnavailable(TransferUnavailableException ex) {
+        return ErrorResponses.of(ex.getErrorCode(), ex.getMessage(), RETRY_AFTER_ONE_SECOND);
+    }
+
+    // 202 : le virement peut encore être validé ; sa référence permet de le retrouver dans le relevé
+    @ExceptionHandler(TransferInDoubtException.class)
+    public ResponseEntity<Object> handleTransferInDoubt(TransferInDoubtException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TRANSFER_REFERENCE, ex.getReference());
+        return ErrorResponses.of(ex.getErrorCode(), ex.getMessage(), headers);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return ErrorResponses.of(ErrorCode.CONCURRENT_UPDATE);
     }
 
-        @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponseDTO> handleRuntimeException(RuntimeException ex) {
-        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
-                ex.getMessage(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value()
-        );
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Object> handleAccessDenied(AccessDeniedException ex) {
+        return ErrorResponses.of(ErrorCode.ACCESS_DENIED, ex.getMessage());
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Object> handleLoginThrottled(LoginThrottledException ex) {
+        return ErrorResponses.of(ErrorCode.LOGIN_THROTTLED, ex.getMessage(),
+                retryAfter(Long.toString(ex.getRetryAfterSeconds())));
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Object> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        return ErrorResponses.of(ErrorCode.HASHING_UNAVAILABLE, ex.getMessage(), RETRY_AFTER_ONE_SECOND);
+    }
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Object> handleRuntimeException(RuntimeException ex) {
+        return ErrorResponses.of(ErrorCode.INTERNAL_ERROR, ex.getMessage());
     }
+
     @ExceptionHandler({IllegalArgumentException.class, BadCredentialsException.class})
-    public ResponseEntity<ErrorResponseDTO> handleValidationErrors(Exception ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(new ErrorResponseDTO(ex.getMessage(), HttpStatus.BAD_REQUEST.value()));
+    public ResponseEntity<Object> handleValidationErrors(Exception ex) {
+        return ErrorResponses.of(ex instanceof BadCredentialsException ? ErrorCode.BAD_CREDENTIALS
+                : ErrorCode.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -59,20 +97,20 @@ public class GlobalExceptionHandler {
 
 
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleEntityNotFound(EntityNotFoundException ex) {
-        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
-                ex.getMessage(),
-                HttpStatus.NOT_FOUND.value()
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    public ResponseEntity<Object> handleEntityNotFound(EntityNotFoundException ex) {
+        return ErrorResponses.of(ErrorCode.NOT_FOUND, ex.getMessage());
     }
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponseDTO> handleGenericException(Exception ex, HttpServletRequest request) {
-        ErrorResponseDTO errorResponse = new ErrorResponseDTO("Internal Server Error",
-                HttpStatus.INTERNAL_SERVER_ERROR.value()
-                );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<Object> handleGenericException(Exception ex, HttpServletRequest request) {
+        return ErrorResponses.of(ErrorCode.INTERNAL_ERROR);
+    }
+
+    private static HttpHeaders retryAfter(String seconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, seconds);
+        return headers;
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.youcode.ebanking.audit;
+
+import com.youcode.ebanking.model.AuditEventType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Security audit events. Callers only enqueue into a lock-free ring; a background thread writes them to the
+ * {@link AuditSink} in batches, so recording never waits on the database.
+ * <p>
+ * When the ring is full (sink down or too slow), {@code DROP} discards the event at once and {@code BLOCK} waits
+ * up to {@code block-timeout} for room before discarding it. Either way the loss is counted in
+ * {@code ebanking.audit.events{result="dropped"}}.
+ * <p>
+ * Fields are cut to the column lengths of {@code audit_events} when recorded: a login attempt carries a
+ * client-supplied username of any length. A batch the sink still rejects as invalid is written event by event and
+ * only the bad events are dropped; any other failure retries the batch.
+ */
+@Component
+@Slf4j
+public class AuditLog implements MeterBinder {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Longueurs des colonnes d'audit_events (AuditEvent)
+    private static final int NAME_LENGTH = 50;
+    private static final int ADDRESS_LENGTH = 45;
+    private static final int DETAIL_LENGTH = 255;
+
+    private final AuditSink sink;
+    private final AuditRing ring;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(AuditSink sink,
+                    @Value("${ebanking.audit.queue-capacity:65536}") int queueCapacity,
+                    @Value("${ebanking.audit.batch-size:500}") int batchSize,
+                    @Value("${ebanking.audit.overflow:DROP}") OverflowPolicy overflowPolicy,
+                    @Value("${ebanking.audit.block-timeout:PT0.05S}") Duration blockTimeout) {
+        this.sink = sink;
+        this.ring = new AuditRing(queueCapacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (ring.size() > 0) {
+            log.error("Arrêt avec {} événements d'audit non écrits", ring.size());
+        }
+    }
+
+    public void loginSucceeded(String username, String remoteAddress) {
+        record(AuditEventType.LOGIN_SUCCEEDED, null, username, remoteAddress, null);
+    }
+
+    public void loginFailed(String username, String remoteAddress, String reason) {
+        record(AuditEventType.LOGIN_FAILED, null, username, remoteAddress, reason);
+    }
+
+    public void loginThrottled(String username, String remoteAddress) {
+        record(AuditEventType.LOGIN_THROTTLED, null, username, remoteAddress, null);
+    }
+
+    public void roleChanged(String actor, String username, String previousRole, String newRole) {
+        record(AuditEventType.ROLE_CHANGED, actor, username, null, previousRole + " -> " + newRole);
+    }
+
+    public void passwordChanged(String username) {
+        record(AuditEventType.PASSWORD_CHANGED, username, username, null, null);
+    }
+
+    public void enablementChanged(String actor, String username, boolean enabled) {
+        record(enabled ? AuditEventType.USER_ENABLED : AuditEventType.USER_DISABLED, actor, username, null, null);
+    }
+
+    public void userDeleted(String actor, String username) {
+        record(AuditEventType.USER_DELETED, actor, username, null, null);
+    }
+
+    /**
+     * Number of events waiting to be written.
+     */
+    public int backlog() {
+        return ring.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ebanking.audit.queue.depth", ring, AuditRing::size)
+                .description("Événements d'audit en attente d'écriture")
+                .register(registry);
+        Gauge.builder("ebanking.audit.queue.capacity", ring, AuditRing::capacity)
+                .register(registry);
+        FunctionCounter.builder("ebanking.audit.events", written, LongAdder::sum)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("ebanking.audit.events", dropped, LongAdder::sum)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder("ebanking.audit.batches.failed", failedBatches, LongAdder::sum)
+                .register(registry);
+    }
+
+    private void record(AuditEventType type, String actor, String subject, String remoteAddress, String detail) {
+        AuditRecord record = new AuditRecord(type, truncate(actor, NAME_LENGTH), truncate(subject, NAME_LENGTH),
+                truncate(remoteAddress, ADDRESS_LENGTH), truncate(detail, DETAIL_LENGTH), Instant.now());
+        if (ring.offer(record)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                if (ring.offer(record)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || ring.size() > 0) {
+            if (ring.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            writeWithRetry(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeWithRetry(List<AuditRecord> batch) {
+        while (true) {
+            try {
+                sink.write(batch);
+                written.add(batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Relancer ce lot échouerait à l'identique et bloquerait tous les suivants
+                failedBatches.increment();
+                log.warn("Lot de {} événements d'audit rejeté, écriture unitaire : {}", batch.size(), e.getMessage());
+                batch.forEach(this::writeAlone);
+                return;
+            } catch (Exception e) {
+                failedBatches.increment();
+                if (!running) {
+                    log.error("Lot de {} événements d'audit perdu à l'arrêt", batch.size(), e);
+                    dropped.add(batch.size());
+                    return;
+                }
+                log.warn("Échec de l'écriture de {} événements d'audit, nouvelle tentative : {}", batch.size(),
+                        e.getMessage());
+                LockSupport.parkNanos(RETRY_PARK_NANOS);
+            }
+        }
+    }
+
+    private void writeAlone(AuditRecord record) {
+        try {
+            sink.write(List.of(record));
+            written.increment();
+        } catch (Exception e) {
+            dropped.increment();
+            log.error("Événement d'audit {} sur {} ignoré : {}", record.type(), record.subject(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
@@ -0,0 +1,12 @@
+package com.youcode.ebanking.audit;
+
+import com.youcode.ebanking.model.AuditEventType;
+
+import java.time.Instant;
+
+/**
+ * An audit event as queued by {@link AuditLog}, before it reaches a {@link AuditSink}.
+ */
+public record AuditRecord(AuditEventType type, String actor, String subject, String remoteAddress, String detail,
+                          Instant occurredAt) {
+}
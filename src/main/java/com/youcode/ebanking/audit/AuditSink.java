@@ -0,0 +1,15 @@
+package com.youcode.ebanking.audit;
+
+import java.util.List;
+
+/**
+ * Destination of the audit batches, called from the writer thread only.
+ */
+public interface AuditSink {
+
+    /**
+     * Writes the whole batch or throws; a failed batch is retried as is, except after a
+     * {@link org.springframework.dao.DataIntegrityViolationException}: its events are then written one by one.
+     */
+    void write(List<AuditRecord> batch) throws Exception;
+}
@@ -0,0 +1,36 @@
+package com.youcode.ebanking.audit;
+
+import com.youcode.ebanking.model.AuditEvent;
+import com.youcode.ebanking.repository.AuditEventRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Inserts each batch into {@code audit_events} in one transaction; JDBC batching and the pooled sequence keep it
+ * to a few round trips.
+ */
+public class DatabaseAuditSink implements AuditSink {
+
+    private final AuditEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DatabaseAuditSink(AuditEventRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void write(List<AuditRecord> batch) {
+        List<AuditEvent> events = batch.stream()
+                .map(record -> new AuditEvent()
+                        .setType(record.type())
+                        .setActor(record.actor())
+                        .setSubject(record.subject())
+                        .setRemoteAddress(record.remoteAddress())
+                        .setDetail(record.detail())
+                        .setOccurredAt(record.occurredAt()))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(events));
+    }
+}
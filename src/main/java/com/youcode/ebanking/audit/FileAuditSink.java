@@ -0,0 +1,81 @@
+package com.youcode.ebanking.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Appends each batch as NDJSON to {@code audit-<day>-<n>.ndjson}, rolling over at midnight UTC and whenever the
+ * current file would exceed {@code maxFileSize}. The file is synced after every batch.
+ */
+public class FileAuditSink implements AuditSink, AutoCloseable {
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final ObjectWriter writer;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+    private LocalDate day;
+    private int index;
+    private FileChannel channel;
+
+    public FileAuditSink(Path directory, long maxFileSize, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxFileSize = maxFileSize;
+        this.writer = objectMapper.writerFor(AuditRecord.class);
+    }
+
+    @Override
+    public void write(List<AuditRecord> batch) throws IOException {
+        buffer.reset();
+        for (AuditRecord record : batch) {
+            writer.writeValue(buffer, record);
+            buffer.write('\n');
+        }
+        roll(buffer.size());
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void roll(long incoming) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (channel != null && today.equals(day)
+                && (channel.size() == 0 || channel.size() + incoming <= maxFileSize)) {
+            return;
+        }
+        close();
+        if (today.equals(day)) {
+            index++;
+        } else {
+            day = today;
+            index = 0;
+        }
+        Path file = directory.resolve("audit-%s-%d.ndjson".formatted(day, index));
+        // Après un redémarrage : on reprend après le dernier fichier plein du jour
+        while (Files.exists(file) && Files.size(file) + incoming > maxFileSize) {
+            file = directory.resolve("audit-%s-%d.ndjson".formatted(day, ++index));
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,41 @@
+package com.youcode.ebanking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.audit.AuditSink;
+import com.youcode.ebanking.audit.DatabaseAuditSink;
+import com.youcode.ebanking.audit.FileAuditSink;
+import com.youcode.ebanking.repository.AuditEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destination of the audit trail, chosen by {@code ebanking.audit.sink}: the {@code audit_events} table
+ * (default) or rolling NDJSON files on local disk.
+ * <p>
+ * Chosen when the bean is created rather than with a condition, so the setting still applies to an
+ * AOT-processed build, whose conditions are evaluated once at build time.
+ */
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    public AuditSink auditSink(@Value("${ebanking.audit.sink:database}") String sink,
+                               @Value("${ebanking.audit.file.directory:./data/audit}") Path directory,
+                               @Value("${ebanking.audit.file.max-size:100MB}") DataSize maxSize,
+                               AuditEventRepository repository,
+                               TransactionTemplate transactionTemplate,
+                               ObjectProvider<ObjectMapper> objectMapper) throws IOException {
+        return switch (sink) {
+            case "database" -> new DatabaseAuditSink(repository, transactionTemplate);
+            case "file" -> new FileAuditSink(directory, maxSize.toBytes(), objectMapper.getObject());
+            default -> throw new IllegalArgumentException("ebanking.audit.sink inconnu : " + sink);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.youcode.ebanking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas behind {@link ReplicaRoutingDataSource}; the primary stays configured under {@code spring.datasource}.
+ */
+@ConfigurationProperties("ebanking.datasource.routing")
+public record ReadReplicaProperties(
+        boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("PT10S") Duration maxLag,
+        @DefaultValue("PT5S") Duration healthCheckInterval,
+        String lagQuery,
+        @DefaultValue("true") boolean fallbackToPrimary) {
+
+    public record Replica(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.youcode.ebanking.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to the replicas, round-robin, and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link LazyConnectionDataSourceProxy}: the JPA transaction manager asks for its connection
+ * before the transaction is flagged read-only, and the proxy delays that request to the first statement.
+ * <p>
+ * A replica that refuses a connection, fails the health check or lags by more than {@code max-lag} is evicted
+ * until a health check finds it healthy again. With no replica left, reads go to the primary when
+ * {@code fallback-to-primary} is set, and fail otherwise.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile double lagSeconds;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final boolean fallbackToPrimary;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag, String lagQuery,
+                                    boolean fallbackToPrimary) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery;
+        this.fallbackToPrimary = fallbackToPrimary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? replicaConnection() : primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Identifiants fixés par la configuration des sources de données");
+    }
+
+    /**
+     * Probes every replica, evicting or re-admitting it.
+     */
+    @Scheduled(fixedDelayString = "${ebanking.datasource.routing.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                double lag = lagSeconds(connection);
+                replica.lagSeconds = lag;
+                if (lag > maxLagSeconds) {
+                    evict(replica, "retard de réplication de %.1f s".formatted(lag));
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Réplica {} réintégré (retard {} s)", replica.name, lag);
+                }
+            } catch (SQLException | RuntimeException e) {
+                evict(replica, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("ebanking.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("ebanking.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Closes the replica pools; the primary belongs to the context.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection replicaConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        SQLException failure = null;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                evict(replica, e.getMessage());
+                failure = e;
+            }
+        }
+        if (fallbackToPrimary) {
+            return primary.getConnection();
+        }
+        throw failure != null ? failure : new SQLException("Aucun réplica en lecture disponible");
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            if (!connection.isValid(2)) {
+                throw new SQLException("Connexion invalide");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+
+    private void evict(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} écarté des lectures : {}", replica.name, reason);
+        }
+    }
+}
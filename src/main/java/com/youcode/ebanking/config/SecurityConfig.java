@@ -2,7 +2,9 @@ package com.youcode.ebanking.config;
 
 import com.youcode.ebanking.security.CustomAccessDeniedHandler;
 import com.youcode.ebanking.security.CustomAuthenticationEntryPoint;
+import com.youcode.ebanking.security.AccessTokenService;
 import com.youcode.ebanking.security.CustomAuthenticationProvider;
+import com.youcode.ebanking.security.TokenAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -10,18 +12,17 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 @EnableWebSecurity
 @Configuration
 public class SecurityConfig {
@@ -31,15 +32,18 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     @Lazy
     private final CustomAuthenticationProvider customAuthenticationProvider;
+    private final AccessTokenService accessTokenService;
 
     public SecurityConfig(CustomAccessDeniedHandler customAccessDeniedHandler,
                           CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
                           UserDetailsService userDetailsService,
-                          CustomAuthenticationProvider customAuthenticationProvider) {
+                          CustomAuthenticationProvider customAuthenticationProvider,
+                          AccessTokenService accessTokenService) {
         this.customAccessDeniedHandler = customAccessDeniedHandler;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
         this.userDetailsService = userDetailsService;
         this.customAuthenticationProvider = customAuthenticationProvider;
+        this.accessTokenService = accessTokenService;
     }
 
     @Bean
@@ -48,8 +52,17 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/api/users/register", "/api/users/login", "/api/notices", "/api/contact")
+                        .requestMatchers("/api/users/register", "/api/users/login", "/api/users/refresh", "/api/users/available")
                         .permitAll()
+                        // Lectures servies par PublicContentFilter avant cette chaîne ; ici seulement si le texte manque
+                        .requestMatchers(HttpMethod.GET, "/api/notices", "/api/contact")
+                        .permitAll()
+                        .requestMatchers(HttpMethod.PUT, "/api/notices", "/api/contact")
+                        .hasRole("ADMIN")
+                        .requestMatchers("/actuator/health")
+                        .permitAll()
+                        .requestMatchers("/actuator/**")
+                        .hasRole("ADMIN")
                         .requestMatchers("/api/user/changePassword")
                         .hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/**")
@@ -58,9 +71,13 @@ public class SecurityConfig {
                         .hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/users/**")
                         .hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/api/users/**")
+                        .hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/users/**")
                         .hasRole("ADMIN")
-                        .requestMatchers("/api/myLoans", "/api/myCards", "/api/myAccount", "/api/myBalance")
+                        .requestMatchers("/api/roles/**", "/api/accounts/**", "/api/loans/**", "/api/cards/**")
+                        .hasRole("ADMIN")
+                        .requestMatchers("/api/myLoans", "/api/myLoans/**", "/api/myCards", "/api/myAccount", "/api/myAccount/statement", "/api/myBalance", "/api/transfers")
                         .hasRole("USER")
                         .anyRequest().authenticated()
                 )
@@ -68,11 +85,21 @@ public class SecurityConfig {
                         .authenticationEntryPoint(customAuthenticationEntryPoint)
                         .accessDeniedHandler(customAccessDeniedHandler)
                 )
-                .httpBasic(Customizer.withDefaults());
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService, customAuthenticationEntryPoint),
+                        BasicAuthenticationFilter.class)
+                .httpBasic(basic -> basic.authenticationEntryPoint(customAuthenticationEntryPoint));
 
         return http.build();
     }
 
+    /**
+     * Used by {@code POST /api/users/login}; Basic authentication goes through the same provider.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager() {
+        return new ProviderManager(customAuthenticationProvider);
+    }
+
 //    @Bean
 //    @Profile("dev")
 //    public AuthenticationManager authenticationManagerDev(HttpSecurity http) throws Exception {
@@ -91,9 +118,4 @@ public class SecurityConfig {
 //        authManagerBuilder.authenticationProvider(customAuthenticationProvider);
 //        return authManagerBuilder.build();
 //    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
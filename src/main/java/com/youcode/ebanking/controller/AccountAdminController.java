@@ -0,0 +1,55 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.AccountDTO;
+import com.youcode.ebanking.dto.BalanceVerificationDTO;
+import com.youcode.ebanking.dto.LedgerEntryDTO;
+import com.youcode.ebanking.dto.LedgerPostingDTO;
+import com.youcode.ebanking.dto.OpenAccountDTO;
+import com.youcode.ebanking.dto.PostingReceiptDTO;
+import com.youcode.ebanking.service.AccountService;
+import com.youcode.ebanking.service.LedgerCheckpointService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+public class AccountAdminController {
+
+    private final AccountService accountService;
+
+    private final LedgerCheckpointService checkpointService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccountDTO> openAccount(@Valid @RequestBody OpenAccountDTO openAccountDTO) {
+        return new ResponseEntity<>(accountService.openAccount(openAccountDTO), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{accountNumber}/entries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<LedgerEntryDTO>> getEntries(@PathVariable String accountNumber,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(accountService.getRecentEntries(accountNumber, limit));
+    }
+
+    @PostMapping("/{accountNumber}/entries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PostingReceiptDTO> postEntry(@PathVariable String accountNumber,
+                                                       @Valid @RequestBody LedgerPostingDTO postingDTO) {
+        return new ResponseEntity<>(accountService.post(accountNumber, postingDTO), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/{accountNumber}/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BalanceVerificationDTO> verifyBalance(@PathVariable String accountNumber,
+                                                                @RequestParam(defaultValue = "false") boolean rebuild) {
+        return ResponseEntity.ok(checkpointService.verify(accountNumber, rebuild));
+    }
+}
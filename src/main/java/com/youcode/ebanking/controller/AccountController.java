@@ -1,35 +1,175 @@
 package com.youcode.ebanking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.youcode.ebanking.dto.AccountDTO;
+import com.youcode.ebanking.dto.BalanceDTO;
+import com.youcode.ebanking.dto.CardDTO;
+import com.youcode.ebanking.dto.LoanScheduleDTO;
+import com.youcode.ebanking.dto.LoanSummaryDTO;
+import com.youcode.ebanking.dto.StatementLineDTO;
+import com.youcode.ebanking.service.AccountService;
+import com.youcode.ebanking.service.CardService;
+import com.youcode.ebanking.service.LoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
 public class AccountController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final String CSV_HEADER = "sequence,created_at,type,amount,balance_after,reference,description\n";
+
+    private final AccountService accountService;
+
+    private final LoanService loanService;
+
+    private final CardService cardService;
+
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/myLoans")
     @PreAuthorize("hasRole('USER')")
-    public String getMyLoans() {
-        return "Here are your loan details.";
+    public ResponseEntity<List<LoanSummaryDTO>> getMyLoans(Authentication authentication) {
+        return ResponseEntity.ok(loanService.getMyLoans(authentication.getName()));
+    }
+
+    @GetMapping("/myLoans/{loanId}/schedule")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<LoanScheduleDTO> getMyLoanSchedule(Authentication authentication, @PathVariable long loanId) {
+        return ResponseEntity.ok(loanService.getMySchedule(authentication.getName(), loanId));
     }
 
     @GetMapping("/myCards")
     @PreAuthorize("hasRole('USER')")
-    public String getMyCards() {
-        return "Here are your credit card details.";
+    public ResponseEntity<List<CardDTO>> getMyCards(Authentication authentication) {
+        return ResponseEntity.ok(cardService.getMyCards(authentication.getName()));
     }
 
     @GetMapping("/myAccount")
     @PreAuthorize("hasRole('USER')")
-    public String getMyAccountDetails() {
-        return "Here are your account details.";
+    public ResponseEntity<AccountDTO> getMyAccountDetails(Authentication authentication) {
+        return ResponseEntity.ok(accountService.getMyAccount(authentication.getName()));
     }
 
     @GetMapping("/myBalance")
     @PreAuthorize("hasRole('USER')")
-    public String getMyBalance() {
-        return "Here is your account balance.";
+    public ResponseEntity<BalanceDTO> getMyBalance(Authentication authentication) {
+        return ResponseEntity.ok(accountService.getMyBalance(authentication.getName()));
+    }
+
+    /**
+     * Streams the statement of {@code [from, to]} (UTC days, both inclusive) straight from the database cursor.
+     */
+    @GetMapping("/myAccount/statement")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> getMyStatement(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        LocalDate firstDay = from == null ? LocalDate.EPOCH : from;
+        LocalDate lastDay = to == null ? LocalDate.now(ZoneOffset.UTC) : to;
+        if (firstDay.isAfter(lastDay)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        Instant start = firstDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = lastDay.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // Résolu avant de commencer la réponse : une erreur donne encore un vrai code HTTP
+        long accountId = accountService.getMyAccountId(authentication.getName());
+
+        return switch (format) {
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("statement-" + firstDay + "-" + lastDay + ".csv").build().toString())
+                    .body(outputStream -> {
+                        Writer writer = new BufferedWriter(
+                                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+                        writer.write(CSV_HEADER);
+                        accountService.forEachStatementLine(accountId, start, end, line -> {
+                            try {
+                                writeCsvLine(writer, line);
+                            } catch (IOException e) {
+                                // client déconnecté : on interrompt la lecture du curseur
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                        writer.flush();
+                    });
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(outputStream -> {
+                        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                                .writeValues(outputStream)) {
+                            accountService.forEachStatementLine(accountId, start, end, line -> {
+                                try {
+                                    writer.write(line);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                            writer.flush();
+                            outputStream.write('\n');
+                        }
+                    });
+            default -> throw new IllegalArgumentException("Format de relevé inconnu : " + format + " (csv ou ndjson)");
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, StatementLineDTO line) throws IOException {
+        writer.write(Long.toString(line.sequence()));
+        writer.write(',');
+        writer.write(line.createdAt().toString());
+        writer.write(',');
+        writer.write(line.type().name());
+        writer.write(',');
+        writer.write(line.amount().toPlainString());
+        writer.write(',');
+        writer.write(line.balanceAfter().toPlainString());
+        writer.write(',');
+        writeCsvField(writer, line.reference());
+        writer.write(',');
+        writeCsvField(writer, line.description());
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
     }
 }
@@ -0,0 +1,57 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.CardAuthorizationDTO;
+import com.youcode.ebanking.dto.CardAuthorizationRequestDTO;
+import com.youcode.ebanking.dto.CardDTO;
+import com.youcode.ebanking.dto.CardHoldDTO;
+import com.youcode.ebanking.dto.IssueCardDTO;
+import com.youcode.ebanking.dto.UpdateCardDTO;
+import com.youcode.ebanking.service.CardService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cards")
+@RequiredArgsConstructor
+public class CardController {
+
+    private final CardService cardService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardDTO> issueCard(@Valid @RequestBody IssueCardDTO issueCardDTO) {
+        return new ResponseEntity<>(cardService.issueCard(issueCardDTO), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{cardId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardDTO> updateCard(@PathVariable long cardId, @Valid @RequestBody UpdateCardDTO updateCardDTO) {
+        return ResponseEntity.ok(cardService.updateCard(cardId, updateCardDTO));
+    }
+
+    /**
+     * A decline is a regular answer (200, {@code approved = false}), not an error.
+     */
+    @PostMapping("/{cardId}/authorize")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardAuthorizationDTO> authorize(@PathVariable long cardId,
+                                                          @Valid @RequestBody CardAuthorizationRequestDTO request) {
+        return ResponseEntity.ok(cardService.authorize(cardId, request));
+    }
+
+    @PostMapping("/holds/{reference}/capture")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardHoldDTO> capture(@PathVariable String reference) {
+        return ResponseEntity.ok(cardService.capture(reference));
+    }
+
+    @PostMapping("/holds/{reference}/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardHoldDTO> release(@PathVariable String reference) {
+        return ResponseEntity.ok(cardService.release(reference));
+    }
+}
@@ -0,0 +1,27 @@
+package com.youcode.ebanking.controller;
+
+/**
+ * {@code If-None-Match} matching without touching the response, unlike {@code WebRequest#checkNotModified}.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    // Comparaison faible (RFC 9110) : W/"x" correspond à "x"
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
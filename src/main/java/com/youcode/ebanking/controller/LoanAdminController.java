@@ -0,0 +1,40 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.LoanScheduleDTO;
+import com.youcode.ebanking.dto.LoanSummaryDTO;
+import com.youcode.ebanking.dto.OpenLoanDTO;
+import com.youcode.ebanking.dto.PrepaymentDTO;
+import com.youcode.ebanking.service.LoanService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/loans")
+@RequiredArgsConstructor
+public class LoanAdminController {
+
+    private final LoanService loanService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanSummaryDTO> openLoan(@Valid @RequestBody OpenLoanDTO openLoanDTO) {
+        return new ResponseEntity<>(loanService.openLoan(openLoanDTO), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{loanId}/schedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanScheduleDTO> getSchedule(@PathVariable long loanId) {
+        return ResponseEntity.ok(loanService.getSchedule(loanId));
+    }
+
+    @PostMapping("/{loanId}/prepayments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanScheduleDTO> prepay(@PathVariable long loanId,
+                                                  @Valid @RequestBody PrepaymentDTO prepaymentDTO) {
+        return ResponseEntity.ok(loanService.prepay(loanId, prepaymentDTO));
+    }
+}
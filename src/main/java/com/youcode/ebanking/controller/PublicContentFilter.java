@@ -0,0 +1,97 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.model.PublicContent;
+import com.youcode.ebanking.service.PublicContentService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Serves {@code GET}/{@code HEAD /api/notices} and {@code /api/contact} before the security chain and the
+ * dispatcher servlet: the content is public, so the request only needs a snapshot lookup, an ETag comparison and
+ * a write of pre-rendered bytes (gzip when the client accepts it, under its own ETag). Updates ({@code PUT}) go through the normal
+ * chain to {@link PublicController}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class PublicContentFilter extends OncePerRequestFilter {
+
+    private static final Map<String, String> PATHS = Map.of(
+            "/api/notices", PublicContent.NOTICES,
+            "/api/contact", PublicContent.CONTACT);
+
+    private static final String CONTENT_TYPE = "text/plain;charset=UTF-8";
+
+    private final PublicContentService publicContentService;
+    private final String cacheControl;
+
+    public PublicContentFilter(PublicContentService publicContentService,
+                               @Value("${ebanking.public.max-age:PT1M}") Duration maxAge) {
+        this.publicContentService = publicContentService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method))
+                || !PATHS.containsKey(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String name = PATHS.get(request.getRequestURI().substring(request.getContextPath().length()));
+        PublicContentService.Rendered content = publicContentService.find(name);
+        if (content == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean gzip = content.hasGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = content.etag(gzip);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(content.contentLength(gzip));
+        if (!"HEAD".equals(request.getMethod())) {
+            content.writeTo(response.getOutputStream(), gzip);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
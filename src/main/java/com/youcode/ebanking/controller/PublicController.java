@@ -1,20 +1,35 @@
 package com.youcode.ebanking.controller;
 
-import org.springframework.web.bind.annotation.GetMapping;
+import com.youcode.ebanking.model.PublicContent;
+import com.youcode.ebanking.service.PublicContentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+/**
+ * Administration of the public texts; reads are answered by {@link PublicContentFilter}.
+ */
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
 public class PublicController {
 
-    @GetMapping("/notices")
-    public String getNotices() {
-        return "Here are the system notices.";
+    private final PublicContentService publicContentService;
+
+    @PutMapping(value = "/notices", consumes = MediaType.TEXT_PLAIN_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateNotices(@RequestBody String notices) {
+        return ResponseEntity.noContent().eTag(publicContentService.update(PublicContent.NOTICES, notices).etag()).build();
     }
 
-    @GetMapping("/contact")
-    public String getContactInfo() {
-        return "Contact support at support@ebanking.com or call +123456789.";
+    @PutMapping(value = "/contact", consumes = MediaType.TEXT_PLAIN_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateContactInfo(@RequestBody String contact) {
+        return ResponseEntity.noContent().eTag(publicContentService.update(PublicContent.CONTACT, contact).etag()).build();
     }
 }
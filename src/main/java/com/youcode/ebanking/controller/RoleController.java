@@ -0,0 +1,34 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.RoleEmbeddableDto;
+import com.youcode.ebanking.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/roles")
+@RequiredArgsConstructor
+public class RoleController {
+
+    private final RoleRegistry roleRegistry;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RoleEmbeddableDto>> getRoles() {
+        return ResponseEntity.ok(roleRegistry.roles());
+    }
+
+    @PostMapping("/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RoleEmbeddableDto>> refreshRoles() {
+        roleRegistry.refresh();
+        return ResponseEntity.ok(roleRegistry.roles());
+    }
+}
@@ -0,0 +1,30 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.TransferRequestDTO;
+import com.youcode.ebanking.dto.TransferResultDTO;
+import com.youcode.ebanking.service.TransferService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transfers")
+@RequiredArgsConstructor
+public class TransferController {
+
+    private final TransferService transferService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<TransferResultDTO> transfer(@Valid @RequestBody TransferRequestDTO transferRequest,
+                                                      Authentication authentication) {
+        return new ResponseEntity<>(transferService.transfer(authentication.getName(), transferRequest), HttpStatus.CREATED);
+    }
+}
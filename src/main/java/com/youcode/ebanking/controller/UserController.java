@@ -1,60 +1,208 @@
 package com.youcode.ebanking.controller;
 
 import com.youcode.ebanking.dto.*;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.youcode.ebanking.service.BulkUserActionService;
+import com.youcode.ebanking.service.UserImportService;
 import com.youcode.ebanking.service.UserService;
+import com.youcode.ebanking.service.UserService.VersionedPage;
+import com.youcode.ebanking.service.UserService.VersionedUser;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
+    private final BulkUserActionService bulkUserActionService;
+
+    private final ObjectMapper objectMapper;
+
     @PostMapping("/register")
     public ResponseEntity<UserResponseDTO> registerUser(@Valid @RequestBody UserRegistrationDTO registrationDTO) {
-        System.out.println("here is the user service class " + userService.getClass());
         UserResponseDTO user = userService.registerNewUser(registrationDTO);
         return new ResponseEntity<>(user, HttpStatus.CREATED);
     }
 
+    @GetMapping("/available")
+    public ResponseEntity<UsernameAvailabilityDTO> isUsernameAvailable(
+            @RequestParam String username) {
+        return ResponseEntity.ok(userService.checkUsernameAvailability(username));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReportDTO> bulkImportJson(InputStream body) throws IOException {
+        try (MappingIterator<UserRegistrationDTO> rows = objectMapper.readerFor(UserRegistrationDTO.class).readValues(body)) {
+            return ResponseEntity.ok(userImportService.importUsers(rows));
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReportDTO> bulkImportCsv(InputStream body) throws IOException {
+        // Format attendu : username,password,email (ligne d'en-tête facultative, pas de guillemets)
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok(userImportService.importUsers(reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .filter(line -> !line.trim().equalsIgnoreCase("username,password,email"))
+                    .map(UserController::parseCsvRow)
+                    .iterator()));
+        }
+    }
+
+    @PatchMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUserActionReportDTO> bulkAction(@Valid @RequestBody BulkUserActionDTO request,
+                                                              Principal principal) {
+        BulkUserActionService.Plan plan = bulkUserActionService.plan(request);
+        return ResponseEntity.ok(bulkUserActionService.run(plan, principal.getName(), progress -> { }));
+    }
+
+    /**
+     * Same action, with one NDJSON line of running totals per committed chunk and the final report last.
+     */
+    @PatchMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> bulkActionWithProgress(@Valid @RequestBody BulkUserActionDTO request,
+                                                                        Principal principal) {
+        // Validée avant l'envoi des en-têtes : une requête invalide reçoit encore un 400
+        BulkUserActionService.Plan plan = bulkUserActionService.plan(request);
+        String actor = principal.getName();
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                BulkUserActionReportDTO report = bulkUserActionService.run(plan, actor, progress -> {
+                    try {
+                        writer.write(progress);
+                        writer.flush();
+                    } catch (IOException e) {
+                        // Client déconnecté : les lots déjà validés restent appliqués, la suite est abandonnée
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.write(report);
+                writer.flush();
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<String> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
+    public ResponseEntity<TokenResponseDTO> login(@Valid @RequestBody LoginRequestDto loginRequestDto,
+                                                  HttpServletRequest request) {
+        return ResponseEntity.ok(userService.login(loginRequestDto, request.getRemoteAddr()));
+    }
 
-        String message = userService.login(loginRequestDto);
-        return ResponseEntity.ok(message);
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshRequest) {
+        return ResponseEntity.ok(userService.refreshToken(refreshRequest));
     }
 
     @PutMapping("/{username}/updateRole")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserResponseDTO> updateUserRole(@Valid @RequestBody UserUpdateRoleDTO updateRoleDTO) {
-        UserResponseDTO user = userService.changeUserRole(updateRoleDTO.username(), updateRoleDTO.roleName());
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserResponseDTO> updateUserRole(@Valid @RequestBody UserUpdateRoleDTO updateRoleDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionedUser user = userService.changeUserRole(updateRoleDTO.username(), updateRoleDTO.roleName(),
+                ifMatch);
+        return ResponseEntity.ok().eTag(user.etag()).body(user.user());
+    }
+
+    @PutMapping("/{username}/enable")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserResponseDTO> enableUser(@PathVariable String username) {
+        return ResponseEntity.ok(userService.setUserEnabled(username, true));
+    }
+
+    @PutMapping("/{username}/disable")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserResponseDTO> disableUser(@PathVariable String username) {
+        return ResponseEntity.ok(userService.setUserEnabled(username, false));
+    }
+
+    @GetMapping("/credential-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CredentialCacheStatsDTO> getCredentialCacheStats() {
+        return ResponseEntity.ok(userService.getCredentialCacheStats());
+    }
+
+    @GetMapping("/password-hashing/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(userService.getPasswordHashingStats());
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<UserPageDTO> getAllUsers(@RequestParam(required = false) Long after,
+                                                   @RequestParam(defaultValue = "100") int limit,
+                                                   WebRequest request) {
+        return conditional(request, userService.getUsersPageETag(after, limit),
+                () -> userService.getUsersPage(after, limit), VersionedPage::page, VersionedPage::etag);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                userService.forEachUser(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        // client déconnecté : on interrompt la lecture du curseur
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{username}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username) {
-        return ResponseEntity.ok(userService.getUserByUsername(username));
+    public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username, WebRequest request) {
+        return conditional(request, userService.getUserETag(username), () -> userService.getUserByUsername(username),
+                VersionedUser::user, VersionedUser::etag);
     }
 
     @DeleteMapping("/{username}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable String username) {
-        userService.deleteUser(username);
+    public ResponseEntity<Void> deleteUser(@PathVariable String username,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.deleteUser(username, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
@@ -63,4 +211,30 @@ public class UserController {
         userService.changePassword(passwordChangeDTO);
         return ResponseEntity.ok("Mot de passe modifié avec succès");
     }
-}
\ No newline at end of file
+
+    /**
+     * 304 from the ETag alone, before the body is loaded. Otherwise the body goes out with the ETag read from its
+     * own rows, not with the one just compared: that lookup ran in another transaction, maybe on another replica.
+     * {@code no-cache} (instead of Spring Security's {@code no-store}) lets clients keep the copy and revalidate it.
+     */
+    private static <V, T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<V> load,
+                                                        Function<V, T> body, Function<V, String> bodyEtag) {
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        V loaded = load.get();
+        return ResponseEntity.ok().eTag(bodyEtag.apply(loaded)).cacheControl(REVALIDATE).body(body.apply(loaded));
+    }
+
+    private static UserRegistrationDTO parseCsvRow(String line) {
+        String[] columns = line.split(",", -1);
+        return new UserRegistrationDTO(
+                column(columns, 0),
+                column(columns, 1),
+                column(columns, 2));
+    }
+
+    private static String column(String[] columns, int index) {
+        return index < columns.length ? columns[index].trim() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.youcode.ebanking.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record AccountDTO(
+        String accountNumber,
+        String currency,
+        BigDecimal balance,
+        long lastSequence,
+        Instant openedAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.youcode.ebanking.dto;
+
+import java.math.BigDecimal;
+
+public record BalanceDTO(
+        String accountNumber,
+        String currency,
+        BigDecimal balance
+) {
+}
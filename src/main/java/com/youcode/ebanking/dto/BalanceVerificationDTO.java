@@ -0,0 +1,13 @@
+package com.youcode.ebanking.dto;
+
+import java.math.BigDecimal;
+
+public record BalanceVerificationDTO(
+        String accountNumber,
+        long ledgerSequence,
+        BigDecimal snapshotBalance,
+        BigDecimal ledgerBalance,
+        boolean consistent,
+        boolean rebuilt
+) {
+}
@@ -0,0 +1,11 @@
+package com.youcode.ebanking.dto;
+
+import java.util.List;
+
+public record BulkImportReportDTO(
+        int total,
+        int created,
+        int failed,
+        List<BulkImportRowResultDTO> rows
+) {
+}
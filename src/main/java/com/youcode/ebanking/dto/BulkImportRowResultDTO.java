@@ -0,0 +1,9 @@
+package com.youcode.ebanking.dto;
+
+public record BulkImportRowResultDTO(
+        int row,
+        String username,
+        BulkImportStatus status,
+        String message
+) {
+}
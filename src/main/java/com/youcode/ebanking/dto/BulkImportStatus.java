@@ -0,0 +1,8 @@
+package com.youcode.ebanking.dto;
+
+public enum BulkImportStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    FAILED
+}
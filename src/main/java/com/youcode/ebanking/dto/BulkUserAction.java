@@ -0,0 +1,8 @@
+package com.youcode.ebanking.dto;
+
+public enum BulkUserAction {
+    CHANGE_ROLE,
+    ENABLE,
+    DISABLE,
+    DELETE
+}
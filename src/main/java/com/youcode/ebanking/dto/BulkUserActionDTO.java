@@ -0,0 +1,24 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.List;
+
+/**
+ * An action applied to the users named in {@code usernames} or matching {@code filter} (exactly one of the two).
+ * {@code roleName} is the target role of {@code CHANGE_ROLE}.
+ */
+public record BulkUserActionDTO(
+        @NotNull(message = "Action is required")
+        BulkUserAction action,
+
+        @Pattern(regexp = "ROLE_USER|ROLE_ADMIN", message = "Invalid role")
+        String roleName,
+
+        List<String> usernames,
+
+        @Valid
+        BulkUserFilterDTO filter) {
+}
@@ -0,0 +1,20 @@
+package com.youcode.ebanking.dto;
+
+import java.util.List;
+
+/**
+ * Progress of a bulk action after each chunk ({@code done} false, lists empty), then its final report.
+ * {@code unchanged} users already had the requested state; {@code skipped} lists the acting administrator and,
+ * for {@code DELETE}, users with account activity, cards or loans.
+ */
+public record BulkUserActionReportDTO(
+        BulkUserAction action,
+        boolean done,
+        int chunks,
+        int matched,
+        int applied,
+        int unchanged,
+        List<String> skipped,
+        List<String> notFound
+) {
+}
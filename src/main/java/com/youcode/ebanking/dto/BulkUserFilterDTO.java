@@ -0,0 +1,18 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Selects users by attributes; the criteria that are set must all match.
+ */
+public record BulkUserFilterDTO(
+        String usernamePrefix,
+
+        // Partie de l'adresse après le @, par exemple partner.example
+        String emailDomain,
+
+        @Pattern(regexp = "ROLE_USER|ROLE_ADMIN", message = "Invalid role")
+        String roleName,
+
+        Boolean enabled) {
+}
@@ -0,0 +1,17 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.DeclineReason;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CardAuthorizationDTO(
+        String reference,
+        long cardId,
+        boolean approved,
+        DeclineReason declineReason,
+        BigDecimal amount,
+        Instant authorizedAt,
+        Instant expiresAt
+) {
+}
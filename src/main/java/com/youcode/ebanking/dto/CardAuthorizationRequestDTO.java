@@ -0,0 +1,19 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record CardAuthorizationRequestDTO(
+        @NotNull(message = "Amount is required")
+        @Positive(message = "Amount must be positive")
+        @Digits(integer = 13, fraction = 2, message = "Amount must have at most 2 decimals")
+        BigDecimal amount,
+
+        @Size(max = 100, message = "Merchant must be at most 100 characters")
+        String merchant
+) {
+}
@@ -0,0 +1,17 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CardDTO(
+        Long id,
+        String accountNumber,
+        String currency,
+        CardStatus status,
+        BigDecimal dailyLimit,
+        BigDecimal monthlyLimit,
+        Instant issuedAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.HoldStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CardHoldDTO(
+        String reference,
+        long cardId,
+        BigDecimal amount,
+        HoldStatus status,
+        Instant resolvedAt
+) {
+}
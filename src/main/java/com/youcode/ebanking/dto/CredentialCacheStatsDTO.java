@@ -0,0 +1,8 @@
+package com.youcode.ebanking.dto;
+
+public record CredentialCacheStatsDTO(
+        long hits,
+        long misses,
+        long size
+) {
+}
@@ -1,8 +1,9 @@
 package com.youcode.ebanking.dto;
 
 public record ErrorResponseDTO (
+     String code,
      String message,
      int status
 ){
 
-}
\ No newline at end of file
+}
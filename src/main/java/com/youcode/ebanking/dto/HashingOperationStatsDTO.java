@@ -0,0 +1,9 @@
+package com.youcode.ebanking.dto;
+
+public record HashingOperationStatsDTO(
+        String operation,
+        long count,
+        double meanMillis,
+        double maxMillis
+) {
+}
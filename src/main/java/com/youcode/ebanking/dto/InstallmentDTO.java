@@ -0,0 +1,15 @@
+package com.youcode.ebanking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record InstallmentDTO(
+        int number,
+        LocalDate dueDate,
+        BigDecimal payment,
+        BigDecimal interest,
+        BigDecimal principal,
+        BigDecimal prepayment,
+        BigDecimal balanceAfter
+) {
+}
@@ -0,0 +1,17 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.EntryType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record LedgerEntryDTO(
+        long sequence,
+        EntryType type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        String description,
+        String reference,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.EntryType;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record LedgerPostingDTO(
+        @NotNull(message = "Entry type is required")
+        EntryType type,
+
+        @NotNull(message = "Amount is required")
+        @Positive(message = "Amount must be positive")
+        @Digits(integer = 15, fraction = 2, message = "Amount must have at most 2 decimals")
+        BigDecimal amount,
+
+        @Size(max = 140, message = "Description must be at most 140 characters")
+        String description
+) {
+}
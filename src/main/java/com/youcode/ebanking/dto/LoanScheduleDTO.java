@@ -0,0 +1,20 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.AmortizationType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record LoanScheduleDTO(
+        long loanId,
+        long version,
+        AmortizationType type,
+        String accountNumber,
+        String currency,
+        BigDecimal principal,
+        BigDecimal annualRate,
+        int termMonths,
+        BigDecimal totalInterest,
+        List<InstallmentDTO> installments
+) {
+}
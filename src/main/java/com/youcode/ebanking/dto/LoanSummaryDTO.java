@@ -0,0 +1,21 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.AmortizationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LoanSummaryDTO(
+        long loanId,
+        AmortizationType type,
+        String accountNumber,
+        String currency,
+        BigDecimal principal,
+        BigDecimal annualRate,
+        int termMonths,
+        BigDecimal outstanding,
+        int remainingInstallments,
+        LocalDate nextDueDate,
+        BigDecimal nextPayment
+) {
+}
@@ -0,0 +1,13 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record OpenAccountDTO(
+        @NotBlank(message = "Username is required")
+        String username,
+
+        @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code")
+        String currency
+) {
+}
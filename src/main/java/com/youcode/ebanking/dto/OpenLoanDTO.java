@@ -0,0 +1,38 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.AmortizationType;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record OpenLoanDTO(
+        @NotBlank(message = "Account number is required")
+        String accountNumber,
+
+        @NotNull(message = "Amortization type is required")
+        AmortizationType type,
+
+        @NotNull(message = "Principal is required")
+        @Positive(message = "Principal must be positive")
+        @Digits(integer = 13, fraction = 2, message = "Principal must have at most 2 decimals")
+        BigDecimal principal,
+
+        @NotNull(message = "Annual rate is required")
+        @PositiveOrZero(message = "Annual rate must not be negative")
+        @Digits(integer = 2, fraction = 2, message = "Annual rate is a percentage with at most 2 decimals")
+        BigDecimal annualRate,
+
+        @Positive(message = "Term must be positive")
+        @Max(value = 600, message = "Term must be at most 600 months")
+        int termMonths,
+
+        @NotNull(message = "First due date is required")
+        LocalDate firstDueDate
+) {
+}
@@ -0,0 +1,11 @@
+package com.youcode.ebanking.dto;
+
+import java.util.List;
+
+public record PasswordHashingStatsDTO(
+        List<HashingOperationStatsDTO> operations,
+        long rejected,
+        int active,
+        int queued
+) {
+}
@@ -0,0 +1,17 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.EntryType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PostingReceiptDTO(
+        String reference,
+        String accountNumber,
+        EntryType type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        long journalSequence,
+        Instant acceptedAt
+) {
+}
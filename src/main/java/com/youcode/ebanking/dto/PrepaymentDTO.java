@@ -0,0 +1,18 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record PrepaymentDTO(
+        @Positive(message = "Installment number must be positive")
+        int afterInstallment,
+
+        @NotNull(message = "Amount is required")
+        @Positive(message = "Amount must be positive")
+        @Digits(integer = 13, fraction = 2, message = "Amount must have at most 2 decimals")
+        BigDecimal amount
+) {
+}
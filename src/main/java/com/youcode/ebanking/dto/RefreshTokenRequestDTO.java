@@ -0,0 +1,9 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {
+}
@@ -0,0 +1,10 @@
+package com.youcode.ebanking.dto;
+
+public record TokenResponseDTO(
+        String accessToken,
+        String refreshToken,
+        String tokenType,
+        long expiresIn,
+        RoleEmbeddableDto role
+) {
+}
@@ -0,0 +1,26 @@
+package com.youcode.ebanking.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record TransferRequestDTO(
+        @NotBlank(message = "Source account is required")
+        String fromAccountNumber,
+
+        @NotBlank(message = "Destination account is required")
+        String toAccountNumber,
+
+        @NotNull(message = "Amount is required")
+        @Positive(message = "Amount must be positive")
+        @Digits(integer = 15, fraction = 2, message = "Amount must have at most 2 decimals")
+        BigDecimal amount,
+
+        @Size(max = 140, message = "Description must be at most 140 characters")
+        String description
+) {
+}
@@ -0,0 +1,15 @@
+package com.youcode.ebanking.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransferResultDTO(
+        String reference,
+        String fromAccountNumber,
+        String toAccountNumber,
+        BigDecimal amount,
+        String currency,
+        BigDecimal balanceAfter,
+        Instant executedAt
+) {
+}
@@ -0,0 +1,24 @@
+package com.youcode.ebanking.dto;
+
+import com.youcode.ebanking.model.CardStatus;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+public record UpdateCardDTO(
+        @NotNull(message = "Status is required")
+        CardStatus status,
+
+        @NotNull(message = "Daily limit is required")
+        @PositiveOrZero(message = "Daily limit must not be negative")
+        @Digits(integer = 13, fraction = 2, message = "Daily limit must have at most 2 decimals")
+        BigDecimal dailyLimit,
+
+        @NotNull(message = "Monthly limit is required")
+        @PositiveOrZero(message = "Monthly limit must not be negative")
+        @Digits(integer = 13, fraction = 2, message = "Monthly limit must have at most 2 decimals")
+        BigDecimal monthlyLimit
+) {
+}
@@ -0,0 +1,14 @@
+package com.youcode.ebanking.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of users; pass {@code nextCursor} as {@code after} to fetch the next page.
+ * {@code nextCursor} is null on the last page.
+ */
+public record UserPageDTO(
+        List<UserResponseDTO> content,
+        int size,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,7 @@
+package com.youcode.ebanking.dto;
+
+public record UsernameAvailabilityDTO(
+        String username,
+        boolean available
+) {
+}
@@ -0,0 +1,16 @@
+package com.youcode.ebanking.exception;
+
+/**
+ * Exception thrown when an operation would destroy accounts that already carry ledger history.
+ */
+public class AccountActivityException extends DomainException {
+
+    /**
+     * Constructor with a custom error message.
+     *
+     * @param message The error message.
+     */
+    public AccountActivityException(String message) {
+        super(ErrorCode.ACCOUNT_ACTIVITY, message);
+    }
+}
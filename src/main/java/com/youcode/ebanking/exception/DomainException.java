@@ -0,0 +1,22 @@
+package com.youcode.ebanking.exception;
+
+import lombok.Getter;
+
+/**
+ * Base of the expected business errors. They are part of normal operation (and frequent under abuse), so no
+ * stack trace is captured: the message and the {@link ErrorCode} say everything. A cause keeps its own trace.
+ */
+@Getter
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected DomainException(ErrorCode errorCode, String message) {
+        this(errorCode, message, null);
+    }
+
+    protected DomainException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.errorCode = errorCode;
+    }
+}
@@ -0,0 +1,40 @@
+package com.youcode.ebanking.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Stable error codes returned in every error body. Clients match on {@link #getCode()}, never on the message;
+ * existing codes must not be renamed or reused.
+ */
+@Getter
+public enum ErrorCode {
+
+    BAD_REQUEST("EB-000", HttpStatus.BAD_REQUEST, "Requête invalide"),
+    BAD_CREDENTIALS("EB-AUTH-001", HttpStatus.BAD_REQUEST, "Identifiants invalides"),
+    UNAUTHORIZED("EB-AUTH-002", HttpStatus.UNAUTHORIZED, "Unauthorized"),
+    ACCESS_DENIED("EB-AUTH-003", HttpStatus.FORBIDDEN, "Access Denied"),
+    LOGIN_THROTTLED("EB-AUTH-004", HttpStatus.TOO_MANY_REQUESTS,
+            "Trop de tentatives de connexion, veuillez réessayer plus tard"),
+    HASHING_UNAVAILABLE("EB-AUTH-005", HttpStatus.SERVICE_UNAVAILABLE,
+            "Password hashing capacity exceeded, please retry later."),
+    USERNAME_TAKEN("EB-USER-001", HttpStatus.CONFLICT, "A user with this email already exists."),
+    NOT_FOUND("EB-404", HttpStatus.NOT_FOUND, "Ressource introuvable"),
+    CONCURRENT_UPDATE("EB-409", HttpStatus.CONFLICT, "Modification concurrente, veuillez réessayer"),
+    PRECONDITION_FAILED("EB-412", HttpStatus.PRECONDITION_FAILED, "La ressource a été modifiée entre-temps"),
+    INSUFFICIENT_FUNDS("EB-ACCT-001", HttpStatus.UNPROCESSABLE_ENTITY, "Solde insuffisant"),
+    ACCOUNT_ACTIVITY("EB-ACCT-002", HttpStatus.CONFLICT, "Comptes déjà mouvementés"),
+    TRANSFER_UNAVAILABLE("EB-TRF-001", HttpStatus.SERVICE_UNAVAILABLE, "Virement indisponible, veuillez réessayer"),
+    TRANSFER_IN_DOUBT("EB-TRF-002", HttpStatus.ACCEPTED, "Virement en cours de validation, issue non confirmée"),
+    INTERNAL_ERROR("EB-500", HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error");
+
+    private final String code;
+    private final HttpStatus status;
+    private final String defaultMessage;
+
+    ErrorCode(String code, HttpStatus status, String defaultMessage) {
+        this.code = code;
+        this.status = status;
+        this.defaultMessage = defaultMessage;
+    }
+}
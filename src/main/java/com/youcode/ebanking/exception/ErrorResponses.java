@@ -0,0 +1,83 @@
+package com.youcode.ebanking.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.dto.ErrorResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Error responses. The body of each {@link ErrorCode} with its default message is serialized once at class
+ * load, and the whole (immutable) {@link ResponseEntity} is shared when no header is added; only errors carrying
+ * a specific message (an account number, a username) build and serialize a DTO.
+ */
+public final class ErrorResponses {
+
+    private static final Map<ErrorCode, byte[]> DEFAULT_BODIES = new EnumMap<>(ErrorCode.class);
+    private static final Map<ErrorCode, ResponseEntity<Object>> DEFAULT_RESPONSES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            try {
+                DEFAULT_BODIES.put(errorCode, objectMapper.writeValueAsBytes(dto(errorCode, errorCode.getDefaultMessage())));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            DEFAULT_RESPONSES.put(errorCode, ResponseEntity.status(errorCode.getStatus())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(DEFAULT_BODIES.get(errorCode)));
+        }
+    }
+
+    private ErrorResponses() {
+    }
+
+    /**
+     * A response for {@code errorCode}; the pre-rendered body is used when {@code message} is the default one.
+     */
+    public static ResponseEntity<Object> of(ErrorCode errorCode, String message) {
+        if (isDefault(errorCode, message)) {
+            return DEFAULT_RESPONSES.get(errorCode);
+        }
+        return ResponseEntity.status(errorCode.getStatus()).body(dto(errorCode, message));
+    }
+
+    public static ResponseEntity<Object> of(ErrorCode errorCode, String message, HttpHeaders headers) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(errorCode.getStatus()).headers(headers);
+        if (isDefault(errorCode, message)) {
+            return response.contentType(MediaType.APPLICATION_JSON).body(DEFAULT_BODIES.get(errorCode));
+        }
+        return response.body(dto(errorCode, message));
+    }
+
+    public static ResponseEntity<Object> of(ErrorCode errorCode) {
+        return of(errorCode, null);
+    }
+
+    /**
+     * Writes the pre-rendered body of {@code errorCode} from a servlet filter, outside Spring MVC.
+     */
+    public static void write(HttpServletResponse response, ErrorCode errorCode) throws IOException {
+        byte[] body = DEFAULT_BODIES.get(errorCode);
+        response.setStatus(errorCode.getStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean isDefault(ErrorCode errorCode, String message) {
+        return message == null || message.equals(errorCode.getDefaultMessage());
+    }
+
+    private static ErrorResponseDTO dto(ErrorCode errorCode, String message) {
+        return new ErrorResponseDTO(errorCode.getCode(), message, errorCode.getStatus().value());
+    }
+}
@@ -0,0 +1,35 @@
+package com.youcode.ebanking.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Exception thrown when the password-hashing bulkhead is saturated and the request must be retried later.
+ * <p>
+ * Extends {@link AuthenticationServiceException} so that authentication filters report it through
+ * the authentication entry point instead of swallowing it.
+ */
+public class HashingCapacityExceededException extends AuthenticationServiceException {
+
+    /**
+     * Default constructor with a generic error message.
+     */
+    public HashingCapacityExceededException() {
+        super(ErrorCode.HASHING_UNAVAILABLE.getDefaultMessage());
+    }
+
+    /**
+     * Constructor with a custom error message and a cause.
+     *
+     * @param message The error message.
+     * @param cause   The underlying cause of the exception.
+     */
+    public HashingCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    // Délestage attendu sous charge : pas de pile d'appels à capturer, la cause garde la sienne
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
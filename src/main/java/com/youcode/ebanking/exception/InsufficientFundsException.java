@@ -0,0 +1,16 @@
+package com.youcode.ebanking.exception;
+
+/**
+ * Exception thrown when a debit would take an account balance below zero.
+ */
+public class InsufficientFundsException extends DomainException {
+
+    /**
+     * Constructor with a custom error message.
+     *
+     * @param message The error message.
+     */
+    public InsufficientFundsException(String message) {
+        super(ErrorCode.INSUFFICIENT_FUNDS, message);
+    }
+}
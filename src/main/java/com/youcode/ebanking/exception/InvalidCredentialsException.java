@@ -0,0 +1,31 @@
+package com.youcode.ebanking.exception;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * {@link BadCredentialsException} without a stack trace: a wrong password or token is an expected outcome, and
+ * the most frequent one during credential stuffing.
+ */
+public class InvalidCredentialsException extends BadCredentialsException {
+
+    /**
+     * Default constructor with the generic error message.
+     */
+    public InvalidCredentialsException() {
+        super(ErrorCode.BAD_CREDENTIALS.getDefaultMessage());
+    }
+
+    /**
+     * Constructor with a custom error message.
+     *
+     * @param message The error message.
+     */
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
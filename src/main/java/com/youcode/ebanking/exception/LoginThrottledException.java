@@ -0,0 +1,39 @@
+package com.youcode.ebanking.exception;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when too many failed logins came from a username or client address, before any user lookup
+ * or password hashing.
+ * <p>
+ * An {@link AuthenticationException} so that HTTP Basic reports it through the authentication entry point.
+ */
+@Getter
+public class LoginThrottledException extends AuthenticationException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructor with a custom error message and the time before a new attempt is accepted.
+     *
+     * @param message    The error message.
+     * @param retryAfter The time before a new attempt is accepted.
+     */
+    public LoginThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    // Refus attendu, émis avant tout travail : pas de pile d'appels à capturer
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
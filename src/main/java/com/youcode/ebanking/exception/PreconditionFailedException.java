@@ -0,0 +1,26 @@
+package com.youcode.ebanking.exception;
+
+/**
+ * Exception thrown when the {@code If-Match} of a request no longer matches the current version of the resource.
+ */
+public class PreconditionFailedException extends DomainException {
+
+    /**
+     * Constructor with a custom error message.
+     *
+     * @param message The error message.
+     */
+    public PreconditionFailedException(String message) {
+        super(ErrorCode.PRECONDITION_FAILED, message);
+    }
+
+    /**
+     * Constructor with a custom error message and a cause.
+     *
+     * @param message The error message.
+     * @param cause   The underlying cause of the exception.
+     */
+    public PreconditionFailedException(String message, Throwable cause) {
+        super(ErrorCode.PRECONDITION_FAILED, message, cause);
+    }
+}
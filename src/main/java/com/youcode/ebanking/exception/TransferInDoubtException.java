@@ -0,0 +1,24 @@
+package com.youcode.ebanking.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a transfer was handed to the committer but its outcome was not known in time. It may
+ * still commit: the client must look for {@link #getReference()} in the statement instead of retrying blindly.
+ */
+@Getter
+public class TransferInDoubtException extends DomainException {
+
+    private final String reference;
+
+    /**
+     * Constructor with the reference the transfer is committed under, if it commits.
+     *
+     * @param reference The ledger reference of the transfer.
+     */
+    public TransferInDoubtException(String reference) {
+        super(ErrorCode.TRANSFER_IN_DOUBT, "Virement " + reference
+                + " en cours de validation : vérifiez le relevé avant de le renouveler");
+        this.reference = reference;
+    }
+}
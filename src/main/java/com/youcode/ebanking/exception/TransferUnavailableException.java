@@ -0,0 +1,27 @@
+package com.youcode.ebanking.exception;
+
+/**
+ * Exception thrown when a transfer could not be executed for a transient reason
+ * (engine saturated, lock timeout, concurrent update on another node) and can safely be retried.
+ */
+public class TransferUnavailableException extends DomainException {
+
+    /**
+     * Constructor with a custom error message.
+     *
+     * @param message The error message.
+     */
+    public TransferUnavailableException(String message) {
+        super(ErrorCode.TRANSFER_UNAVAILABLE, message);
+    }
+
+    /**
+     * Constructor with a custom error message and a cause.
+     *
+     * @param message The error message.
+     * @param cause   The underlying cause of the exception.
+     */
+    public TransferUnavailableException(String message, Throwable cause) {
+        super(ErrorCode.TRANSFER_UNAVAILABLE, message, cause);
+    }
+}
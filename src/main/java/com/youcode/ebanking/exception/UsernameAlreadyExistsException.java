@@ -3,13 +3,13 @@ package com.youcode.ebanking.exception;
 /**
  * Exception thrown when a user with the same email already exists.
  */
-public class UsernameAlreadyExistsException extends RuntimeException {
+public class UsernameAlreadyExistsException extends DomainException {
 
     /**
      * Default constructor with a generic error message.
      */
     public UsernameAlreadyExistsException() {
-        super("A user with this email already exists.");
+        super(ErrorCode.USERNAME_TAKEN, ErrorCode.USERNAME_TAKEN.getDefaultMessage());
     }
 
     /**
@@ -18,7 +18,7 @@ public class UsernameAlreadyExistsException extends RuntimeException {
      * @param message The error message.
      */
     public UsernameAlreadyExistsException(String message) {
-        super(message);
+        super(ErrorCode.USERNAME_TAKEN, message);
     }
 
     /**
@@ -28,6 +28,6 @@ public class UsernameAlreadyExistsException extends RuntimeException {
      * @param cause   The underlying cause of the exception.
      */
     public UsernameAlreadyExistsException(String message, Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.USERNAME_TAKEN, message, cause);
     }
 }
@@ -0,0 +1,65 @@
+package com.youcode.ebanking.journal;
+
+import com.youcode.ebanking.model.EntryType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One money movement as written to the journal. {@code amount} is signed, in minor units.
+ */
+public record JournalRecord(long accountId, EntryType type, long amount, String reference, String description,
+                            Instant createdAt) {
+
+    private static final EntryType[] TYPES = EntryType.values();
+
+    public byte[] encode() {
+        byte[] referenceBytes = bytes(reference);
+        byte[] descriptionBytes = bytes(description);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 1 + 8 + 8 + 4 + 4 + length(referenceBytes) + 4 + length(descriptionBytes));
+        buffer.putLong(accountId)
+                .put((byte) type.ordinal())
+                .putLong(amount)
+                .putLong(createdAt.getEpochSecond())
+                .putInt(createdAt.getNano());
+        put(buffer, referenceBytes);
+        put(buffer, descriptionBytes);
+        return buffer.array();
+    }
+
+    public static JournalRecord decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long accountId = buffer.getLong();
+        EntryType type = TYPES[buffer.get()];
+        long amount = buffer.getLong();
+        Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return new JournalRecord(accountId, type, amount, string(buffer), string(buffer), createdAt);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        // -1 : valeur nulle
+        buffer.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,266 @@
+package com.youcode.ebanking.journal;
+
+import com.youcode.ebanking.exception.TransferUnavailableException;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.JournalCheckpoint;
+import com.youcode.ebanking.model.LedgerEntry;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.JournalCheckpointRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import com.youcode.ebanking.service.AccountLocks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-ahead journal for account postings.
+ * <p>
+ * A posting is acknowledged once its record is fsynced in the local {@link SegmentedJournal}; a flusher thread
+ * forces whatever accumulated during the previous fsync (group commit). A drain thread then applies the durable
+ * records to the ledger tables in batches, one transaction per batch, together with the {@link JournalCheckpoint}.
+ * On startup, records above the checkpoint are replayed before the application serves requests.
+ * <p>
+ * Until drained, a record only exists as a pending delta on its account: balance checks must use
+ * {@link #pendingDelta(long)} while holding the account's {@link AccountLocks stripe}, which the drain also takes.
+ */
+@Service
+@Slf4j
+public class LedgerJournal {
+
+    public record Receipt(String reference, long sequence, Instant acceptedAt) {
+    }
+
+    private record PendingAck(long sequence, long accountId, long amount, CompletableFuture<Void> durable) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final AccountLocks accountLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int segmentSize;
+    private final String name;
+    private final int drainBatchSize;
+    private final long drainIntervalNanos;
+
+    private final Map<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    // Nombre d'écritures non vidangées par compte : un crédit et un débit égaux laissent un delta nul
+    private final Map<Long, Integer> pendingRecords = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingAck> acks = new LinkedBlockingQueue<>();
+
+    private SegmentedJournal journal;
+    private long appliedSequence;
+    private volatile boolean running;
+    private Thread flusher;
+    private Thread drainer;
+
+    public LedgerJournal(AccountRepository accountRepository,
+                         LedgerEntryRepository ledgerEntryRepository,
+                         JournalCheckpointRepository checkpointRepository,
+                         AccountLocks accountLocks,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${ebanking.journal.directory:./data/journal}") Path directory,
+                         @Value("${ebanking.journal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${ebanking.journal.name:ledger}") String name,
+                         @Value("${ebanking.journal.drain.batch-size:512}") int drainBatchSize,
+                         @Value("${ebanking.journal.drain.interval:5ms}") Duration drainInterval) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountLocks = accountLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.name = name;
+        this.drainBatchSize = drainBatchSize;
+        this.drainIntervalNanos = drainInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        appliedSequence = checkpointRepository.findById(name).map(JournalCheckpoint::getAppliedSequence).orElse(0L);
+        journal = SegmentedJournal.open(directory, segmentSize, appliedSequence + 1);
+
+        long replayed = 0;
+        List<SegmentedJournal.Entry> entries;
+        while (!(entries = journal.read(appliedSequence + 1, drainBatchSize)).isEmpty()) {
+            List<JournalRecord> records = entries.stream().map(entry -> JournalRecord.decode(entry.payload())).toList();
+            records.forEach(record -> addPending(record.accountId(), record.amount()));
+            drain(records, entries.getLast().sequence());
+            replayed += records.size();
+        }
+        if (replayed > 0) {
+            log.info("Journal {} : {} écritures rejouées jusqu'à la séquence {}", name, replayed, appliedSequence);
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        drainer = new Thread(this::runDrainer, "journal-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+        journal.close();
+    }
+
+    /**
+     * Journals a posting and returns once it is durable. The caller must hold the account's stripe lock and has
+     * already checked the balance (database balance plus {@link #pendingDelta(long)}).
+     *
+     * @param amount unsigned amount in minor units
+     */
+    public Receipt append(long accountId, EntryType type, long amount, String description) {
+        if (!running || journal.isFailed()) {
+            throw new TransferUnavailableException("Journal des écritures arrêté");
+        }
+        Instant now = Instant.now();
+        String reference = UUID.randomUUID().toString();
+        long signedAmount = type == EntryType.CREDIT ? amount : -amount;
+
+        long sequence = journal.append(
+                new JournalRecord(accountId, type, signedAmount, reference, description, now).encode());
+        addPending(accountId, signedAmount);
+        PendingAck ack = new PendingAck(sequence, accountId, signedAmount, new CompletableFuture<>());
+        acks.add(ack);
+        try {
+            ack.durable().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Échec de l'écriture du journal", e.getCause());
+        }
+        return new Receipt(reference, sequence, now);
+    }
+
+    /**
+     * Signed sum of the journaled but not yet drained postings of an account.
+     */
+    public long pendingDelta(long accountId) {
+        return pendingDeltas.getOrDefault(accountId, 0L);
+    }
+
+    /**
+     * Whether postings of the account are journaled but not yet drained; stable while its stripe is held.
+     */
+    public boolean hasPending(long accountId) {
+        return pendingRecords.containsKey(accountId);
+    }
+
+    private void runFlusher() {
+        List<PendingAck> group = new ArrayList<>();
+        while (running || !acks.isEmpty()) {
+            try {
+                PendingAck head = acks.poll(100, TimeUnit.MILLISECONDS);
+                if (head == null) {
+                    continue;
+                }
+                group.add(head);
+                // Tout ce qui est arrivé pendant le fsync précédent part dans le même fsync
+                acks.drainTo(group);
+                journal.sync();
+                group.forEach(ack -> ack.durable().complete(null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Échec du fsync du journal {}", name, e);
+                // Écritures effacées du journal (arrêté) : elles ne comptent plus dans le solde de leur compte
+                group.forEach(ack -> {
+                    removePending(ack.accountId(), ack.amount());
+                    ack.durable().completeExceptionally(e);
+                });
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void runDrainer() {
+        while (running || appliedSequence < journal.durableSequence()) {
+            try {
+                List<SegmentedJournal.Entry> entries = journal.read(appliedSequence + 1, drainBatchSize);
+                if (entries.isEmpty()) {
+                    LockSupport.parkNanos(drainIntervalNanos);
+                    continue;
+                }
+                drain(entries.stream().map(entry -> JournalRecord.decode(entry.payload())).toList(),
+                        entries.getLast().sequence());
+            } catch (RuntimeException e) {
+                log.warn("Échec de la vidange du journal {}, nouvelle tentative : {}", name, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void drain(List<JournalRecord> records, long lastSequence) {
+        Set<Long> accountIds = records.stream().map(JournalRecord::accountId).collect(Collectors.toSet());
+        try (AccountLocks.Held ignored = accountLocks.lock(accountIds)) {
+            transactionTemplate.executeWithoutResult(status -> apply(records, accountIds, lastSequence));
+            records.forEach(record -> removePending(record.accountId(), record.amount()));
+        }
+        appliedSequence = lastSequence;
+        journal.deleteUpTo(lastSequence);
+    }
+
+    private void addPending(long accountId, long amount) {
+        pendingRecords.merge(accountId, 1, Integer::sum);
+        pendingDeltas.merge(accountId, amount, Long::sum);
+    }
+
+    private void removePending(long accountId, long amount) {
+        pendingDeltas.merge(accountId, -amount, (current, delta) -> current + delta == 0 ? null : current + delta);
+        pendingRecords.merge(accountId, -1, (current, delta) -> current + delta == 0 ? null : current + delta);
+    }
+
+    private void apply(List<JournalRecord> records, Set<Long> accountIds, long lastSequence) {
+        Map<Long, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<LedgerEntry> entries = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            Account account = accounts.get(record.accountId());
+            if (account == null) {
+                log.error("Compte {} introuvable, écriture {} du journal ignorée", record.accountId(), record.reference());
+                continue;
+            }
+            // Le solde a été vérifié à l'acceptation : l'écriture, déjà acquittée, est appliquée telle quelle
+            entries.add(account.post(record.type(), record.amount(), record.description(), record.reference(),
+                    record.createdAt()));
+        }
+        ledgerEntryRepository.saveAll(entries);
+
+        JournalCheckpoint checkpoint = checkpointRepository.findById(name)
+                .orElseGet(() -> new JournalCheckpoint().setName(name));
+        checkpointRepository.save(checkpoint.setAppliedSequence(lastSequence).setUpdatedAt(Instant.now()));
+    }
+}
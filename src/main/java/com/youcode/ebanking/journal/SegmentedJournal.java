@@ -0,0 +1,381 @@
+package com.youcode.ebanking.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal made of fixed-size, memory-mapped segment files named after their first sequence.
+ * <p>
+ * Record layout: {@code int length | int crc32c | long sequence | payload}. New segments are zero-filled, so a
+ * zero length marks the end of the written part. The CRC covers the sequence and the payload: on open, the
+ * first torn or corrupt record and everything after it are discarded.
+ * <p>
+ * {@link #append} only writes to the mapping; {@link #sync()} forces every segment written since the previous
+ * call and then advances {@link #durableSequence()}, which bounds what {@link #read} returns. Appends and syncs
+ * are thread-safe, reads are meant for a single consumer.
+ * <p>
+ * A failed force stops the journal: the records written after the durable sequence are erased (best effort) and
+ * every later append or sync fails, since the page cache can no longer be trusted to reach the disk.
+ */
+@Slf4j
+public final class SegmentedJournal implements Closeable {
+
+    public record Entry(long sequence, byte[] payload) {
+    }
+
+    static final int HEADER_SIZE = 16;
+    private static final String SUFFIX = ".journal";
+
+    private record Segment(long firstSequence, Path path, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object syncLock = new Object();
+
+    // Protégés par this
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<Segment> unsynced = new ArrayList<>();
+    private Segment active;
+    private int writePosition;
+    private long nextSequence;
+    private RuntimeException failure;
+
+    private volatile long durableSequence;
+
+    // Curseur du lecteur unique
+    private Segment readSegment;
+    private int readPosition;
+    private long readNext;
+
+    private SegmentedJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens (or creates) the journal in {@code directory}, discarding a torn tail.
+     *
+     * @param minimumNextSequence the next append gets at least this sequence, even if the directory is empty or
+     *                            behind (sequences already consumed elsewhere must never be reused)
+     */
+    public static SegmentedJournal open(Path directory, int segmentSize, long minimumNextSequence) throws IOException {
+        SegmentedJournal journal = new SegmentedJournal(directory, segmentSize);
+        Files.createDirectories(directory);
+        journal.recover(minimumNextSequence);
+        return journal;
+    }
+
+    public synchronized long append(byte[] payload) {
+        checkNotFailed();
+        int size = HEADER_SIZE + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Enregistrement trop grand pour un segment : " + size + " octets");
+        }
+        if (writePosition + size > segmentSize) {
+            roll(nextSequence);
+        }
+
+        MappedByteBuffer buffer = active.buffer();
+        long sequence = nextSequence;
+        buffer.putLong(writePosition + 8, sequence);
+        buffer.put(writePosition + HEADER_SIZE, payload);
+        buffer.putInt(writePosition + 4, crc(buffer, writePosition, payload.length));
+        // La longueur en dernier : un lecteur de la projection ne voit jamais un en-tête à moitié écrit
+        buffer.putInt(writePosition, payload.length);
+
+        if (unsynced.isEmpty() || unsynced.getLast() != active) {
+            unsynced.add(active);
+        }
+        writePosition += size;
+        nextSequence++;
+        return sequence;
+    }
+
+    /**
+     * Forces every record appended so far to disk and returns the new durable sequence.
+     */
+    public long sync() {
+        synchronized (syncLock) {
+            long upTo;
+            List<Segment> toForce;
+            synchronized (this) {
+                checkNotFailed();
+                upTo = nextSequence - 1;
+                toForce = List.copyOf(unsynced);
+                unsynced.clear();
+            }
+            try {
+                for (Segment segment : toForce) {
+                    segment.buffer().force();
+                }
+            } catch (RuntimeException e) {
+                fail(e, toForce);
+                throw e;
+            }
+            durableSequence = upTo;
+            return upTo;
+        }
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    public synchronized boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Returns up to {@code max} durable records starting at {@code fromSequence} (or at the oldest retained one).
+     */
+    public List<Entry> read(long fromSequence, int max) {
+        long durable = durableSequence;
+        if (readSegment == null || readNext != fromSequence) {
+            seek(fromSequence);
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        while (entries.size() < max && readSegment != null && readNext <= durable) {
+            MappedByteBuffer buffer = readSegment.buffer();
+            int length = readPosition + HEADER_SIZE <= segmentSize ? buffer.getInt(readPosition) : 0;
+            if (length == 0) {
+                Segment next = segmentAfter(readSegment);
+                if (next == null) {
+                    break;
+                }
+                readSegment = next;
+                readPosition = 0;
+                continue;
+            }
+            long sequence = buffer.getLong(readPosition + 8);
+            if (sequence > durable) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(readPosition + HEADER_SIZE, payload);
+            readPosition += HEADER_SIZE + length;
+            readNext = sequence + 1;
+            if (sequence >= fromSequence) {
+                entries.add(new Entry(sequence, payload));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments whose records are all at or below {@code sequence}; the active segment is kept.
+     */
+    public synchronized void deleteUpTo(long sequence) {
+        while (segments.size() > 1 && segments.get(1).firstSequence() <= sequence + 1) {
+            Segment removed = segments.removeFirst();
+            if (removed == readSegment) {
+                readSegment = null;
+            }
+            try {
+                Files.deleteIfExists(removed.path());
+            } catch (IOException e) {
+                log.warn("Impossible de supprimer le segment {}", removed.path(), e);
+            }
+        }
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        if (!isFailed()) {
+            sync();
+        }
+    }
+
+    private void recover(long minimumNextSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(SegmentedJournal::firstSequenceOf))
+                    .toList();
+        }
+
+        long expected = -1;
+        boolean truncated = false;
+        for (Path file : files) {
+            long firstSequence = firstSequenceOf(file);
+            if (truncated || firstSequence < expected) {
+                Files.delete(file);
+                log.warn("Segment de journal {} ignoré après une fin tronquée", file.getFileName());
+                continue;
+            }
+
+            Segment segment = new Segment(firstSequence, file, map(file, false));
+            segments.add(segment);
+            expected = firstSequence;
+            int position = 0;
+            while (position + HEADER_SIZE <= segmentSize) {
+                int length = segment.buffer().getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || position + HEADER_SIZE + length > segmentSize
+                        || segment.buffer().getLong(position + 8) != expected
+                        || segment.buffer().getInt(position + 4) != crc(segment.buffer(), position, length)) {
+                    log.warn("Enregistrement {} du journal tronqué ou corrompu, fin du journal ramenée à {}",
+                            expected, expected - 1);
+                    zeroFrom(segment, position);
+                    truncated = true;
+                    break;
+                }
+                position += HEADER_SIZE + length;
+                expected++;
+            }
+            active = segment;
+            writePosition = position;
+        }
+
+        if (active == null) {
+            roll(minimumNextSequence);
+            nextSequence = minimumNextSequence;
+        } else {
+            nextSequence = expected;
+            if (nextSequence < minimumNextSequence) {
+                roll(minimumNextSequence);
+                nextSequence = minimumNextSequence;
+            }
+        }
+        durableSequence = nextSequence - 1;
+        unsynced.clear();
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("Journal arrêté après un échec de fsync", failure);
+        }
+    }
+
+    /**
+     * Stops the journal and erases the records above the durable sequence, so that neither the drain nor a
+     * restart applies postings whose callers were told they failed. Segments stay marked unsynced.
+     */
+    private synchronized void fail(RuntimeException cause, List<Segment> notForced) {
+        failure = cause;
+        for (Segment segment : notForced) {
+            if (!unsynced.contains(segment)) {
+                unsynced.add(segment);
+            }
+        }
+
+        long first = durableSequence + 1;
+        int index = segments.size() - 1;
+        while (index > 0 && segments.get(index).firstSequence() > first) {
+            index--;
+        }
+        Segment segment = segments.get(index);
+        int position = 0;
+        for (long sequence = segment.firstSequence(); sequence < first; sequence++) {
+            int length = segment.buffer().getInt(position);
+            if (length == 0) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        try {
+            zeroFrom(segment, position);
+            for (Segment later : List.copyOf(segments.subList(index + 1, segments.size()))) {
+                segments.remove(later);
+                Files.deleteIfExists(later.path());
+            }
+            log.error("fsync du journal en échec : journal arrêté, enregistrements {} à {} effacés",
+                    first, nextSequence - 1, cause);
+        } catch (IOException | RuntimeException e) {
+            log.error("fsync du journal en échec : journal arrêté, enregistrements {} à {} non effacés, "
+                    + "ils seront rejoués au redémarrage", first, nextSequence - 1, e);
+        }
+    }
+
+    private void roll(long firstSequence) {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        try {
+            active = new Segment(firstSequence, file, map(file, true));
+            forceDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de créer le segment de journal " + file, e);
+        }
+        segments.add(active);
+        writePosition = 0;
+    }
+
+    private MappedByteBuffer map(Path file, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // Le mappage étend le fichier à la taille du segment ; la plage ajoutée est remplie de zéros
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            if (create) {
+                channel.force(true);
+            }
+            return buffer;
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Non supporté sur certains systèmes de fichiers : la création du segment reste forcée
+            log.debug("fsync du répertoire {} impossible", directory, e);
+        }
+    }
+
+    private void zeroFrom(Segment segment, int position) {
+        MappedByteBuffer buffer = segment.buffer();
+        for (int i = position; i < segmentSize; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+    }
+
+    private void seek(long fromSequence) {
+        synchronized (this) {
+            readSegment = null;
+            for (Segment segment : segments) {
+                if (readSegment == null || segment.firstSequence() <= fromSequence) {
+                    readSegment = segment;
+                }
+            }
+        }
+        readPosition = 0;
+        readNext = readSegment == null ? fromSequence : readSegment.firstSequence();
+    }
+
+    private synchronized Segment segmentAfter(Segment segment) {
+        int index = segments.indexOf(segment);
+        return index >= 0 && index + 1 < segments.size() ? segments.get(index + 1) : null;
+    }
+
+    private static int crc(MappedByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 8, 8 + length));
+        return (int) crc.getValue();
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.youcode.ebanking.mapper;
+
+import com.youcode.ebanking.dto.AccountDTO;
+import com.youcode.ebanking.dto.BalanceDTO;
+import com.youcode.ebanking.dto.LedgerEntryDTO;
+import com.youcode.ebanking.dto.StatementLineDTO;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.LedgerEntry;
+import com.youcode.ebanking.repository.AccountRepository.BalanceView;
+import com.youcode.ebanking.repository.LedgerEntryRepository.StatementLineView;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring")
+public interface AccountMapper {
+
+    int MINOR_UNIT_SCALE = 2;
+
+    AccountDTO accountToAccountDTO(Account account);
+
+    /**
+     * @param pendingDelta postings accepted by the journal but not yet drained into {@code balance}
+     */
+    default BalanceDTO balanceViewToBalanceDTO(BalanceView balance, long pendingDelta) {
+        return new BalanceDTO(balance.getAccountNumber(), balance.getCurrency(),
+                toDecimal(balance.getBalance() + pendingDelta));
+    }
+
+    LedgerEntryDTO ledgerEntryToLedgerEntryDTO(LedgerEntry entry);
+
+    StatementLineDTO statementLineToStatementLineDTO(StatementLineView line);
+
+    default BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(MINOR_UNIT_SCALE).longValueExact();
+    }
+}
@@ -3,11 +3,16 @@ package com.youcode.ebanking.mapper;
 import com.youcode.ebanking.dto.UserResponseDTO;
 import com.youcode.ebanking.dto.UserRegistrationDTO;
 import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.repository.UserRepository.UserSummaryView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
     UserResponseDTO userToUserResponseDTO(EbUser user);
 
+    @Mapping(target = "role.name", source = "roleName")
+    UserResponseDTO userSummaryToUserResponseDTO(UserSummaryView summary);
+
     EbUser userRegistrationDTOToUser(UserRegistrationDTO dto);
 }
\ No newline at end of file
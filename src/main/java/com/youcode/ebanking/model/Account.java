@@ -0,0 +1,73 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * A customer account. {@code balance} is the running-balance snapshot maintained in the same
+ * transaction as every {@link LedgerEntry}, so balance reads never aggregate the ledger.
+ * Amounts are in minor units (e.g. centimes).
+ */
+@Entity
+@Table(name = "accounts", indexes = @Index(name = "idx_accounts_owner", columnList = "owner_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class Account {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_number", unique = true, nullable = false, length = 20)
+    private String accountNumber;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private EbUser owner;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private long balance;
+
+    // Numéro de séquence de la dernière écriture appliquée au solde
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    @Column(name = "opened_at", nullable = false)
+    private Instant openedAt;
+
+    // Détecte les écritures concurrentes d'un autre nœud sur le même compte
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    /**
+     * Appends the next ledger line and moves the balance snapshot accordingly; the caller persists the entry.
+     *
+     * @param signedAmount minor units, positive for credits and negative for debits
+     */
+    public LedgerEntry post(EntryType type, long signedAmount, String description, String reference, Instant at) {
+        balance = Math.addExact(balance, signedAmount);
+        lastSequence++;
+        return new LedgerEntry()
+                .setAccount(this)
+                .setSequence(lastSequence)
+                .setType(type)
+                .setAmount(signedAmount)
+                .setBalanceAfter(balance)
+                .setDescription(description)
+                .setReference(reference)
+                .setCreatedAt(at);
+    }
+}
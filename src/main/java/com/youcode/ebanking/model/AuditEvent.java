@@ -0,0 +1,50 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Security audit trail: who did what to which account, written behind the request by the audit writer.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+        @Index(name = "idx_audit_events_subject_occurred", columnList = "subject, occurred_at"),
+        @Index(name = "idx_audit_events_occurred", columnList = "occurred_at")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class AuditEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_events_seq")
+    @SequenceGenerator(name = "audit_events_seq", sequenceName = "audit_events_seq", allocationSize = 500)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AuditEventType type;
+
+    // Auteur de l'action ; null pour une connexion (l'auteur est le sujet)
+    @Column(length = 50)
+    private String actor;
+
+    @Column(nullable = false, length = 50)
+    private String subject;
+
+    @Column(name = "remote_address", length = 45)
+    private String remoteAddress;
+
+    @Column(length = 255)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,12 @@
+package com.youcode.ebanking.model;
+
+public enum AuditEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    LOGIN_THROTTLED,
+    ROLE_CHANGED,
+    PASSWORD_CHANGED,
+    USER_ENABLED,
+    USER_DISABLED,
+    USER_DELETED
+}
@@ -0,0 +1,41 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Verified balance of an account as of {@code ledgerSequence}; the next verification only has to
+ * sum the ledger entries written after it.
+ */
+@Entity
+@Table(name = "balance_checkpoints",
+        indexes = @Index(name = "idx_checkpoints_account_sequence", columnList = "account_id, ledger_sequence"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class BalanceCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_checkpoints_seq")
+    @SequenceGenerator(name = "balance_checkpoints_seq", sequenceName = "balance_checkpoints_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "ledger_sequence", nullable = false)
+    private long ledgerSequence;
+
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,44 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * A payment card drawing on an account. Limits are in minor units, per UTC calendar day and month.
+ */
+@Entity
+@Table(name = "cards", indexes = @Index(name = "idx_cards_account", columnList = "account_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class Card {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_seq")
+    @SequenceGenerator(name = "cards_seq", sequenceName = "cards_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CardStatus status;
+
+    @Column(name = "daily_limit", nullable = false)
+    private long dailyLimit;
+
+    @Column(name = "monthly_limit", nullable = false)
+    private long monthlyLimit;
+
+    @Column(name = "issued_at", nullable = false)
+    private Instant issuedAt;
+}
@@ -0,0 +1,57 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Amount reserved on an account by an approved card authorization, until it is captured (debited),
+ * released or expires. Written behind the authorization; {@code reference} is assigned in memory.
+ */
+@Entity
+@Table(name = "card_holds", indexes = {
+        @Index(name = "idx_card_holds_status", columnList = "status"),
+        @Index(name = "idx_card_holds_card_created", columnList = "card_id, created_at")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class CardHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_holds_seq")
+    @SequenceGenerator(name = "card_holds_seq", sequenceName = "card_holds_seq", allocationSize = 500)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "card_id", nullable = false)
+    private Card card;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String reference;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(length = 100)
+    private String merchant;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private HoldStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "resolved_at")
+    private Instant resolvedAt;
+}
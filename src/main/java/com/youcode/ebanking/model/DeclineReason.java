@@ -0,0 +1,9 @@
+package com.youcode.ebanking.model;
+
+public enum DeclineReason {
+    CARD_NOT_ACTIVE,
+    DAILY_LIMIT_EXCEEDED,
+    MONTHLY_LIMIT_EXCEEDED,
+    INSUFFICIENT_FUNDS,
+    ISSUER_UNAVAILABLE
+}
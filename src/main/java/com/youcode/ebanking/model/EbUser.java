@@ -16,7 +16,8 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 public class EbUser {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -35,5 +36,13 @@ public class EbUser {
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
+    @Column(name = "token_epoch", nullable = false, columnDefinition = "bigint default 0")
+    private long tokenEpoch = 0;
+
+    // Source des ETag : incrémentée à chaque modification de l'utilisateur
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
 
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.youcode.ebanking.model;
+
+public enum EntryType {
+    CREDIT,
+    DEBIT
+}
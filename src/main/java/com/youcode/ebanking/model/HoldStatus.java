@@ -0,0 +1,8 @@
+package com.youcode.ebanking.model;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,33 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Last journal sequence drained into the ledger tables, updated in the same transaction as the drained
+ * entries so that replay after a crash applies every journal record exactly once.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class JournalCheckpoint {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "applied_sequence", nullable = false)
+    private long appliedSequence;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
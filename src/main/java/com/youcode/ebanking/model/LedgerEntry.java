@@ -0,0 +1,59 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Append-only ledger line. {@code amount} is signed (credits positive, debits negative) and
+ * {@code sequence} is gapless per account.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_account_sequence", columnNames = {"account_id", "sequence"}),
+        indexes = @Index(name = "idx_ledger_account_created", columnList = "account_id, created_at"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 100)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntryType type;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(name = "balance_after", nullable = false)
+    private long balanceAfter;
+
+    @Column(length = 140)
+    private String description;
+
+    // Référence commune aux deux jambes d'un virement
+    @Column(length = 36)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,62 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A loan repaid monthly from an account. Amounts are in minor units; the schedule itself is never stored,
+ * it is derived from these terms and the {@link LoanPrepayment}s, and {@code version} identifies it.
+ */
+@Entity
+@Table(name = "loans", indexes = @Index(name = "idx_loans_borrower", columnList = "borrower_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class Loan {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+    @SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "borrower_id", nullable = false)
+    private EbUser borrower;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AmortizationType type;
+
+    @Column(nullable = false)
+    private long principal;
+
+    // Taux annuel en points de base (1 pb = 0,01 %)
+    @Column(name = "annual_rate_bps", nullable = false)
+    private int annualRateBps;
+
+    @Column(name = "term_months", nullable = false)
+    private int termMonths;
+
+    @Column(name = "first_due_date", nullable = false)
+    private LocalDate firstDueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Incrémentée à chaque remboursement anticipé : identifie l'échéancier en cache
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+}
@@ -0,0 +1,42 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Early repayment applied right after the regular payment of installment {@code afterInstallment} (1-based).
+ */
+@Entity
+@Immutable
+@Table(name = "loan_prepayments", indexes = @Index(name = "idx_prepayments_loan", columnList = "loan_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class LoanPrepayment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_prepayments_seq")
+    @SequenceGenerator(name = "loan_prepayments_seq", sequenceName = "loan_prepayments_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loan_id", nullable = false)
+    private Loan loan;
+
+    @Column(name = "after_installment", nullable = false)
+    private int afterInstallment;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,41 @@
+package com.youcode.ebanking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Text served to unauthenticated visitors ({@code /api/notices}, {@code /api/contact}), edited by administrators.
+ */
+@Entity
+@Table(name = "public_content")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class PublicContent {
+
+    public static final String NOTICES = "notices";
+    public static final String CONTACT = "contact";
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    // Comparée par chaque nœud pour savoir si son instantané est à jour
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,90 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    Optional<Account> findByAccountNumber(String accountNumber);
+
+    List<Account> findByOwnerIdOrderByIdAsc(Long ownerId);
+
+    @Query("select a.id as id, a.accountNumber as accountNumber, a.currency as currency, a.balance as balance "
+            + "from Account a where a.owner.username = :username order by a.id")
+    List<BalanceView> findBalancesByOwner(@Param("username") String username, Limit limit);
+
+    @Query("select a.id from Account a where a.owner.username = :username order by a.id")
+    List<Long> findIdsByOwner(@Param("username") String username, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    // Requête scalaire : lit toujours la base, jamais une entité déjà chargée dans le contexte de persistance
+    @Query("select a.balance from Account a where a.id = :id")
+    Optional<Long> findBalanceById(@Param("id") Long id);
+
+    @Query("select a.id as id, a.balance as balance from Account a where a.id in :ids")
+    List<IdBalanceView> findBalancesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Account a where a.id in :ids and a.lastSequence > 0")
+    List<Long> findIdsWithHistory(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Account a where a.id > :afterId order by a.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select a.id as id, a.accountNumber as accountNumber, a.currency as currency, o.username as ownerUsername "
+            + "from Account a join a.owner o where a.accountNumber in :accountNumbers")
+    List<AccountRefView> findRefsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select a.id as id, a.owner.id as ownerId from Account a where a.owner.id in :ownerIds")
+    List<OwnedAccountView> findByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    @Modifying
+    @Query("delete from Account a where a.owner.id in :ownerIds")
+    int deleteByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    interface AccountRefView {
+        Long getId();
+
+        String getAccountNumber();
+
+        String getCurrency();
+
+        String getOwnerUsername();
+    }
+
+    interface OwnedAccountView {
+        Long getId();
+
+        Long getOwnerId();
+    }
+
+    interface IdBalanceView {
+        Long getId();
+
+        long getBalance();
+    }
+
+    interface BalanceView {
+        Long getId();
+
+        String getAccountNumber();
+
+        String getCurrency();
+
+        long getBalance();
+    }
+}
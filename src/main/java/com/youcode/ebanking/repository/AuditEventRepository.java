@@ -0,0 +1,13 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.AuditEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+
+    List<AuditEvent> findBySubjectOrderByOccurredAt(String subject);
+}
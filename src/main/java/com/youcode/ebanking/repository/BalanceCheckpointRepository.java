@@ -0,0 +1,24 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    Optional<BalanceCheckpoint> findFirstByAccountIdOrderByLedgerSequenceDesc(Long accountId);
+
+    void deleteByAccountId(Long accountId);
+
+    @Modifying
+    @Query("delete from BalanceCheckpoint c "
+            + "where c.accountId in (select a.id from Account a where a.owner.id in :ownerIds)")
+    int deleteByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+}
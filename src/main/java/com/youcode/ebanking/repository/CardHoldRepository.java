@@ -0,0 +1,43 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.CardHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CardHoldRepository extends JpaRepository<CardHold, Long> {
+
+    @Query("select h.reference as reference, h.amount as amount, h.merchant as merchant, h.createdAt as createdAt, "
+            + "h.expiresAt as expiresAt, c.id as cardId, c.account.id as accountId "
+            + "from CardHold h join h.card c where h.status = com.youcode.ebanking.model.HoldStatus.ACTIVE")
+    List<ActiveHoldView> findActive();
+
+    // Les réservations libérées ou expirées rendent leur montant aux plafonds
+    @Query("select coalesce(sum(h.amount), 0) from CardHold h where h.card.id = :cardId and h.createdAt >= :since "
+            + "and h.status in (com.youcode.ebanking.model.HoldStatus.ACTIVE, com.youcode.ebanking.model.HoldStatus.CAPTURED)")
+    long sumSpentSince(@Param("cardId") Long cardId, @Param("since") Instant since);
+
+    List<CardHold> findByReferenceIn(Collection<String> references);
+
+    interface ActiveHoldView {
+        String getReference();
+
+        long getAmount();
+
+        String getMerchant();
+
+        Instant getCreatedAt();
+
+        Instant getExpiresAt();
+
+        Long getCardId();
+
+        Long getAccountId();
+    }
+}
@@ -0,0 +1,58 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.Card;
+import com.youcode.ebanking.model.CardStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardRepository extends JpaRepository<Card, Long> {
+
+    @Query("select c.id as id, c.account.id as accountId, c.status as status, c.dailyLimit as dailyLimit, "
+            + "c.monthlyLimit as monthlyLimit from Card c where c.id = :id")
+    Optional<CardStateView> findStateById(@Param("id") Long id);
+
+    @Query("select c.id as id, a.accountNumber as accountNumber, a.currency as currency, c.status as status, "
+            + "c.dailyLimit as dailyLimit, c.monthlyLimit as monthlyLimit, c.issuedAt as issuedAt "
+            + "from Card c join c.account a where a.owner.username = :username order by c.id")
+    List<CardView> findByOwner(@Param("username") String username);
+
+    @Query("select c.id as id, a.accountNumber as accountNumber, a.currency as currency, c.status as status, "
+            + "c.dailyLimit as dailyLimit, c.monthlyLimit as monthlyLimit, c.issuedAt as issuedAt "
+            + "from Card c join c.account a where c.id = :id")
+    Optional<CardView> findViewById(@Param("id") Long id);
+
+    interface CardStateView {
+        Long getId();
+
+        Long getAccountId();
+
+        CardStatus getStatus();
+
+        long getDailyLimit();
+
+        long getMonthlyLimit();
+    }
+
+    interface CardView {
+        Long getId();
+
+        String getAccountNumber();
+
+        String getCurrency();
+
+        CardStatus getStatus();
+
+        long getDailyLimit();
+
+        long getMonthlyLimit();
+
+        Instant getIssuedAt();
+    }
+}
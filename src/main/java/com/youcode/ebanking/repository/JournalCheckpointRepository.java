@@ -0,0 +1,9 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
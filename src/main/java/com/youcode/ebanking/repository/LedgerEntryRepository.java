@@ -0,0 +1,56 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.LedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e "
+            + "where e.account.id = :accountId and e.sequence > :fromSequence and e.sequence <= :toSequence")
+    long sumAmounts(@Param("accountId") Long accountId,
+                    @Param("fromSequence") long fromSequence,
+                    @Param("toSequence") long toSequence);
+
+    List<LedgerEntry> findByAccountIdOrderBySequenceDesc(Long accountId, Limit limit);
+
+    @Query("select e.sequence as sequence, e.createdAt as createdAt, e.type as type, e.amount as amount, "
+            + "e.balanceAfter as balanceAfter, e.description as description, e.reference as reference "
+            + "from LedgerEntry e where e.account.id = :accountId and e.createdAt >= :from and e.createdAt < :to "
+            + "order by e.sequence")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StatementLineView> streamStatement(@Param("accountId") Long accountId,
+                                              @Param("from") Instant from,
+                                              @Param("to") Instant to);
+
+    interface StatementLineView {
+        long getSequence();
+
+        Instant getCreatedAt();
+
+        EntryType getType();
+
+        long getAmount();
+
+        long getBalanceAfter();
+
+        String getDescription();
+
+        String getReference();
+    }
+}
@@ -0,0 +1,26 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.LoanPrepayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoanPrepaymentRepository extends JpaRepository<LoanPrepayment, Long> {
+
+    @Query("select p.afterInstallment as afterInstallment, p.amount as amount from LoanPrepayment p "
+            + "where p.loan.id = :loanId order by p.afterInstallment")
+    List<PrepaymentView> findByLoanId(@Param("loanId") Long loanId);
+
+    @Query("select coalesce(max(p.afterInstallment), 0) from LoanPrepayment p where p.loan.id = :loanId")
+    int findLastInstallment(@Param("loanId") Long loanId);
+
+    interface PrepaymentView {
+        int getAfterInstallment();
+
+        long getAmount();
+    }
+}
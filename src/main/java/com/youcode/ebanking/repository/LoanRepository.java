@@ -0,0 +1,54 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.AmortizationType;
+import com.youcode.ebanking.model.Loan;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    @Query("select l.id from Loan l where l.borrower.username = :username order by l.id")
+    List<Long> findIdsByBorrower(@Param("username") String username);
+
+    @Query("select l.id as id, l.version as version, l.type as type, l.principal as principal, "
+            + "l.annualRateBps as annualRateBps, l.termMonths as termMonths, l.firstDueDate as firstDueDate, "
+            + "b.username as borrowerUsername, a.accountNumber as accountNumber, a.currency as currency "
+            + "from Loan l join l.borrower b join l.account a where l.id = :id")
+    Optional<LoanTermsView> findTermsById(@Param("id") Long id);
+
+    // La version est incrémentée au commit : deux remboursements anticipés concurrents ne peuvent pas réussir tous les deux
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select l from Loan l where l.id = :id")
+    Optional<Loan> findByIdForPrepayment(@Param("id") Long id);
+
+    interface LoanTermsView {
+        Long getId();
+
+        long getVersion();
+
+        AmortizationType getType();
+
+        long getPrincipal();
+
+        int getAnnualRateBps();
+
+        int getTermMonths();
+
+        LocalDate getFirstDueDate();
+
+        String getBorrowerUsername();
+
+        String getAccountNumber();
+
+        String getCurrency();
+    }
+}
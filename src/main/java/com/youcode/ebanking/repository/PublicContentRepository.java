@@ -0,0 +1,9 @@
+package com.youcode.ebanking.repository;
+
+import com.youcode.ebanking.model.PublicContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PublicContentRepository extends JpaRepository<PublicContent, String> {
+}
@@ -1,13 +1,156 @@
 package com.youcode.ebanking.repository;
 
 import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<EbUser, Long> {
     Optional<EbUser> findByUsername(String username);
     boolean existsEbUserByUsername(String email);
+
+    List<TokenEpochView> findByTokenEpochGreaterThan(long tokenEpoch);
+
+    @Modifying
+    @Query("update EbUser u set u.password = :password where u.username = :username and u.password = :oldHash")
+    int updatePassword(@Param("username") String username, @Param("oldHash") String oldHash,
+                       @Param("password") String password);
+
+    @Query("select u.username from EbUser u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.id as id, u.username as username, u.email as email, r.name as roleName, u.enabled as enabled, "
+            + "u.version as version from EbUser u join u.role r where u.id > :afterId order by u.id")
+    List<UserPageRowView> findSummariesAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select u.id as id, u.username as username, u.email as email, r.name as roleName, u.enabled as enabled "
+            + "from EbUser u join u.role r order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserSummaryView> streamSummaries();
+
+    @Query("select u.username from EbUser u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamUsernames();
+
+    @Query("select u.id as id, u.version as version from EbUser u where u.username = :username")
+    Optional<VersionView> findVersionByUsername(@Param("username") String username);
+
+    /**
+     * Fingerprint of the page {@link #findSummariesAfter} would return, read from the primary key index and the
+     * version column only.
+     */
+    @Query(value = "select count(*) as users, coalesce(sum(p.version), 0) as versionSum, coalesce(max(p.id), 0) as maxId "
+            + "from (select id, version from users where id > :afterId order by id limit :limit) p", nativeQuery = true)
+    PageVersionView findPageVersion(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("select u.id as id, u.username as username, u.tokenEpoch as tokenEpoch, r.name as roleName, "
+            + "u.enabled as enabled from EbUser u join u.role r where u.username in :usernames order by u.id")
+    List<BulkTargetView> findBulkTargetsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Keyset page of the users matching the filter; a {@code null} criterion matches everyone.
+     */
+    @Query("select u.id as id, u.username as username, u.tokenEpoch as tokenEpoch, r.name as roleName, "
+            + "u.enabled as enabled from EbUser u join u.role r where u.id > :afterId "
+            + "and (:usernamePattern is null or u.username like :usernamePattern escape '\\') "
+            + "and (:emailPattern is null or u.email like :emailPattern escape '\\') "
+            + "and (:roleName is null or r.name = :roleName) "
+            + "and (:enabled is null or u.enabled = :enabled) order by u.id")
+    List<BulkTargetView> findBulkTargetsAfter(@Param("afterId") long afterId,
+                                              @Param("usernamePattern") String usernamePattern,
+                                              @Param("emailPattern") String emailPattern,
+                                              @Param("roleName") String roleName,
+                                              @Param("enabled") Boolean enabled,
+                                              Limit limit);
+
+    // Mises à jour ensemblistes : version incrémentée à la main (ETag, verrouillage optimiste)
+    @Modifying
+    @Query("update EbUser u set u.role = :role, u.tokenEpoch = :tokenEpoch, u.version = u.version + 1 "
+            + "where u.id in :ids")
+    int updateRole(@Param("ids") Collection<Long> ids, @Param("role") Role role,
+                   @Param("tokenEpoch") long tokenEpoch);
+
+    @Modifying
+    @Query("update EbUser u set u.enabled = false, u.tokenEpoch = :tokenEpoch, u.version = u.version + 1 "
+            + "where u.id in :ids")
+    int disable(@Param("ids") Collection<Long> ids, @Param("tokenEpoch") long tokenEpoch);
+
+    @Modifying
+    @Query("update EbUser u set u.enabled = true, u.version = u.version + 1 where u.id in :ids")
+    int enable(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Users that cannot be deleted because a card or a loan refers to them; postings are checked separately, under
+     * the account locks ({@code AccountService#lockAndFindActive}).
+     */
+    @Query("select u.id from EbUser u where u.id in :ids and ("
+            + "exists (select c.id from Card c where c.account.owner = u) "
+            + "or exists (select l.id from Loan l where l.borrower = u))")
+    Set<Long> findIdsWithCardsOrLoans(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from EbUser u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface UserSummaryView {
+        Long getId();
+
+        String getUsername();
+
+        String getEmail();
+
+        String getRoleName();
+
+        boolean isEnabled();
+    }
+
+    interface UserPageRowView extends UserSummaryView {
+        long getVersion();
+    }
+
+    interface VersionView {
+        Long getId();
+
+        long getVersion();
+    }
+
+    interface PageVersionView {
+        long getUsers();
+
+        long getVersionSum();
+
+        long getMaxId();
+    }
+
+    interface BulkTargetView {
+        Long getId();
+
+        String getUsername();
+
+        long getTokenEpoch();
+
+        String getRoleName();
+
+        boolean isEnabled();
+    }
+
+    interface TokenEpochView {
+        String getUsername();
+
+        long getTokenEpoch();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.youcode.ebanking.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.dto.RoleEmbeddableDto;
+import com.youcode.ebanking.dto.TokenResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies compact HS256 tokens (JWT layout) without any database access.
+ * <p>
+ * A token is valid when its signature matches, it has not expired and its epoch is not older
+ * than the user's current epoch in {@link TokenEpochRegistry}.
+ */
+@Component
+@Slf4j
+public class AccessTokenService {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final Mac prototype;
+    private final ObjectMapper objectMapper;
+    private final TokenEpochRegistry epochRegistry;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public AccessTokenService(ObjectMapper objectMapper,
+                              TokenEpochRegistry epochRegistry,
+                              @Value("${ebanking.security.token.secret:}") String secret,
+                              @Value("${ebanking.security.token.access-ttl:15m}") Duration accessTtl,
+                              @Value("${ebanking.security.token.refresh-ttl:7d}") Duration refreshTtl) {
+        this.objectMapper = objectMapper;
+        this.epochRegistry = epochRegistry;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.prototype = newMac(secretBytes(secret));
+    }
+
+    public TokenResponseDTO issue(String username, RoleEmbeddableDto role, long epoch) {
+        long now = Instant.now().getEpochSecond();
+        String accessToken = sign(new TokenClaims(username, role.name(), ACCESS, epoch, now + accessTtl.toSeconds()));
+        String refreshToken = sign(new TokenClaims(username, role.name(), REFRESH, epoch, now + refreshTtl.toSeconds()));
+        return new TokenResponseDTO(accessToken, refreshToken, TOKEN_TYPE, accessTtl.toSeconds(), role);
+    }
+
+    public Optional<TokenClaims> verify(String token, String expectedType) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] expected = mac(token.substring(0, lastDot));
+            byte[] actual = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return Optional.empty();
+            }
+
+            TokenClaims claims = objectMapper.readValue(
+                    DECODER.decode(token.substring(firstDot + 1, lastDot)), TokenClaims.class);
+            if (!expectedType.equals(claims.typ())
+                    || claims.exp() <= Instant.now().getEpochSecond()
+                    || claims.epoch() < epochRegistry.current(claims.sub())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String sign(TokenClaims claims) {
+        try {
+            String unsigned = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return unsigned + "." + ENCODER.encodeToString(mac(unsigned));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise token claims", e);
+        }
+    }
+
+    private byte[] mac(String data) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation is not cloneable", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return Base64.getDecoder().decode(secret);
+        }
+        log.warn("Aucun secret de jeton configuré (ebanking.security.token.secret) : clé aléatoire générée, "
+                + "les jetons ne survivront pas à un redémarrage");
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private static Mac newMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.youcode.ebanking.security;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count and duration of authentications by outcome, exported as {@code ebanking.authentication}. Recording only
+ * adds to two striped counters; the registry reads them when scraped.
+ */
+@Component
+public class AuthenticationMetrics implements MeterBinder {
+
+    public enum Outcome {
+        SUCCESS, BAD_CREDENTIALS, DISABLED, THROTTLED, UNAVAILABLE, ERROR
+    }
+
+    private static final class Tally {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+    }
+
+    private final Map<Outcome, Tally> tallies = new EnumMap<>(Outcome.class);
+
+    public AuthenticationMetrics() {
+        for (Outcome outcome : Outcome.values()) {
+            tallies.put(outcome, new Tally());
+        }
+    }
+
+    public void record(Outcome outcome, long startNanos) {
+        Tally tally = tallies.get(outcome);
+        tally.count.increment();
+        tally.totalNanos.add(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        tallies.forEach((outcome, tally) -> FunctionTimer.builder("ebanking.authentication", tally,
+                        t -> t.count.sum(), t -> t.totalNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Authentifications par issue")
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(registry));
+    }
+}
@@ -1,5 +1,7 @@
 package com.youcode.ebanking.security;
 
+import com.youcode.ebanking.exception.ErrorCode;
+import com.youcode.ebanking.exception.ErrorResponses;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,8 +17,6 @@ public class CustomAccessDeniedHandler implements AccessDeniedHandler {
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException accessDeniedException)
             throws IOException, ServletException {
-        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-        response.setContentType("application/json");
-        response.getWriter().write("{ \"message\": \"Access Denied\", \"details\": \"" + accessDeniedException.getMessage() + "\" }");
+        ErrorResponses.write(response, ErrorCode.ACCESS_DENIED);
     }
 }
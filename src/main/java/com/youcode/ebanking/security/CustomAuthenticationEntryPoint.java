@@ -1,14 +1,22 @@
 package com.youcode.ebanking.security;
 
+import com.youcode.ebanking.exception.ErrorCode;
+import com.youcode.ebanking.exception.ErrorResponses;
+import com.youcode.ebanking.exception.HashingCapacityExceededException;
+import com.youcode.ebanking.exception.LoginThrottledException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 
+/**
+ * Writes constant, pre-rendered bodies: the reason of a failed authentication is not echoed to the client.
+ */
 @Component
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
@@ -16,8 +24,17 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        response.getWriter().write("{ \"message\": \"Unauthorized\", \"details\": \"" + authException.getMessage() + "\" }");
+        if (authException instanceof LoginThrottledException throttled) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(throttled.getRetryAfterSeconds()));
+            ErrorResponses.write(response, ErrorCode.LOGIN_THROTTLED);
+            return;
+        }
+        if (authException instanceof HashingCapacityExceededException) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ErrorResponses.write(response, ErrorCode.HASHING_UNAVAILABLE);
+            return;
+        }
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"Realm\"");
+        ErrorResponses.write(response, ErrorCode.UNAUTHORIZED);
     }
 }
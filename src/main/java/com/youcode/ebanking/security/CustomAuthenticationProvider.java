@@ -1,5 +1,9 @@
 package com.youcode.ebanking.security;
 
+import com.youcode.ebanking.audit.AuditLog;
+import com.youcode.ebanking.exception.HashingCapacityExceededException;
+import com.youcode.ebanking.exception.InvalidCredentialsException;
+import com.youcode.ebanking.exception.LoginThrottledException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -7,8 +11,10 @@ import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.core.env.Environment;
 
@@ -21,24 +27,46 @@ import java.util.Arrays;
 public class CustomAuthenticationProvider implements AuthenticationProvider {
 
     private final UserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final Environment environment;
+    private final VerifiedCredentialCache credentialCache;
+    private final LoginThrottle loginThrottle;
+    private final AuthenticationMetrics metrics;
+    private final AuditLog auditLog;
 
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long start = System.nanoTime();
         String username = authentication.getName();
         String password = authentication.getCredentials().toString();
+        String address = authentication.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress() : null;
+
+        // Avant toute lecture en base et tout hachage : un refus ne coûte que deux opérations en mémoire
+        LoginThrottle.Attempt attempt;
+        try {
+            attempt = loginThrottle.check(username, address);
+        } catch (LoginThrottledException e) {
+            metrics.record(AuthenticationMetrics.Outcome.THROTTLED, start);
+            auditLog.loginThrottled(username, address);
+            throw e;
+        }
 
         try {
             if (isTestProfile()) {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                loginThrottle.succeeded(attempt);
+                metrics.record(AuthenticationMetrics.Outcome.SUCCESS, start);
                 return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             }
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (!passwordEncoder.matches(password, userDetails.getPassword())) {
+            boolean cached = credentialCache.isVerified(username, password, userDetails.getPassword());
+            if (!cached && !passwordHashingService.matches(password, userDetails.getPassword())) {
                 log.warn("Tentative de connexion avec un mot de passe incorrect pour : {}", username);
-                throw new BadCredentialsException("Identifiants invalides");
+                loginThrottle.failed(attempt);
+                throw new InvalidCredentialsException();
             }
 
             if (!userDetails.isEnabled()) {
@@ -46,12 +74,43 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
                 throw new DisabledException("Compte utilisateur désactivé");
             }
 
+            loginThrottle.succeeded(attempt);
+            if (!cached) {
+                credentialCache.remember(username, password, userDetails.getPassword());
+                if (passwordHashingService.upgradeEncoding(userDetails.getPassword())) {
+                    passwordHashingService.rehashAsync(password,
+                            newHash -> userDetailsPasswordService.updatePassword(userDetails, newHash));
+                }
+            }
+
+            metrics.record(AuthenticationMetrics.Outcome.SUCCESS, start);
             return new UsernamePasswordAuthenticationToken(userDetails, password, userDetails.getAuthorities());
 
+        } catch (UsernameNotFoundException e) {
+            // Même réponse qu'un mauvais mot de passe : l'existence du compte n'est pas révélée
+            loginThrottle.failed(attempt);
+            metrics.record(AuthenticationMetrics.Outcome.BAD_CREDENTIALS, start);
+            auditLog.loginFailed(username, address, "utilisateur inconnu");
+            log.error("Échec d'authentification pour l'utilisateur : {}", username);
+            throw new InvalidCredentialsException();
         } catch (BadCredentialsException e) {
+            metrics.record(AuthenticationMetrics.Outcome.BAD_CREDENTIALS, start);
+            auditLog.loginFailed(username, address, "mot de passe incorrect");
             log.error("Échec d'authentification pour l'utilisateur : {}", username);
             throw e;
+        } catch (HashingCapacityExceededException e) {
+            loginThrottle.released(attempt);
+            metrics.record(AuthenticationMetrics.Outcome.UNAVAILABLE, start);
+            log.warn("Capacité de hachage saturée, authentification refusée pour : {}", username);
+            throw e;
         } catch (Exception e) {
+            // Mot de passe non jugé, ou compte désactivé avec le bon mot de passe : la tentative n'est pas comptée
+            loginThrottle.released(attempt);
+            metrics.record(e instanceof DisabledException
+                    ? AuthenticationMetrics.Outcome.DISABLED : AuthenticationMetrics.Outcome.ERROR, start);
+            if (e instanceof DisabledException) {
+                auditLog.loginFailed(username, address, "compte désactivé");
+            }
             log.error("Erreur d'authentification pour l'utilisateur : {}", username, e);
             throw new AuthenticationServiceException("Erreur lors de l'authentification");
         }
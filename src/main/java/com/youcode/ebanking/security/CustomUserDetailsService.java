@@ -1,29 +1,100 @@
 package com.youcode.ebanking.security;
 
-import com.youcode.ebanking.model.EbUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.youcode.ebanking.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    private final Cache<String, UserDetailsSnapshot> users;
+
+    // null quand le cache négatif est désactivé
+    private final Cache<String, Boolean> unknownUsers;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${ebanking.security.user-details-cache.max-size:10000}") long maxSize,
+                                    @Value("${ebanking.security.user-details-cache.ttl:1m}") Duration ttl,
+                                    @Value("${ebanking.security.user-details-cache.negative.enabled:true}") boolean negativeEnabled,
+                                    @Value("${ebanking.security.user-details-cache.negative.max-size:10000}") long negativeMaxSize,
+                                    @Value("${ebanking.security.user-details-cache.negative.ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unknownUsers = negativeEnabled
+                ? Caffeine.newBuilder().maximumSize(negativeMaxSize).expireAfterWrite(negativeTtl).build()
+                : null;
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        EbUser user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRole().getName())
-                .disabled(!user.isEnabled())
-                .build();
+        UserDetailsSnapshot cached = users.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        if (unknownUsers != null && unknownUsers.getIfPresent(username) != null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        UserDetailsSnapshot snapshot = userRepository.findByUsername(username)
+                .map(UserDetailsSnapshot::of)
+                .orElse(null);
+        if (snapshot == null) {
+            if (unknownUsers != null) {
+                unknownUsers.put(username, Boolean.TRUE);
+            }
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        users.put(username, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Persists a transparently upgraded hash of the same password; tokens stay valid.
+     * <p>
+     * Only replaces the hash {@code user} was verified against: a password changed while the rehash was queued
+     * is kept.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) == 0) {
+            log.debug("Mise à niveau du haché abandonnée pour {} : mot de passe modifié entre-temps",
+                    user.getUsername());
+            return user;
+        }
+        evict(user.getUsername());
+        return user;
+    }
+
+    public void evict(String username) {
+        users.invalidate(username);
+        if (unknownUsers != null) {
+            unknownUsers.invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+        if (unknownUsers != null) {
+            unknownUsers.invalidateAll();
+        }
     }
-}
\ No newline at end of file
+}
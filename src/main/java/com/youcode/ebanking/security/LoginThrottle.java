@@ -0,0 +1,244 @@
+package com.youcode.ebanking.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.youcode.ebanking.exception.LoginThrottledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles failed logins per username and per client address, ahead of the user lookup and the password hash.
+ * <p>
+ * Each key is a token bucket kept as a theoretical arrival time (GCRA): {@code burst} failures are allowed at
+ * once, then one more per {@code interval}. Emptying the bucket locks the key out for {@code lockout}, doubled at
+ * every new lockout up to {@code max-lockout}. States are immutable and swapped by compare-and-set; the maps are
+ * bounded and forget keys idle for longer than the longest lockout.
+ * <p>
+ * {@link #check} only reserves a token on a key that already has failures, so concurrent guesses against it
+ * cannot all pass the same check; a key without failures is admitted without spending anything, and
+ * {@link #failed} charges the token afterwards. A failure keeps the token; a success gives back what was reserved
+ * and clears the username's state, so valid logins, concurrent or not, are never throttled by their own number.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    /**
+     * An admitted attempt: the normalized keys and whether a token was reserved on each.
+     */
+    public record Attempt(String username, String address, boolean usernameReserved, boolean addressReserved) {
+    }
+
+    private record State(long tat, int lockouts, long lockedUntil) {
+    }
+
+    // Admis sans réservation : la clé n'a aucun échec en cours
+    private static final long ADMITTED = -1;
+    private static final Attempt UNTHROTTLED = new Attempt(null, null, false, false);
+
+    private static final class Policy {
+        private final String name;
+        private final Cache<String, AtomicReference<State>> states;
+        private final long intervalNanos;
+        private final long windowNanos;
+
+        private Policy(String name, long maxKeys, int burst, Duration interval, Duration idle) {
+            this.name = name;
+            this.states = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(idle).build();
+            this.intervalNanos = interval.toNanos();
+            this.windowNanos = burst * intervalNanos;
+        }
+    }
+
+    private final boolean enabled;
+    private final Policy usernames;
+    private final Policy addresses;
+    private final long lockoutNanos;
+    private final long maxLockoutNanos;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginThrottle(@Value("${ebanking.security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${ebanking.security.login-throttle.max-keys:100000}") long maxKeys,
+                         @Value("${ebanking.security.login-throttle.username.burst:5}") int usernameBurst,
+                         @Value("${ebanking.security.login-throttle.username.interval:1m}") Duration usernameInterval,
+                         @Value("${ebanking.security.login-throttle.address.burst:20}") int addressBurst,
+                         @Value("${ebanking.security.login-throttle.address.interval:3s}") Duration addressInterval,
+                         @Value("${ebanking.security.login-throttle.lockout:30s}") Duration lockout,
+                         @Value("${ebanking.security.login-throttle.max-lockout:1h}") Duration maxLockout) {
+        this(enabled, maxKeys, usernameBurst, usernameInterval, addressBurst, addressInterval, lockout, maxLockout,
+                System::nanoTime);
+    }
+
+    LoginThrottle(boolean enabled, long maxKeys, int usernameBurst, Duration usernameInterval, int addressBurst,
+                  Duration addressInterval, Duration lockout, Duration maxLockout, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        // Une clé inactive plus longtemps que le plus long blocage n'a plus rien à retenir
+        Duration idle = maxLockout.plus(usernameInterval.multipliedBy(usernameBurst))
+                .plus(addressInterval.multipliedBy(addressBurst));
+        this.usernames = new Policy("utilisateur", maxKeys, usernameBurst, usernameInterval, idle);
+        this.addresses = new Policy("adresse", maxKeys, addressBurst, addressInterval, idle);
+        this.lockoutNanos = lockout.toNanos();
+        this.maxLockoutNanos = maxLockout.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Admits the attempt, reserving a token on each key that already has failures, or rejects it if either key is
+     * locked out or out of tokens. Every admitted attempt must end with {@link #failed}, {@link #succeeded} or
+     * {@link #released}.
+     *
+     * @param address client address, or {@code null} when unknown
+     */
+    public Attempt check(String username, String address) {
+        if (!enabled) {
+            return UNTHROTTLED;
+        }
+        long now = nanoTime.getAsLong();
+        String key = normalize(username);
+        long usernameAdmission = admit(usernames, key, now);
+        long wait = usernameAdmission;
+        long addressAdmission = ADMITTED;
+        if (wait <= 0) {
+            addressAdmission = admit(addresses, address, now);
+            wait = addressAdmission;
+            if (wait > 0 && usernameAdmission == 0) {
+                refund(usernames, key);
+            }
+        }
+        if (wait > 0) {
+            throw new LoginThrottledException("Trop de tentatives de connexion, veuillez réessayer plus tard",
+                    Duration.ofNanos(wait));
+        }
+        return new Attempt(key, address, usernameAdmission == 0, addressAdmission == 0);
+    }
+
+    /**
+     * The attempt failed: a key admitted without reservation is charged its token now, and a key left without
+     * tokens is locked out.
+     */
+    public void failed(Attempt attempt) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        fail(usernames, attempt.username(), attempt.usernameReserved(), now);
+        fail(addresses, attempt.address(), attempt.addressReserved(), now);
+    }
+
+    /**
+     * The attempt succeeded: the address gets back what was reserved and the username is forgotten.
+     */
+    public void succeeded(Attempt attempt) {
+        if (enabled) {
+            if (attempt.username() != null) {
+                usernames.states.invalidate(attempt.username());
+            }
+            if (attempt.addressReserved()) {
+                refund(addresses, attempt.address());
+            }
+        }
+    }
+
+    /**
+     * The attempt ended before the password could be judged (disabled account, hashing saturated, error): the
+     * reserved tokens are given back.
+     */
+    public void released(Attempt attempt) {
+        if (enabled) {
+            if (attempt.usernameReserved()) {
+                refund(usernames, attempt.username());
+            }
+            if (attempt.addressReserved()) {
+                refund(addresses, attempt.address());
+            }
+        }
+    }
+
+    /**
+     * Returns {@link #ADMITTED} for a key without failures, otherwise takes a token from its bucket and returns 0,
+     * or returns the wait before one is available.
+     */
+    private long admit(Policy policy, String key, long now) {
+        if (key == null) {
+            return ADMITTED;
+        }
+        AtomicReference<State> reference = policy.states.getIfPresent(key);
+        if (reference == null) {
+            return ADMITTED;
+        }
+        State current;
+        long tat;
+        do {
+            current = reference.get();
+            if (current.tat() <= now && current.lockedUntil() <= now) {
+                return ADMITTED;
+            }
+            tat = Math.max(current.tat(), now) + policy.intervalNanos;
+            long wait = Math.max(current.lockedUntil() - now, tat - now - policy.windowNanos);
+            if (wait > 0) {
+                return wait;
+            }
+        } while (!reference.compareAndSet(current, new State(tat, current.lockouts(), current.lockedUntil())));
+        return 0;
+    }
+
+    private void refund(Policy policy, String key) {
+        if (key == null) {
+            return;
+        }
+        AtomicReference<State> reference = policy.states.getIfPresent(key);
+        if (reference == null) {
+            return;
+        }
+        reference.updateAndGet(current ->
+                new State(current.tat() - policy.intervalNanos, current.lockouts(), current.lockedUntil()));
+    }
+
+    private void fail(Policy policy, String key, boolean reserved, long now) {
+        if (key == null) {
+            return;
+        }
+        AtomicReference<State> reference = policy.states.get(key, k -> new AtomicReference<>(new State(now, 0, now)));
+        if (!reserved) {
+            // Admise sans réservation : le jeton est pris maintenant, même au-delà de la rafale
+            reference.updateAndGet(current -> new State(Math.max(current.tat(), now) + policy.intervalNanos,
+                    current.lockouts(), current.lockedUntil()));
+        }
+        lockIfEmpty(policy, key, reference, now);
+    }
+
+    private void lockIfEmpty(Policy policy, String key, AtomicReference<State> reference, long now) {
+        State current;
+        State next;
+        do {
+            current = reference.get();
+            if (Math.max(current.tat(), now) - now + policy.intervalNanos <= policy.windowNanos) {
+                return;
+            }
+            // Cet échec a vidé le seau : blocage, doublé à chaque récidive
+            int lockouts = current.lockouts() + 1;
+            long duration = lockoutNanos;
+            for (int i = 1; i < lockouts && duration < maxLockoutNanos; i++) {
+                duration <<= 1;
+            }
+            duration = Math.min(duration, maxLockoutNanos);
+            next = new State(Math.min(current.tat(), now + policy.windowNanos), lockouts,
+                    Math.max(current.lockedUntil(), now + duration));
+        } while (!reference.compareAndSet(current, next));
+
+        log.warn("Connexions bloquées pour l'{} {} pendant {} s (blocage n° {})", policy.name, key,
+                Duration.ofNanos(next.lockedUntil() - now).toSeconds(), next.lockouts());
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
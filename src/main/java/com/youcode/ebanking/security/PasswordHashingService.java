@@ -0,0 +1,251 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.dto.HashingOperationStatsDTO;
+import com.youcode.ebanking.dto.PasswordHashingStatsDTO;
+import com.youcode.ebanking.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs password hashing on a dedicated, CPU-sized pool with a bounded queue, so that a burst of
+ * logins cannot starve the request threads serving cheap endpoints.
+ * <p>
+ * When the queue is full, or a task waits longer than {@code max-wait}, callers get a
+ * {@link HashingCapacityExceededException} (rendered as 503) instead of piling up.
+ * <p>
+ * The timers below also back the {@code ebanking.password.hashing} meters, read only when scraped.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService implements MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+
+    private final OperationTimer encodeTimer = new OperationTimer("encode");
+    private final OperationTimer matchesTimer = new OperationTimer("matches");
+    private final OperationTimer rehashTimer = new OperationTimer("rehash");
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${ebanking.security.password.hashing.threads:0}") int threads,
+                                  @Value("${ebanking.security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${ebanking.security.password.hashing.max-wait:2s}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitNanos = maxWait.toNanos();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return await(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hashes a batch on the same pool and meters, never more than one task per pool thread at a time, so that
+     * logins keep the queue. A submission refused by a full queue waits for the batch's oldest hash, or for up
+     * to {@code max-wait} when the batch has none in flight.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        int window = executor.getMaximumPoolSize();
+        int next = 0;
+        long refusedSince = 0;
+        try {
+            while (next < rawPasswords.size() || !inFlight.isEmpty()) {
+                if (next < rawPasswords.size() && inFlight.size() < window) {
+                    String rawPassword = rawPasswords.get(next);
+                    try {
+                        inFlight.add(executor.submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword))));
+                        next++;
+                        refusedSince = 0;
+                        continue;
+                    } catch (RejectedExecutionException e) {
+                        if (inFlight.isEmpty()) {
+                            refusedSince = backOff(refusedSince);
+                            continue;
+                        }
+                    }
+                }
+                hashes.add(inFlight.peek().get());
+                inFlight.poll();
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingCapacityExceededException("Password hashing interrupted.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(false));
+        }
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Best-effort background rehash with the current algorithm and cost; silently skipped when saturated,
+     * the next successful login will try again.
+     */
+    public void rehashAsync(String rawPassword, Consumer<String> onRehashed) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onRehashed.accept(rehashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+                } catch (Exception e) {
+                    log.warn("Échec de la mise à niveau du haché de mot de passe", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        return new PasswordHashingStatsDTO(
+                List.of(encodeTimer.snapshot(), matchesTimer.snapshot(), rehashTimer.snapshot()),
+                rejected.sum(),
+                executor.getActiveCount(),
+                executor.getQueue().size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (OperationTimer timer : List.of(encodeTimer, matchesTimer, rehashTimer)) {
+            FunctionTimer.builder("ebanking.password.hashing", timer,
+                            t -> t.count.sum(), t -> t.totalNanos.sum(), TimeUnit.NANOSECONDS)
+                    .description("Durée de hachage et de vérification des mots de passe, hors attente")
+                    .tag("operation", timer.operation)
+                    .register(registry);
+        }
+        FunctionCounter.builder("ebanking.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Hachages refusés : file pleine ou attente dépassée")
+                .register(registry);
+        Gauge.builder("ebanking.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("ebanking.password.hashing.queued", executor, e -> e.getQueue().size())
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingCapacityExceededException();
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new HashingCapacityExceededException("Password hashing timed out, please retry later.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new HashingCapacityExceededException("Password hashing interrupted.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    // File saturée par les connexions : le lot patiente, dans la limite de max-wait
+    private long backOff(long refusedSince) {
+        long now = System.nanoTime();
+        if (refusedSince == 0) {
+            refusedSince = now;
+        } else if (now - refusedSince > maxWaitNanos) {
+            rejected.increment();
+            throw new HashingCapacityExceededException();
+        }
+        LockSupport.parkNanos(1_000_000);
+        return refusedSince;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private static final class OperationTimer {
+
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private OperationTimer(String operation) {
+            this.operation = operation;
+        }
+
+        private <T> T record(Callable<T> work) throws Exception {
+            long start = System.nanoTime();
+            try {
+                return work.call();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                count.increment();
+                totalNanos.add(elapsed);
+                maxNanos.accumulate(elapsed);
+            }
+        }
+
+        private HashingOperationStatsDTO snapshot() {
+            long n = count.sum();
+            double mean = n == 0 ? 0 : totalNanos.sum() / (double) n / 1_000_000;
+            return new HashingOperationStatsDTO(operation, n, mean, maxNanos.get() / 1_000_000.0);
+        }
+    }
+}
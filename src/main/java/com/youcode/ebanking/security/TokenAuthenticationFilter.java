@@ -0,0 +1,57 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.exception.InvalidCredentialsException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates {@code Authorization: Bearer} requests from the signed access token alone.
+ * Requests without a bearer token fall through to HTTP Basic.
+ * <p>
+ * Not a {@code @Component}: it is registered only inside the {@code SecurityFilterChain}.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccessTokenService tokenService;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenClaims claims = tokenService.verify(header.substring(BEARER_PREFIX.length()).trim(), AccessTokenService.ACCESS)
+                .orElse(null);
+        if (claims == null) {
+            SecurityContextHolder.clearContext();
+            authenticationEntryPoint.commence(request, response, new InvalidCredentialsException("Jeton invalide ou expiré"));
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                claims.sub(), null, List.of(new SimpleGrantedAuthority(claims.role()))));
+        SecurityContextHolder.setContext(context);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,19 @@
+package com.youcode.ebanking.security;
+
+/**
+ * Payload of a signed token issued by {@link AccessTokenService}.
+ *
+ * @param sub   username
+ * @param role  role name, e.g. "ROLE_USER"
+ * @param typ   {@link AccessTokenService#ACCESS} or {@link AccessTokenService#REFRESH}
+ * @param epoch token epoch of the user at issue time
+ * @param exp   expiry, in epoch seconds
+ */
+public record TokenClaims(
+        String sub,
+        String role,
+        String typ,
+        long epoch,
+        long exp
+) {
+}
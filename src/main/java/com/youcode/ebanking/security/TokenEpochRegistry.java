@@ -0,0 +1,74 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each user's token epoch, so that token validation never touches the database.
+ * <p>
+ * Only users whose epoch was bumped at least once are tracked; everyone else is implicitly at epoch 0.
+ * The persisted {@code token_epoch} column is loaded once at startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenEpochRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Long> epochs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadEpochs() {
+        userRepository.findByTokenEpochGreaterThan(0L)
+                .forEach(view -> epochs.put(view.getUsername(), view.getTokenEpoch()));
+        log.info("{} époques de jetons chargées", epochs.size());
+    }
+
+    public long current(String username) {
+        return epochs.getOrDefault(username, 0L);
+    }
+
+    /**
+     * Revokes every token issued so far for the user and returns the new epoch to persist.
+     * <p>
+     * The in-memory epoch only moves once the current transaction commits: moved earlier, a rollback would leave
+     * it ahead of {@code token_epoch}, and every token issued from the database afterwards would be rejected.
+     */
+    public long bump(String username, long persistedEpoch) {
+        long epoch = next(username, persistedEpoch);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(username, epoch);
+            return epoch;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance(username, epoch);
+            }
+        });
+        return epoch;
+    }
+
+    /**
+     * The epoch that revokes every token issued so far for the user, without applying it.
+     */
+    public long next(String username, long persistedEpoch) {
+        return Math.max(current(username), persistedEpoch) + 1;
+    }
+
+    /**
+     * Applies an epoch persisted by a committed transaction; never moves backwards.
+     */
+    public void advance(String username, long epoch) {
+        epochs.merge(username, epoch, Math::max);
+    }
+}
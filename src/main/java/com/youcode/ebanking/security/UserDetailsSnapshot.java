@@ -0,0 +1,63 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.model.EbUser;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable {@link UserDetails} safe to share between threads and cache entries.
+ * <p>
+ * Deliberately does not implement {@code CredentialsContainer}: the provider manager would
+ * otherwise erase the password hash of the cached instance after the first authentication.
+ */
+public final class UserDetailsSnapshot implements UserDetails {
+
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+
+    private UserDetailsSnapshot(String username, String password, List<GrantedAuthority> authorities, boolean enabled) {
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities;
+        this.enabled = enabled;
+    }
+
+    public static UserDetailsSnapshot of(EbUser user) {
+        return new UserDetailsSnapshot(
+                user.getUsername(),
+                user.getPassword(),
+                List.of(new SimpleGrantedAuthority(user.getRole().getName())),
+                user.isEnabled());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDetailsSnapshot[username=" + username + ", authorities=" + authorities + ", enabled=" + enabled + "]";
+    }
+}
@@ -0,0 +1,110 @@
+package com.youcode.ebanking.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.youcode.ebanking.dto.CredentialCacheStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, time-expiring cache of successful password verifications.
+ * <p>
+ * Entries hold an HMAC of (username, raw password, stored hash) under a per-process random key,
+ * never the raw password. Because the stored hash is part of the digest, an entry stops matching
+ * as soon as the password changes in the database, even before it is explicitly invalidated.
+ */
+@Component
+public class VerifiedCredentialCache implements MeterBinder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, byte[]> verified;
+    private final Mac prototype;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedCredentialCache(@Value("${ebanking.security.credential-cache.max-size:10000}") long maxSize,
+                                   @Value("${ebanking.security.credential-cache.ttl:5m}") Duration ttl) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.prototype = newMac();
+    }
+
+    public boolean isVerified(String username, String rawPassword, String encodedPassword) {
+        byte[] cached = verified.getIfPresent(username);
+        if (cached != null && MessageDigest.isEqual(cached, digest(username, rawPassword, encodedPassword))) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void remember(String username, String rawPassword, String encodedPassword) {
+        verified.put(username, digest(username, rawPassword, encodedPassword));
+    }
+
+    public void invalidate(String username) {
+        verified.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    public CredentialCacheStatsDTO stats() {
+        return new CredentialCacheStatsDTO(hits.sum(), misses.sum(), verified.estimatedSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ebanking.credential.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ebanking.credential.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("ebanking.credential.cache.size", verified, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    private byte[] digest(String username, String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation is not cloneable", e);
+        }
+    }
+
+    private static Mac newMac() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+}
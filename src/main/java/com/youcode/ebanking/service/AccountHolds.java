@@ -0,0 +1,186 @@
+package com.youcode.ebanking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory available balance of the accounts that have cards, so a card authorization reserves funds with a
+ * single compare-and-set instead of a database round trip.
+ * <p>
+ * {@code available} is {@code balance - held}. Card authorizations reserve and release without any lock. The
+ * other writers (postings, transfers, captures, refreshes) run under the account's {@link AccountLocks stripe}
+ * and go through {@link #tryDebit}/{@link #debited}/{@link #credited}, so they cannot spend funds held for a card
+ * and the authorization path sees their debits immediately. Accounts without cards are not tracked and every
+ * method is a no-op for them.
+ * <p>
+ * Independently of cards, the debits of transfers reported in doubt ({@link #debitInDoubt}) are kept for every
+ * account until their batch settles: the account's stripe is released before that, and the other writers must
+ * not spend the same funds meanwhile.
+ */
+@Component
+public class AccountHolds {
+
+    private static final class Funds {
+        // Solde comptable (base + journal non vidangé) ; modifié uniquement sous le verrou du compte
+        private long balance;
+        private final AtomicLong held;
+        private final AtomicLong available;
+
+        private Funds(long balance, long held) {
+            this.balance = balance;
+            this.held = new AtomicLong(held);
+            this.available = new AtomicLong(balance - held);
+        }
+    }
+
+    private final Map<Long, Funds> funds = new ConcurrentHashMap<>();
+    // Débits de virements annoncés incertains, par compte, suivi ou non
+    private final Map<Long, Long> inDoubt = new ConcurrentHashMap<>();
+
+    public boolean isTracked(long accountId) {
+        return funds.containsKey(accountId);
+    }
+
+    public Set<Long> trackedAccounts() {
+        return Set.copyOf(funds.keySet());
+    }
+
+    /**
+     * Starts tracking an account. The caller holds the account's stripe lock and read {@code balance} under it.
+     */
+    public void track(long accountId, long balance, long held) {
+        funds.putIfAbsent(accountId, new Funds(balance, held));
+    }
+
+    /**
+     * Reserves {@code amount} for a card authorization; lock-free.
+     *
+     * @return {@code false} if the available balance is too low
+     */
+    public boolean reserve(long accountId, long amount) {
+        Funds account = tracked(accountId);
+        if (!take(account.available, amount)) {
+            return false;
+        }
+        account.held.addAndGet(amount);
+        return true;
+    }
+
+    /**
+     * Gives back a reservation that was released or expired; lock-free.
+     */
+    public void release(long accountId, long amount) {
+        Funds account = tracked(accountId);
+        account.held.addAndGet(-amount);
+        account.available.addAndGet(amount);
+    }
+
+    /**
+     * A reservation turned into a debit of the same amount: the available balance does not move. Under the
+     * account's stripe lock.
+     */
+    public void captured(long accountId, long amount) {
+        Funds account = tracked(accountId);
+        account.balance -= amount;
+        account.held.addAndGet(-amount);
+    }
+
+    public long held(long accountId) {
+        Funds account = funds.get(accountId);
+        return account == null ? 0 : account.held.get();
+    }
+
+    public long available(long accountId) {
+        return tracked(accountId).available.get();
+    }
+
+    /**
+     * Sets aside {@code amount} for a debit about to be written by another channel. Under the account's stripe
+     * lock, followed by {@link #debited} once written or {@link #cancelDebit} if it failed.
+     *
+     * @return {@code false} if the debit would consume funds held for card authorizations
+     */
+    public boolean tryDebit(long accountId, long amount) {
+        Funds account = funds.get(accountId);
+        return account == null || take(account.available, amount);
+    }
+
+    public void cancelDebit(long accountId, long amount) {
+        Funds account = funds.get(accountId);
+        if (account != null) {
+            account.available.addAndGet(amount);
+        }
+    }
+
+    public void debited(long accountId, long amount) {
+        Funds account = funds.get(accountId);
+        if (account != null) {
+            account.balance -= amount;
+        }
+    }
+
+    /**
+     * A credit was written; under the account's stripe lock.
+     */
+    public void credited(long accountId, long amount) {
+        Funds account = funds.get(accountId);
+        if (account != null) {
+            account.balance += amount;
+            account.available.addAndGet(amount);
+        }
+    }
+
+    /**
+     * Re-aligns on the balance read from the database (and journal) under the account's stripe lock, catching up
+     * with writes from other nodes.
+     */
+    public void refresh(long accountId, long balance) {
+        Funds account = funds.get(accountId);
+        if (account != null && account.balance != balance) {
+            account.available.addAndGet(balance - account.balance);
+            account.balance = balance;
+        }
+    }
+
+    /**
+     * A transfer debit whose outcome is not known yet, recorded under the account's stripe lock before it is
+     * released; {@link #debitSettled} once the outcome is known.
+     */
+    public void debitInDoubt(long accountId, long amount) {
+        inDoubt.merge(accountId, amount, Long::sum);
+    }
+
+    public void debitSettled(long accountId, long amount) {
+        inDoubt.merge(accountId, -amount, (current, delta) -> current + delta == 0 ? null : current + delta);
+    }
+
+    /**
+     * Sum of the transfer debits still in doubt on the account, to deduct from its balance before a debit.
+     */
+    public long inDoubt(long accountId) {
+        return inDoubt.getOrDefault(accountId, 0L);
+    }
+
+    private Funds tracked(long accountId) {
+        Funds account = funds.get(accountId);
+        if (account == null) {
+            throw new IllegalStateException("Compte non suivi par les autorisations carte : " + accountId);
+        }
+        return account;
+    }
+
+    private static boolean take(AtomicLong available, long amount) {
+        long current;
+        do {
+            current = available.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - amount));
+        return true;
+    }
+}
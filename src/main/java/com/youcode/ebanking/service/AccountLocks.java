@@ -0,0 +1,89 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.exception.TransferUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-account locks shared by every in-process writer of balances (transfer engine, journal drain).
+ * <p>
+ * Stripes are always taken in ascending index order, so two holders can never wait on each other.
+ */
+@Component
+public class AccountLocks {
+
+    /**
+     * Set of stripes held by the current thread; released in reverse order by {@link #close()}.
+     */
+    public final class Held implements AutoCloseable {
+
+        private final int[] indexes;
+        private int acquired;
+
+        private Held(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            while (acquired > 0) {
+                stripes[indexes[--acquired]].unlock();
+            }
+        }
+    }
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+
+    public AccountLocks(@Value("${ebanking.accounts.lock-stripes:1024}") int lockStripes,
+                        @Value("${ebanking.accounts.lock-timeout:5s}") Duration lockTimeout) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = lockTimeout.toNanos();
+    }
+
+    public Held lock(long... accountIds) {
+        int[] indexes = new int[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            indexes[i] = stripeIndex(accountIds[i]);
+        }
+        return acquire(indexes);
+    }
+
+    public Held lock(Collection<Long> accountIds) {
+        return acquire(accountIds.stream().mapToInt(this::stripeIndex).toArray());
+    }
+
+    int stripeIndex(long accountId) {
+        // Mélange de Fibonacci : des identifiants consécutifs tombent sur des verrous différents
+        return (int) ((accountId * 0x9E3779B97F4A7C15L) >>> 32) & (stripes.length - 1);
+    }
+
+    private Held acquire(int[] indexes) {
+        Held held = new Held(Arrays.stream(indexes).sorted().distinct().toArray());
+        try {
+            for (int index : held.indexes) {
+                if (!stripes[index].tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new TransferUnavailableException("Compte occupé, veuillez réessayer");
+                }
+                held.acquired++;
+            }
+            return held;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            held.close();
+            throw new TransferUnavailableException("Opération interrompue", e);
+        } catch (RuntimeException e) {
+            held.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.AccountDTO;
+import com.youcode.ebanking.dto.BalanceDTO;
+import com.youcode.ebanking.dto.LedgerEntryDTO;
+import com.youcode.ebanking.dto.LedgerPostingDTO;
+import com.youcode.ebanking.dto.OpenAccountDTO;
+import com.youcode.ebanking.dto.PostingReceiptDTO;
+import com.youcode.ebanking.dto.StatementLineDTO;
+import com.youcode.ebanking.exception.AccountActivityException;
+import com.youcode.ebanking.exception.InsufficientFundsException;
+import com.youcode.ebanking.journal.LedgerJournal;
+import com.youcode.ebanking.mapper.AccountMapper;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.BalanceCheckpointRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository.StatementLineView;
+import com.youcode.ebanking.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Transactional
+public class AccountService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long ACCOUNT_NUMBER_BOUND = 10_000_000_000_000_000L;
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final UserRepository userRepository;
+    private final AccountMapper accountMapper;
+    private final AccountLocks accountLocks;
+    private final LedgerJournal ledgerJournal;
+    private final AccountHolds accountHolds;
+    private final String defaultCurrency;
+
+    public AccountService(AccountRepository accountRepository,
+                          LedgerEntryRepository ledgerEntryRepository,
+                          BalanceCheckpointRepository checkpointRepository,
+                          UserRepository userRepository,
+                          AccountMapper accountMapper,
+                          AccountLocks accountLocks,
+                          LedgerJournal ledgerJournal,
+                          AccountHolds accountHolds,
+                          @Value("${ebanking.accounts.default-currency:MAD}") String defaultCurrency) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.userRepository = userRepository;
+        this.accountMapper = accountMapper;
+        this.accountLocks = accountLocks;
+        this.ledgerJournal = ledgerJournal;
+        this.accountHolds = accountHolds;
+        this.defaultCurrency = defaultCurrency;
+    }
+
+    /**
+     * Builds a new, unsaved account; callers persist it (possibly in a batch).
+     */
+    public Account newAccount(EbUser owner, String currency) {
+        return new Account()
+                .setAccountNumber(String.format("EB%016d", RANDOM.nextLong(ACCOUNT_NUMBER_BOUND)))
+                .setOwner(owner)
+                .setCurrency(currency == null ? defaultCurrency : currency)
+                .setBalance(0)
+                .setLastSequence(0)
+                .setOpenedAt(Instant.now());
+    }
+
+    public Account openAccount(EbUser owner) {
+        return accountRepository.save(newAccount(owner, defaultCurrency));
+    }
+
+    public AccountDTO openAccount(OpenAccountDTO openAccountDTO) {
+        EbUser owner = userRepository.findByUsername(openAccountDTO.username())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + openAccountDTO.username()));
+        Account account = accountRepository.save(newAccount(owner, openAccountDTO.currency()));
+        return accountMapper.accountToAccountDTO(account);
+    }
+
+    /**
+     * Drained balance plus the postings still waiting in the {@link LedgerJournal}.
+     */
+    public BalanceDTO getMyBalance(String username) {
+        return accountRepository.findBalancesByOwner(username, Limit.of(1)).stream()
+                .findFirst()
+                .map(view -> accountMapper.balanceViewToBalanceDTO(view, ledgerJournal.pendingDelta(view.getId())))
+                .orElseThrow(() -> new EntityNotFoundException("Aucun compte pour l'utilisateur : " + username));
+    }
+
+    public AccountDTO getMyAccount(String username) {
+        EbUser owner = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return accountRepository.findByOwnerIdOrderByIdAsc(owner.getId()).stream()
+                .findFirst()
+                .map(accountMapper::accountToAccountDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Aucun compte pour l'utilisateur : " + username));
+    }
+
+    public long getMyAccountId(String username) {
+        return accountRepository.findIdsByOwner(username, Limit.of(1)).stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Aucun compte pour l'utilisateur : " + username));
+    }
+
+    /**
+     * Pushes the ledger lines of {@code [from, to)} to {@code consumer} from a forward-only cursor, keeping memory
+     * constant whatever the range. Must be called from the thread that consumes the rows: the cursor lives in this
+     * transaction, and an exception thrown by the consumer (client gone) closes it.
+     */
+    public void forEachStatementLine(long accountId, Instant from, Instant to, Consumer<StatementLineDTO> consumer) {
+        try (Stream<StatementLineView> lines = ledgerEntryRepository.streamStatement(accountId, from, to)) {
+            lines.map(accountMapper::statementLineToStatementLineDTO).forEach(consumer);
+        }
+    }
+
+    public List<LedgerEntryDTO> getRecentEntries(String accountNumber, int limit) {
+        Account account = findByAccountNumber(accountNumber);
+        return ledgerEntryRepository.findByAccountIdOrderBySequenceDesc(account.getId(), Limit.of(Math.clamp(limit, 1, 500)))
+                .stream()
+                .map(accountMapper::ledgerEntryToLedgerEntryDTO)
+                .toList();
+    }
+
+    /**
+     * Journals the posting and returns once it is durable; the ledger tables catch up asynchronously.
+     * Runs outside any transaction: the balance is read after taking the account's stripe lock, less the debits of
+     * transfers still in doubt.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public PostingReceiptDTO post(String accountNumber, LedgerPostingDTO postingDTO) {
+        Account account = findByAccountNumber(accountNumber);
+        long amount = AccountMapper.toMinorUnits(postingDTO.amount());
+
+        try (AccountLocks.Held ignored = accountLocks.lock(account.getId())) {
+            long balance = accountRepository.findBalanceById(account.getId())
+                    .orElseThrow(() -> new EntityNotFoundException("Compte introuvable : " + accountNumber))
+                    + ledgerJournal.pendingDelta(account.getId()) - accountHolds.inDoubt(account.getId());
+            long newBalance = Math.addExact(balance, postingDTO.type() == EntryType.CREDIT ? amount : -amount);
+            if (newBalance < 0) {
+                throw new InsufficientFundsException("Solde insuffisant sur le compte " + accountNumber);
+            }
+
+            boolean debit = postingDTO.type() == EntryType.DEBIT;
+            if (debit && !accountHolds.tryDebit(account.getId(), amount)) {
+                throw new InsufficientFundsException("Solde disponible insuffisant sur le compte " + accountNumber
+                        + " : fonds réservés par des paiements carte");
+            }
+            LedgerJournal.Receipt receipt;
+            try {
+                receipt = ledgerJournal.append(account.getId(), postingDTO.type(), amount, postingDTO.description());
+            } catch (RuntimeException e) {
+                if (debit) {
+                    accountHolds.cancelDebit(account.getId(), amount);
+                }
+                throw e;
+            }
+            if (debit) {
+                accountHolds.debited(account.getId(), amount);
+            } else {
+                accountHolds.credited(account.getId(), amount);
+            }
+            return new PostingReceiptDTO(receipt.reference(), accountNumber, postingDTO.type(), postingDTO.amount(),
+                    accountMapper.toDecimal(newBalance), receipt.sequence(), receipt.acceptedAt());
+        }
+    }
+
+    /**
+     * Removes the user's accounts ahead of the user itself, refusing if any of them has ledger history.
+     */
+    public void deleteEmptyAccounts(EbUser owner) {
+        List<Account> accounts = accountRepository.findByOwnerIdOrderByIdAsc(owner.getId());
+        if (!lockAndFindActive(accounts.stream().map(Account::getId).toList()).isEmpty()) {
+            throw new AccountActivityException("L'utilisateur " + owner.getUsername()
+                    + " possède des comptes avec des opérations ; désactivez-le au lieu de le supprimer");
+        }
+        accounts.forEach(account -> checkpointRepository.deleteByAccountId(account.getId()));
+        accountRepository.deleteAll(accounts);
+    }
+
+    /**
+     * Returns the accounts among {@code accountIds} with ledger history, drained or still in the journal.
+     * <p>
+     * Their stripes stay held until the current transaction completes: no posting can be journaled or drained
+     * for the other accounts before they are deleted by this transaction, and then lost by the drain.
+     */
+    public Set<Long> lockAndFindActive(Collection<Long> accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Vérification des comptes à supprimer hors transaction");
+        }
+        AccountLocks.Held held = accountLocks.lock(accountIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.close();
+            }
+        });
+
+        Set<Long> active = new HashSet<>(accountRepository.findIdsWithHistory(accountIds));
+        accountIds.stream().filter(ledgerJournal::hasPending).forEach(active::add);
+        return active;
+    }
+
+    public Account findByAccountNumber(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new EntityNotFoundException("Compte introuvable : " + accountNumber));
+    }
+}
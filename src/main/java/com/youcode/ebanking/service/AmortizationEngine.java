@@ -0,0 +1,106 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.model.AmortizationType;
+
+/**
+ * Computes monthly amortization schedules on {@code long} minor units.
+ * <p>
+ * Interest is {@code balance × rate / 12}, rounded half-up to the minor unit. An annuity is rounded up to the
+ * minor unit and a linear principal share up as well, so the last installment absorbs the rounding. After a
+ * prepayment the annuity (or linear share) is recalculated on the remaining balance and term: the duration
+ * stays the same and the installment drops.
+ */
+public final class AmortizationEngine {
+
+    public record Terms(AmortizationType type, long principal, int annualRateBps, int termMonths) {
+
+        public Terms {
+            if (principal <= 0 || termMonths <= 0 || annualRateBps < 0) {
+                throw new IllegalArgumentException("Conditions de prêt invalides");
+            }
+        }
+    }
+
+    // 10 000 points de base × 12 mois
+    private static final long MONTHLY_RATE_DIVISOR = 120_000;
+
+    private AmortizationEngine() {
+    }
+
+    /**
+     * @param prepayments amount prepaid after each installment (0-based index), or {@code null} for none
+     */
+    public static AmortizationSchedule compute(Terms terms, long[] prepayments, long version) {
+        long[] cells = new long[terms.termMonths() * AmortizationSchedule.STRIDE];
+        long level = level(terms.type(), terms.principal(), terms.annualRateBps(), terms.termMonths());
+        int size = fill(terms, cells, 0, terms.principal(), level, prepayments, 0, 0);
+        return new AmortizationSchedule(version, size, cells);
+    }
+
+    /**
+     * Adds a prepayment after installment {@code installment} (0-based) of {@code base}: the rows before it are
+     * copied as they are and only the rest is recomputed.
+     */
+    public static AmortizationSchedule withPrepayment(Terms terms, AmortizationSchedule base, int installment,
+                                                      long amount, long version) {
+        if (installment < 0 || installment >= base.size()) {
+            throw new IllegalArgumentException("Échéance hors de l'échéancier : " + (installment + 1));
+        }
+        long[] cells = new long[terms.termMonths() * AmortizationSchedule.STRIDE];
+        System.arraycopy(base.cells(), 0, cells, 0, installment * AmortizationSchedule.STRIDE);
+
+        long opening = installment == 0 ? terms.principal() : base.balance(installment - 1);
+        int size = fill(terms, cells, installment, opening, base.level(installment), null, installment,
+                base.prepayment(installment) + amount);
+        return new AmortizationSchedule(version, size, cells);
+    }
+
+    /**
+     * Writes rows from {@code from} on and returns the number of installments due. {@code extraAt} receives
+     * {@code extra} on top of {@code prepayments}.
+     */
+    private static int fill(Terms terms, long[] cells, int from, long balance, long level, long[] prepayments,
+                            int extraAt, long extra) {
+        int term = terms.termMonths();
+        int rateBps = terms.annualRateBps();
+        boolean annuity = terms.type() == AmortizationType.ANNUITY;
+
+        for (int i = from; i < term; i++) {
+            if (balance == 0) {
+                return i;
+            }
+            long interest = (Math.multiplyExact(balance, rateBps) + MONTHLY_RATE_DIVISOR / 2) / MONTHLY_RATE_DIVISOR;
+            long principal = annuity ? Math.max(0, level - interest) : level;
+            if (i == term - 1 || principal > balance) {
+                principal = balance;
+            }
+            balance -= principal;
+
+            long prepayment = (prepayments != null && i < prepayments.length ? prepayments[i] : 0)
+                    + (i == extraAt ? extra : 0);
+            prepayment = Math.min(prepayment, balance);
+            balance -= prepayment;
+
+            int row = i * AmortizationSchedule.STRIDE;
+            cells[row + AmortizationSchedule.PAYMENT] = principal + interest;
+            cells[row + AmortizationSchedule.INTEREST] = interest;
+            cells[row + AmortizationSchedule.PRINCIPAL] = principal;
+            cells[row + AmortizationSchedule.PREPAYMENT] = prepayment;
+            cells[row + AmortizationSchedule.BALANCE] = balance;
+            cells[row + AmortizationSchedule.LEVEL] = level;
+
+            if (prepayment > 0 && balance > 0) {
+                level = level(terms.type(), balance, rateBps, term - i - 1);
+            }
+        }
+        return term;
+    }
+
+    private static long level(AmortizationType type, long balance, int annualRateBps, int remaining) {
+        if (type == AmortizationType.LINEAR || annualRateBps == 0) {
+            return Math.ceilDiv(balance, remaining);
+        }
+        double rate = annualRateBps / (double) MONTHLY_RATE_DIVISOR;
+        return (long) Math.ceil(balance * rate / (1 - Math.pow(1 + rate, -remaining)));
+    }
+}
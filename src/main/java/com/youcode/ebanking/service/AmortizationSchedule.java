@@ -0,0 +1,86 @@
+package com.youcode.ebanking.service;
+
+/**
+ * Immutable amortization schedule, one row per monthly installment, all amounts in minor units.
+ * <p>
+ * Rows live in a single {@code long[]} with a fixed stride, so a 30-year schedule is one allocation and a
+ * recomputation after a prepayment copies the unchanged prefix with one {@code System.arraycopy}.
+ */
+public final class AmortizationSchedule {
+
+    static final int PAYMENT = 0;
+    static final int INTEREST = 1;
+    static final int PRINCIPAL = 2;
+    static final int PREPAYMENT = 3;
+    static final int BALANCE = 4;
+    // Annuité (ou part d'amortissement constante) en vigueur pour l'échéance
+    static final int LEVEL = 5;
+    static final int STRIDE = 6;
+
+    private final long version;
+    private final int size;
+    private final long[] cells;
+
+    AmortizationSchedule(long version, int size, long[] cells) {
+        this.version = version;
+        this.size = size;
+        this.cells = cells;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Number of installments actually due; below the term when prepayments paid the loan off early.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long payment(int installment) {
+        return cell(installment, PAYMENT);
+    }
+
+    public long interest(int installment) {
+        return cell(installment, INTEREST);
+    }
+
+    public long principal(int installment) {
+        return cell(installment, PRINCIPAL);
+    }
+
+    public long prepayment(int installment) {
+        return cell(installment, PREPAYMENT);
+    }
+
+    /**
+     * Outstanding principal after the installment and its prepayment.
+     */
+    public long balance(int installment) {
+        return cell(installment, BALANCE);
+    }
+
+    long level(int installment) {
+        return cell(installment, LEVEL);
+    }
+
+    public long totalInterest() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cells[i * STRIDE + INTEREST];
+        }
+        return total;
+    }
+
+    long[] cells() {
+        return cells;
+    }
+
+    private long cell(int installment, int column) {
+        if (installment < 0 || installment >= size) {
+            throw new IndexOutOfBoundsException(installment);
+        }
+        return cells[installment * STRIDE + column];
+    }
+}
@@ -0,0 +1,311 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.audit.AuditLog;
+import com.youcode.ebanking.dto.BulkUserAction;
+import com.youcode.ebanking.dto.BulkUserActionDTO;
+import com.youcode.ebanking.dto.BulkUserActionReportDTO;
+import com.youcode.ebanking.dto.BulkUserFilterDTO;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.BalanceCheckpointRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.repository.UserRepository.BulkTargetView;
+import com.youcode.ebanking.security.CustomUserDetailsService;
+import com.youcode.ebanking.security.TokenEpochRegistry;
+import com.youcode.ebanking.security.VerifiedCredentialCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Changes the role, enablement or existence of many users at once: chunk by chunk, each chunk one transaction
+ * made of a keyset read and a few {@code UPDATE/DELETE ... WHERE id IN (...)} statements, without loading
+ * entities. A failing chunk stops the action; the chunks already committed stay applied.
+ * <p>
+ * Affected users lose their tokens (epoch bump) and their cached credentials and details once the chunk commits:
+ * the new epochs are computed in the chunk transaction but only reach the {@link TokenEpochRegistry} afterwards, so
+ * a chunk that rolls back leaves the registry in step with {@code token_epoch}.
+ */
+@Service
+@Slf4j
+public class BulkUserActionService {
+
+    /**
+     * A validated request: the targets are either {@code usernames} or the filter patterns.
+     */
+    public record Plan(BulkUserAction action, Role role, List<String> usernames, String usernamePattern,
+                       String emailPattern, String roleName, Boolean enabled) {
+    }
+
+    // Utilisateur modifié par un lot validé, avec l'époque persistée (null si ses jetons restent valides)
+    private record Applied(BulkTargetView user, Long tokenEpoch) {
+    }
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final RoleRegistry roleRegistry;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final VerifiedCredentialCache credentialCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final UsernameBloomFilter usernameFilter;
+    private final AuditLog auditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkUserActionService(UserRepository userRepository,
+                                 AccountRepository accountRepository,
+                                 AccountService accountService,
+                                 BalanceCheckpointRepository checkpointRepository,
+                                 RoleRegistry roleRegistry,
+                                 TokenEpochRegistry tokenEpochRegistry,
+                                 VerifiedCredentialCache credentialCache,
+                                 CustomUserDetailsService userDetailsService,
+                                 UsernameBloomFilter usernameFilter,
+                                 AuditLog auditLog,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${ebanking.users.bulk-action.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.checkpointRepository = checkpointRepository;
+        this.roleRegistry = roleRegistry;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.credentialCache = credentialCache;
+        this.userDetailsService = userDetailsService;
+        this.usernameFilter = usernameFilter;
+        this.auditLog = auditLog;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks the request before anything is written, so that a streamed response never starts for an invalid one.
+     */
+    public Plan plan(BulkUserActionDTO request) {
+        boolean byName = request.usernames() != null && !request.usernames().isEmpty();
+        if (byName == (request.filter() != null)) {
+            throw new IllegalArgumentException("Either usernames or filter is required, not both");
+        }
+        Role role = null;
+        if (request.action() == BulkUserAction.CHANGE_ROLE) {
+            if (request.roleName() == null) {
+                throw new IllegalArgumentException("Role name is required to change roles");
+            }
+            role = roleRegistry.resolve(request.roleName());
+        }
+        if (byName) {
+            return new Plan(request.action(), role, List.copyOf(new LinkedHashSet<>(request.usernames())),
+                    null, null, null, null);
+        }
+
+        BulkUserFilterDTO filter = request.filter();
+        String usernamePattern = isBlank(filter.usernamePrefix()) ? null : escapeLike(filter.usernamePrefix()) + "%";
+        String emailPattern = isBlank(filter.emailDomain()) ? null : "%@" + escapeLike(filter.emailDomain());
+        String roleName = isBlank(filter.roleName()) ? null : filter.roleName();
+        // Un filtre vide viserait toute la base : refusé plutôt que deviné
+        if (usernamePattern == null && emailPattern == null && roleName == null && filter.enabled() == null) {
+            throw new IllegalArgumentException("Filter must have at least one criterion");
+        }
+        return new Plan(request.action(), role, null, usernamePattern, emailPattern, roleName, filter.enabled());
+    }
+
+    /**
+     * @param actor    the administrator running the action, never affected by it
+     * @param progress receives the running totals after each committed chunk
+     */
+    public BulkUserActionReportDTO run(Plan plan, String actor, Consumer<BulkUserActionReportDTO> progress) {
+        Totals totals = new Totals(plan.action());
+        if (plan.usernames() != null) {
+            List<String> usernames = plan.usernames();
+            for (int from = 0; from < usernames.size(); from += chunkSize) {
+                List<String> names = usernames.subList(from, Math.min(from + chunkSize, usernames.size()));
+                List<Applied> applied = transactionTemplate.execute(status -> {
+                    List<BulkTargetView> targets = userRepository.findBulkTargetsByUsernameIn(names);
+                    Set<String> found = new HashSet<>();
+                    targets.forEach(target -> found.add(target.getUsername()));
+                    names.stream().filter(name -> !found.contains(name)).forEach(totals.notFound::add);
+                    return applyChunk(plan, targets, actor, totals);
+                });
+                afterChunk(plan, applied, actor, totals, progress);
+            }
+        } else {
+            long after = 0;
+            int read;
+            do {
+                long afterId = after;
+                List<BulkTargetView> targets = new ArrayList<>();
+                List<Applied> applied = transactionTemplate.execute(status -> {
+                    targets.addAll(userRepository.findBulkTargetsAfter(afterId, plan.usernamePattern(),
+                            plan.emailPattern(), plan.roleName(), plan.enabled(), Limit.of(chunkSize)));
+                    return applyChunk(plan, targets, actor, totals);
+                });
+                read = targets.size();
+                if (read > 0) {
+                    after = targets.get(read - 1).getId();
+                    afterChunk(plan, applied, actor, totals, progress);
+                }
+            } while (read == chunkSize);
+        }
+
+        log.info("Action {} en masse par {} : {} utilisateurs visés, {} modifiés, {} écartés, {} introuvables",
+                plan.action(), actor, totals.matched, totals.applied, totals.skipped.size(), totals.notFound.size());
+        return totals.report(true);
+    }
+
+    // Dans la transaction du lot ; renvoie les utilisateurs modifiés
+    private List<Applied> applyChunk(Plan plan, List<BulkTargetView> targets, String actor, Totals totals) {
+        totals.matched += targets.size();
+        List<BulkTargetView> eligible = new ArrayList<>(targets.size());
+        for (BulkTargetView target : targets) {
+            if (target.getUsername().equals(actor)) {
+                totals.skipped.add(target.getUsername());
+            } else if (alreadyApplied(plan, target)) {
+                totals.unchanged++;
+            } else {
+                eligible.add(target);
+            }
+        }
+        if (plan.action() == BulkUserAction.DELETE && !eligible.isEmpty()) {
+            Set<Long> active = withActivity(ids(eligible));
+            eligible.removeIf(target -> {
+                if (active.contains(target.getId())) {
+                    totals.skipped.add(target.getUsername());
+                    return true;
+                }
+                return false;
+            });
+        }
+        if (eligible.isEmpty()) {
+            return List.of();
+        }
+
+        List<Applied> applied = new ArrayList<>(eligible.size());
+        switch (plan.action()) {
+            case CHANGE_ROLE -> byNewEpoch(eligible, applied).forEach((epoch, ids) -> userRepository.updateRole(ids,
+                    plan.role(), epoch));
+            case DISABLE -> byNewEpoch(eligible, applied).forEach((epoch, ids) -> userRepository.disable(ids, epoch));
+            case ENABLE -> {
+                userRepository.enable(ids(eligible));
+                eligible.forEach(target -> applied.add(new Applied(target, null)));
+            }
+            case DELETE -> {
+                List<Long> ids = ids(eligible);
+                checkpointRepository.deleteByOwnerIdIn(ids);
+                accountRepository.deleteByOwnerIdIn(ids);
+                userRepository.deleteByIdIn(ids);
+                // L'époque d'un utilisateur supprimé n'est pas persistée : elle révoque seulement ses jetons en cours
+                eligible.forEach(target -> applied.add(
+                        new Applied(target, tokenEpochRegistry.next(target.getUsername(), target.getTokenEpoch()))));
+            }
+        }
+        totals.applied += applied.size();
+        return applied;
+    }
+
+    /**
+     * The users that cannot be deleted: postings drained or still in the journal, cards or loans. The stripes of
+     * their accounts stay held until the chunk transaction completes, as for a single deletion
+     * ({@link AccountService#deleteEmptyAccounts}).
+     */
+    private Set<Long> withActivity(List<Long> userIds) {
+        Set<Long> active = new HashSet<>(userRepository.findIdsWithCardsOrLoans(userIds));
+        Map<Long, Long> owners = new HashMap<>();
+        accountRepository.findByOwnerIdIn(userIds)
+                .forEach(account -> owners.put(account.getId(), account.getOwnerId()));
+        accountService.lockAndFindActive(owners.keySet()).forEach(accountId -> active.add(owners.get(accountId)));
+        return active;
+    }
+
+    private void afterChunk(Plan plan, List<Applied> applied, String actor, Totals totals,
+                            Consumer<BulkUserActionReportDTO> progress) {
+        for (Applied change : applied) {
+            String username = change.user().getUsername();
+            if (change.tokenEpoch() != null) {
+                tokenEpochRegistry.advance(username, change.tokenEpoch());
+            }
+            credentialCache.invalidate(username);
+            userDetailsService.evict(username);
+            switch (plan.action()) {
+                case CHANGE_ROLE -> auditLog.roleChanged(actor, username, change.user().getRoleName(),
+                        plan.role().getName());
+                case ENABLE -> auditLog.enablementChanged(actor, username, true);
+                case DISABLE -> auditLog.enablementChanged(actor, username, false);
+                case DELETE -> {
+                    usernameFilter.removed(username);
+                    auditLog.userDeleted(actor, username);
+                }
+            }
+        }
+        totals.chunks++;
+        log.debug("Action {} en masse : lot {} validé, {} utilisateurs modifiés", plan.action(), totals.chunks,
+                totals.applied);
+        progress.accept(totals.report(false));
+    }
+
+    /**
+     * Computes the users' new epochs and groups them by epoch to persist, one {@code UPDATE} per group (usually a
+     * single one: most users were never revoked before). The registry is only advanced once the chunk commits.
+     */
+    private Map<Long, List<Long>> byNewEpoch(List<BulkTargetView> targets, List<Applied> applied) {
+        Map<Long, List<Long>> groups = new HashMap<>();
+        for (BulkTargetView target : targets) {
+            long epoch = tokenEpochRegistry.next(target.getUsername(), target.getTokenEpoch());
+            groups.computeIfAbsent(epoch, key -> new ArrayList<>()).add(target.getId());
+            applied.add(new Applied(target, epoch));
+        }
+        return groups;
+    }
+
+    private static boolean alreadyApplied(Plan plan, BulkTargetView target) {
+        return switch (plan.action()) {
+            case CHANGE_ROLE -> plan.role().getName().equals(target.getRoleName());
+            case ENABLE -> target.isEnabled();
+            case DISABLE -> !target.isEnabled();
+            case DELETE -> false;
+        };
+    }
+
+    private static List<Long> ids(List<BulkTargetView> targets) {
+        return targets.stream().map(BulkTargetView::getId).toList();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static final class Totals {
+        private final BulkUserAction action;
+        private final List<String> skipped = new ArrayList<>();
+        private final List<String> notFound = new ArrayList<>();
+        private int chunks;
+        private int matched;
+        private int applied;
+        private int unchanged;
+
+        private Totals(BulkUserAction action) {
+            this.action = action;
+        }
+
+        private BulkUserActionReportDTO report(boolean done) {
+            return new BulkUserActionReportDTO(action, done, chunks, matched, applied, unchanged,
+                    done ? List.copyOf(skipped) : List.of(), done ? List.copyOf(notFound) : List.of());
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.journal.LedgerJournal;
+import com.youcode.ebanking.model.CardStatus;
+import com.youcode.ebanking.model.DeclineReason;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.HoldStatus;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.AccountRepository.IdBalanceView;
+import com.youcode.ebanking.repository.CardHoldRepository;
+import com.youcode.ebanking.repository.CardHoldRepository.ActiveHoldView;
+import com.youcode.ebanking.repository.CardRepository;
+import com.youcode.ebanking.repository.CardRepository.CardStateView;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Card authorization decisions taken entirely in memory.
+ * <p>
+ * Each card keeps its daily and monthly spend in one immutable {@link Usage} swapped by compare-and-set, and the
+ * funds are reserved on the account's {@link AccountHolds} counter, so an approval is two CAS loops and a queue
+ * offer. The hold is then written by {@link CardHoldWriter} in batches; on startup the active holds and the
+ * current spend are reloaded from the database. A hold acknowledged in the last write-behind interval before a
+ * crash is lost, like an authorization the network never saw.
+ * <p>
+ * A card's first authorization after startup loads its state and its account's balance (one round trip);
+ * afterwards the state stays in memory.
+ */
+@Service
+@Slf4j
+public class CardAuthorizationEngine {
+
+    public record Authorization(String reference, long cardId, long amount, DeclineReason declineReason,
+                                Instant authorizedAt, Instant expiresAt) {
+
+        public boolean approved() {
+            return declineReason == null;
+        }
+    }
+
+    public record Hold(String reference, long cardId, long accountId, long amount, String merchant,
+                       Instant createdAt, Instant expiresAt) {
+    }
+
+    public record Resolution(Hold hold, HoldStatus status, Instant resolvedAt) {
+    }
+
+    /**
+     * Spend of the current UTC day and month; rolled over lazily by the first authorization of a new period.
+     */
+    private record Usage(long day, long daily, long month, long monthly) {
+
+        Usage rollTo(long today, long thisMonth) {
+            // <= : une autorisation horodatée juste avant minuit ne remet pas à zéro le jour suivant
+            if (today <= day) {
+                return this;
+            }
+            return new Usage(today, 0, thisMonth, thisMonth == month ? monthly : 0);
+        }
+    }
+
+    private static final class CardState {
+        private final long cardId;
+        private final long accountId;
+        private volatile CardStatus status;
+        private volatile long dailyLimit;
+        private volatile long monthlyLimit;
+        private final AtomicReference<Usage> usage;
+
+        private CardState(long cardId, long accountId, CardStatus status, long dailyLimit, long monthlyLimit,
+                          Usage usage) {
+            this.cardId = cardId;
+            this.accountId = accountId;
+            this.status = status;
+            this.dailyLimit = dailyLimit;
+            this.monthlyLimit = monthlyLimit;
+            this.usage = new AtomicReference<>(usage);
+        }
+
+        private DeclineReason spend(long amount, long today, long thisMonth) {
+            Usage current;
+            Usage next;
+            do {
+                current = usage.get();
+                Usage rolled = current.rollTo(today, thisMonth);
+                if (rolled.daily() + amount > dailyLimit) {
+                    return DeclineReason.DAILY_LIMIT_EXCEEDED;
+                }
+                if (rolled.monthly() + amount > monthlyLimit) {
+                    return DeclineReason.MONTHLY_LIMIT_EXCEEDED;
+                }
+                next = new Usage(rolled.day(), rolled.daily() + amount, rolled.month(), rolled.monthly() + amount);
+            } while (!usage.compareAndSet(current, next));
+            return null;
+        }
+
+        // Rend le montant aux périodes encore en cours ; une période écoulée est déjà remise à zéro
+        private void unspend(long amount, long day, long month) {
+            Usage current;
+            Usage next;
+            do {
+                current = usage.get();
+                if (current.month() != month) {
+                    return;
+                }
+                next = new Usage(current.day(), current.day() == day ? current.daily() - amount : current.daily(),
+                        month, current.monthly() - amount);
+            } while (!usage.compareAndSet(current, next));
+        }
+    }
+
+    private static final int ACCOUNT_BATCH_SIZE = 500;
+
+    private final CardRepository cardRepository;
+    private final CardHoldRepository holdRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final AccountHolds accountHolds;
+    private final LedgerJournal ledgerJournal;
+    private final CardHoldWriter holdWriter;
+    private final Duration holdTtl;
+
+    private final Map<Long, CardState> cards = new ConcurrentHashMap<>();
+    private final Map<String, Hold> activeHolds = new ConcurrentHashMap<>();
+
+    public CardAuthorizationEngine(CardRepository cardRepository,
+                                   CardHoldRepository holdRepository,
+                                   AccountRepository accountRepository,
+                                   AccountLocks accountLocks,
+                                   AccountHolds accountHolds,
+                                   LedgerJournal ledgerJournal,
+                                   CardHoldWriter holdWriter,
+                                   @Value("${ebanking.cards.hold-ttl:7d}") Duration holdTtl) {
+        this.cardRepository = cardRepository;
+        this.holdRepository = holdRepository;
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.accountHolds = accountHolds;
+        this.ledgerJournal = ledgerJournal;
+        this.holdWriter = holdWriter;
+        this.holdTtl = holdTtl;
+    }
+
+    /**
+     * Reloads the active holds and the spend of their cards, then re-reserves the held funds on their accounts.
+     */
+    @PostConstruct
+    public void recover() {
+        Map<Long, Long> heldByAccount = new HashMap<>();
+        for (ActiveHoldView view : holdRepository.findActive()) {
+            Hold hold = new Hold(view.getReference(), view.getCardId(), view.getAccountId(), view.getAmount(),
+                    view.getMerchant(), view.getCreatedAt(), view.getExpiresAt());
+            activeHolds.put(hold.reference(), hold);
+            heldByAccount.merge(hold.accountId(), hold.amount(), Long::sum);
+            cards.computeIfAbsent(hold.cardId(), this::loadCard);
+        }
+        List<Long> accountIds = new ArrayList<>(heldByAccount.keySet());
+        for (int from = 0; from < accountIds.size(); from += ACCOUNT_BATCH_SIZE) {
+            List<Long> batch = accountIds.subList(from, Math.min(from + ACCOUNT_BATCH_SIZE, accountIds.size()));
+            try (AccountLocks.Held ignored = accountLocks.lock(batch)) {
+                for (IdBalanceView account : accountRepository.findBalancesByIdIn(batch)) {
+                    accountHolds.track(account.getId(),
+                            account.getBalance() + ledgerJournal.pendingDelta(account.getId()),
+                            heldByAccount.get(account.getId()));
+                }
+            }
+        }
+        if (!activeHolds.isEmpty()) {
+            log.info("Autorisations carte : {} réservations actives rechargées sur {} comptes",
+                    activeHolds.size(), accountIds.size());
+        }
+    }
+
+    public Authorization authorize(long cardId, long amount, String merchant) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        CardState card = card(cardId);
+        Instant now = Instant.now();
+        if (card.status != CardStatus.ACTIVE) {
+            return declined(cardId, amount, DeclineReason.CARD_NOT_ACTIVE, now);
+        }
+
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        long day = today.toEpochDay();
+        long month = monthIndex(today);
+        DeclineReason limit = card.spend(amount, day, month);
+        if (limit != null) {
+            return declined(cardId, amount, limit, now);
+        }
+        if (!accountHolds.reserve(card.accountId, amount)) {
+            card.unspend(amount, day, month);
+            return declined(cardId, amount, DeclineReason.INSUFFICIENT_FUNDS, now);
+        }
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), cardId, card.accountId, amount, merchant, now,
+                now.plus(holdTtl));
+        activeHolds.put(hold.reference(), hold);
+        if (!holdWriter.inserted(hold)) {
+            // Écriture différée saturée : sans trace durable, la réservation ne peut pas être accordée
+            activeHolds.remove(hold.reference());
+            accountHolds.release(card.accountId, amount);
+            card.unspend(amount, day, month);
+            return declined(cardId, amount, DeclineReason.ISSUER_UNAVAILABLE, now);
+        }
+        return new Authorization(hold.reference(), cardId, amount, null, now, hold.expiresAt());
+    }
+
+    /**
+     * Debits the held amount through the {@link LedgerJournal}; returns once the posting is durable.
+     */
+    public Resolution capture(String reference) {
+        Hold hold = take(reference);
+        try (AccountLocks.Held ignored = accountLocks.lock(hold.accountId())) {
+            ledgerJournal.append(hold.accountId(), EntryType.DEBIT, hold.amount(),
+                    hold.merchant() == null ? "Paiement carte" : "Paiement carte " + hold.merchant());
+            accountHolds.captured(hold.accountId(), hold.amount());
+        } catch (RuntimeException e) {
+            activeHolds.put(reference, hold);
+            throw e;
+        }
+        return resolved(hold, HoldStatus.CAPTURED);
+    }
+
+    public Resolution release(String reference) {
+        return giveBack(take(reference), HoldStatus.RELEASED);
+    }
+
+    @Scheduled(fixedDelayString = "${ebanking.cards.expiry-sweep:PT1M}")
+    public void expireHolds() {
+        Instant now = Instant.now();
+        int expired = 0;
+        for (Hold hold : activeHolds.values()) {
+            if (hold.expiresAt().isBefore(now) && activeHolds.remove(hold.reference(), hold)) {
+                giveBack(hold, HoldStatus.EXPIRED);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.info("Autorisations carte : {} réservations expirées libérées", expired);
+        }
+    }
+
+    /**
+     * Re-reads the balances of the tracked accounts to pick up writes made by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${ebanking.cards.balance-refresh:PT30S}")
+    public void refreshBalances() {
+        List<Long> accountIds = new ArrayList<>(accountHolds.trackedAccounts());
+        for (int from = 0; from < accountIds.size(); from += ACCOUNT_BATCH_SIZE) {
+            List<Long> batch = accountIds.subList(from, Math.min(from + ACCOUNT_BATCH_SIZE, accountIds.size()));
+            try (AccountLocks.Held ignored = accountLocks.lock(batch)) {
+                for (IdBalanceView account : accountRepository.findBalancesByIdIn(batch)) {
+                    accountHolds.refresh(account.getId(),
+                            account.getBalance() + ledgerJournal.pendingDelta(account.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a status or limit change made in the database to a card already in memory.
+     */
+    public void cardUpdated(long cardId, CardStatus status, long dailyLimit, long monthlyLimit) {
+        CardState card = cards.get(cardId);
+        if (card != null) {
+            card.status = status;
+            card.dailyLimit = dailyLimit;
+            card.monthlyLimit = monthlyLimit;
+        }
+    }
+
+    private CardState card(long cardId) {
+        CardState card = cards.get(cardId);
+        if (card != null) {
+            return card;
+        }
+        CardState loaded = loadCard(cardId);
+        if (!accountHolds.isTracked(loaded.accountId)) {
+            try (AccountLocks.Held ignored = accountLocks.lock(loaded.accountId)) {
+                long balance = accountRepository.findBalanceById(loaded.accountId)
+                        .orElseThrow(() -> new EntityNotFoundException("Compte introuvable : " + loaded.accountId))
+                        + ledgerJournal.pendingDelta(loaded.accountId);
+                // Aucune réservation possible sur un compte non suivi : rien n'est encore retenu
+                accountHolds.track(loaded.accountId, balance, 0);
+            }
+        }
+        card = cards.putIfAbsent(cardId, loaded);
+        return card == null ? loaded : card;
+    }
+
+    private CardState loadCard(long cardId) {
+        CardStateView view = cardRepository.findStateById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Carte introuvable : " + cardId));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long daily = holdRepository.sumSpentSince(cardId, today.atStartOfDay(ZoneOffset.UTC).toInstant());
+        long monthly = holdRepository.sumSpentSince(cardId,
+                today.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        return new CardState(cardId, view.getAccountId(), view.getStatus(), view.getDailyLimit(),
+                view.getMonthlyLimit(), new Usage(today.toEpochDay(), daily, monthIndex(today), monthly));
+    }
+
+    private Hold take(String reference) {
+        Hold hold = activeHolds.remove(reference);
+        if (hold == null) {
+            throw new EntityNotFoundException("Autorisation introuvable ou déjà traitée : " + reference);
+        }
+        return hold;
+    }
+
+    private Resolution giveBack(Hold hold, HoldStatus status) {
+        accountHolds.release(hold.accountId(), hold.amount());
+        CardState card = cards.get(hold.cardId());
+        if (card != null) {
+            LocalDate created = LocalDate.ofInstant(hold.createdAt(), ZoneOffset.UTC);
+            card.unspend(hold.amount(), created.toEpochDay(), monthIndex(created));
+        }
+        return resolved(hold, status);
+    }
+
+    private Resolution resolved(Hold hold, HoldStatus status) {
+        Resolution resolution = new Resolution(hold, status, Instant.now());
+        holdWriter.resolved(resolution);
+        return resolution;
+    }
+
+    private static Authorization declined(long cardId, long amount, DeclineReason reason, Instant at) {
+        return new Authorization(null, cardId, amount, reason, at, null);
+    }
+
+    private static long monthIndex(LocalDate day) {
+        return day.getYear() * 12L + day.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,194 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.model.CardHold;
+import com.youcode.ebanking.model.HoldStatus;
+import com.youcode.ebanking.repository.CardHoldRepository;
+import com.youcode.ebanking.repository.CardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes card holds and their resolutions behind the authorization path, one transaction per batch, in the
+ * order they happened. A failed batch is retried as is, so a resolution is never written before its hold.
+ */
+@Component
+@Slf4j
+public class CardHoldWriter {
+
+    // hold renseigné : insertion ; resolution renseignée : changement de statut
+    private record Event(CardAuthorizationEngine.Hold hold, CardAuthorizationEngine.Resolution resolution) {
+
+        String reference() {
+            return hold != null ? hold.reference() : resolution.hold().reference();
+        }
+    }
+
+    private final CardHoldRepository holdRepository;
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Event> queue;
+    private final int batchSize;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CardHoldWriter(CardHoldRepository holdRepository,
+                          CardRepository cardRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${ebanking.cards.write-behind.queue-capacity:100000}") int queueCapacity,
+                          @Value("${ebanking.cards.write-behind.batch-size:500}") int batchSize) {
+        this.holdRepository = holdRepository;
+        this.cardRepository = cardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "card-hold-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty()) {
+            log.error("Arrêt avec {} écritures de réservations carte non persistées", queue.size());
+        }
+    }
+
+    /**
+     * Queues a new hold without waiting.
+     *
+     * @return {@code false} if the queue is full (the database is behind)
+     */
+    public boolean inserted(CardAuthorizationEngine.Hold hold) {
+        return running && queue.offer(new Event(hold, null));
+    }
+
+    /**
+     * Queues a status change, waiting for room: the hold has already left memory and must reach the database.
+     */
+    public void resolved(CardAuthorizationEngine.Resolution resolution) {
+        try {
+            queue.put(new Event(null, resolution));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Résolution {} de la réservation {} non persistée", resolution.status(),
+                    resolution.hold().reference());
+        }
+    }
+
+    /**
+     * Number of events waiting to be written.
+     */
+    public int backlog() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Event head = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (head == null) {
+                    continue;
+                }
+                batch.add(head);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Event> batch) {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Lot de {} réservations carte rejeté, écriture unitaire : {}", batch.size(), e.getMessage());
+                batch.forEach(this::writeAlone);
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Lot de {} réservations carte perdu à l'arrêt", batch.size(), e);
+                    return;
+                }
+                log.warn("Échec de l'écriture des réservations carte, nouvelle tentative : {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void writeAlone(Event event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(event)));
+        } catch (RuntimeException e) {
+            log.error("Réservation carte {} ignorée : {}", event.reference(), e.getMessage());
+        }
+    }
+
+    private void write(List<Event> batch) {
+        Map<String, CardHold> holds = new HashMap<>();
+        List<CardHold> inserts = new ArrayList<>();
+        List<String> resolvedElsewhere = new ArrayList<>();
+        for (Event event : batch) {
+            if (event.hold() != null) {
+                CardAuthorizationEngine.Hold hold = event.hold();
+                CardHold entity = new CardHold()
+                        .setCard(cardRepository.getReferenceById(hold.cardId()))
+                        .setReference(hold.reference())
+                        .setAmount(hold.amount())
+                        .setMerchant(hold.merchant())
+                        .setStatus(HoldStatus.ACTIVE)
+                        .setCreatedAt(hold.createdAt())
+                        .setExpiresAt(hold.expiresAt());
+                inserts.add(entity);
+                holds.put(hold.reference(), entity);
+            } else if (!holds.containsKey(event.reference())) {
+                resolvedElsewhere.add(event.reference());
+            }
+        }
+        holdRepository.saveAll(inserts);
+        if (!resolvedElsewhere.isEmpty()) {
+            holdRepository.findByReferenceIn(resolvedElsewhere).forEach(hold -> holds.put(hold.getReference(), hold));
+        }
+
+        // Entités gérées : les changements de statut partent en mises à jour groupées au commit
+        for (Event event : batch) {
+            if (event.resolution() != null) {
+                CardHold hold = holds.get(event.reference());
+                if (hold == null) {
+                    log.error("Réservation carte {} introuvable, résolution {} ignorée", event.reference(),
+                            event.resolution().status());
+                    continue;
+                }
+                hold.setStatus(event.resolution().status()).setResolvedAt(event.resolution().resolvedAt());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.CardAuthorizationDTO;
+import com.youcode.ebanking.dto.CardAuthorizationRequestDTO;
+import com.youcode.ebanking.dto.CardDTO;
+import com.youcode.ebanking.dto.CardHoldDTO;
+import com.youcode.ebanking.dto.IssueCardDTO;
+import com.youcode.ebanking.dto.UpdateCardDTO;
+import com.youcode.ebanking.mapper.AccountMapper;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.Card;
+import com.youcode.ebanking.model.CardStatus;
+import com.youcode.ebanking.repository.CardRepository;
+import com.youcode.ebanking.repository.CardRepository.CardView;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class CardService {
+
+    private final CardRepository cardRepository;
+
+    private final AccountService accountService;
+
+    private final CardAuthorizationEngine authorizationEngine;
+
+    private final AccountMapper accountMapper;
+
+    public CardDTO issueCard(IssueCardDTO issueCardDTO) {
+        Account account = accountService.findByAccountNumber(issueCardDTO.accountNumber());
+        Card card = cardRepository.save(new Card()
+                .setAccount(account)
+                .setStatus(CardStatus.ACTIVE)
+                .setDailyLimit(AccountMapper.toMinorUnits(issueCardDTO.dailyLimit()))
+                .setMonthlyLimit(AccountMapper.toMinorUnits(issueCardDTO.monthlyLimit()))
+                .setIssuedAt(Instant.now()));
+        log.info("Carte {} émise sur le compte {}", card.getId(), account.getAccountNumber());
+        return new CardDTO(card.getId(), account.getAccountNumber(), account.getCurrency(), card.getStatus(),
+                issueCardDTO.dailyLimit(), issueCardDTO.monthlyLimit(), card.getIssuedAt());
+    }
+
+    public CardDTO updateCard(long cardId, UpdateCardDTO updateCardDTO) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Carte introuvable : " + cardId));
+        card.setStatus(updateCardDTO.status())
+                .setDailyLimit(AccountMapper.toMinorUnits(updateCardDTO.dailyLimit()))
+                .setMonthlyLimit(AccountMapper.toMinorUnits(updateCardDTO.monthlyLimit()));
+
+        // Le moteur n'applique la modification qu'une fois validée en base
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                authorizationEngine.cardUpdated(cardId, card.getStatus(), card.getDailyLimit(), card.getMonthlyLimit());
+            }
+        });
+        return new CardDTO(card.getId(), card.getAccount().getAccountNumber(), card.getAccount().getCurrency(),
+                card.getStatus(), updateCardDTO.dailyLimit(), updateCardDTO.monthlyLimit(), card.getIssuedAt());
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<CardDTO> getMyCards(String username) {
+        return cardRepository.findByOwner(username).stream().map(this::toCardDTO).toList();
+    }
+
+    /**
+     * Decided in memory: no transaction, no database access once the card is loaded.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CardAuthorizationDTO authorize(long cardId, CardAuthorizationRequestDTO request) {
+        CardAuthorizationEngine.Authorization authorization = authorizationEngine.authorize(cardId,
+                AccountMapper.toMinorUnits(request.amount()), request.merchant());
+        return new CardAuthorizationDTO(authorization.reference(), cardId, authorization.approved(),
+                authorization.declineReason(), request.amount(), authorization.authorizedAt(),
+                authorization.expiresAt());
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CardHoldDTO capture(String reference) {
+        return toCardHoldDTO(authorizationEngine.capture(reference));
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CardHoldDTO release(String reference) {
+        return toCardHoldDTO(authorizationEngine.release(reference));
+    }
+
+    private CardDTO toCardDTO(CardView card) {
+        return new CardDTO(card.getId(), card.getAccountNumber(), card.getCurrency(), card.getStatus(),
+                accountMapper.toDecimal(card.getDailyLimit()), accountMapper.toDecimal(card.getMonthlyLimit()),
+                card.getIssuedAt());
+    }
+
+    private CardHoldDTO toCardHoldDTO(CardAuthorizationEngine.Resolution resolution) {
+        return new CardHoldDTO(resolution.hold().reference(), resolution.hold().cardId(),
+                accountMapper.toDecimal(resolution.hold().amount()), resolution.status(), resolution.resolvedAt());
+    }
+}
@@ -0,0 +1,117 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.BalanceVerificationDTO;
+import com.youcode.ebanking.mapper.AccountMapper;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.BalanceCheckpoint;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.BalanceCheckpointRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Periodically verifies each account's balance snapshot against its ledger and records a checkpoint.
+ * <p>
+ * Verification is incremental: only the entries written since the last checkpoint are summed.
+ * A rebuild recomputes the balance from the whole ledger under the account row lock.
+ */
+@Service
+@Slf4j
+public class LedgerCheckpointService {
+
+    private static final int ACCOUNT_BATCH_SIZE = 500;
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final AccountMapper accountMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean autoRebuild;
+
+    public LedgerCheckpointService(AccountRepository accountRepository,
+                                   LedgerEntryRepository ledgerEntryRepository,
+                                   BalanceCheckpointRepository checkpointRepository,
+                                   AccountMapper accountMapper,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${ebanking.ledger.checkpoint.auto-rebuild:false}") boolean autoRebuild) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountMapper = accountMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.autoRebuild = autoRebuild;
+    }
+
+    @Scheduled(fixedDelayString = "${ebanking.ledger.checkpoint.interval:PT1H}",
+            initialDelayString = "${ebanking.ledger.checkpoint.initial-delay:PT5M}")
+    public void checkpointAll() {
+        long afterId = 0;
+        int verified = 0;
+        int inconsistent = 0;
+
+        List<Long> ids;
+        while (!(ids = accountRepository.findIdsAfter(afterId, Limit.of(ACCOUNT_BATCH_SIZE))).isEmpty()) {
+            for (Long id : ids) {
+                BalanceVerificationDTO result = transactionTemplate.execute(status -> verify(id, autoRebuild));
+                verified++;
+                if (result != null && !result.consistent()) {
+                    inconsistent++;
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Points de contrôle des soldes : {} comptes vérifiés, {} incohérents", verified, inconsistent);
+    }
+
+    public BalanceVerificationDTO verify(String accountNumber, boolean rebuild) {
+        Long accountId = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new EntityNotFoundException("Compte introuvable : " + accountNumber))
+                .getId();
+        return transactionTemplate.execute(status -> verify(accountId, rebuild));
+    }
+
+    private BalanceVerificationDTO verify(Long accountId, boolean rebuild) {
+        Account account = (rebuild ? accountRepository.findByIdForUpdate(accountId) : accountRepository.findById(accountId))
+                .orElseThrow(() -> new EntityNotFoundException("Compte introuvable : " + accountId));
+        BalanceCheckpoint checkpoint = checkpointRepository.findFirstByAccountIdOrderByLedgerSequenceDesc(accountId)
+                .orElse(null);
+
+        long fromSequence = checkpoint == null ? 0 : checkpoint.getLedgerSequence();
+        long fromBalance = checkpoint == null ? 0 : checkpoint.getBalance();
+        long snapshotBalance = account.getBalance();
+        long ledgerBalance = fromBalance
+                + ledgerEntryRepository.sumAmounts(accountId, fromSequence, account.getLastSequence());
+        boolean consistent = ledgerBalance == snapshotBalance;
+        boolean rebuilt = false;
+
+        if (!consistent) {
+            log.error("Solde incohérent pour le compte {} : instantané {}, grand livre {} (séquence {})",
+                    account.getAccountNumber(), snapshotBalance, ledgerBalance, account.getLastSequence());
+            if (rebuild) {
+                ledgerBalance = ledgerEntryRepository.sumAmounts(accountId, 0, account.getLastSequence());
+                account.setBalance(ledgerBalance);
+                rebuilt = true;
+            }
+        }
+
+        if ((consistent && account.getLastSequence() > fromSequence) || rebuilt) {
+            checkpointRepository.save(new BalanceCheckpoint()
+                    .setAccountId(accountId)
+                    .setLedgerSequence(account.getLastSequence())
+                    .setBalance(account.getBalance())
+                    .setCreatedAt(Instant.now()));
+        }
+
+        return new BalanceVerificationDTO(account.getAccountNumber(), account.getLastSequence(),
+                accountMapper.toDecimal(snapshotBalance), accountMapper.toDecimal(ledgerBalance), consistent, rebuilt);
+    }
+}
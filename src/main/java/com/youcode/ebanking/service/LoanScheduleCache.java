@@ -0,0 +1,45 @@
+package com.youcode.ebanking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache of loan snapshots by loan id, bounded by the total number of cached installments (48 bytes each).
+ * A snapshot is only ever replaced by a newer version; the TTL bounds how long another node's prepayment can
+ * go unnoticed here.
+ */
+@Component
+public class LoanScheduleCache {
+
+    private final Cache<Long, LoanSnapshot> snapshots;
+
+    public LoanScheduleCache(@Value("${ebanking.loans.schedule-cache.max-installments:1000000}") long maxInstallments,
+                             @Value("${ebanking.loans.schedule-cache.ttl:10m}") Duration ttl) {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxInstallments)
+                .weigher((Long loanId, LoanSnapshot snapshot) -> snapshot.terms().termMonths())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the cached snapshot, loading it once per key under concurrent misses.
+     */
+    public LoanSnapshot get(long loanId, Function<Long, LoanSnapshot> loader) {
+        return snapshots.get(loanId, loader);
+    }
+
+    public void put(LoanSnapshot snapshot) {
+        snapshots.asMap().merge(snapshot.loanId(), snapshot,
+                (cached, candidate) -> candidate.version() >= cached.version() ? candidate : cached);
+    }
+
+    public void evict(long loanId) {
+        snapshots.invalidate(loanId);
+    }
+}
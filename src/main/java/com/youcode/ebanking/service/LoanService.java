@@ -0,0 +1,184 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.LoanScheduleDTO;
+import com.youcode.ebanking.dto.LoanSummaryDTO;
+import com.youcode.ebanking.dto.OpenLoanDTO;
+import com.youcode.ebanking.dto.PrepaymentDTO;
+import com.youcode.ebanking.mapper.AccountMapper;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.Loan;
+import com.youcode.ebanking.model.LoanPrepayment;
+import com.youcode.ebanking.repository.LoanPrepaymentRepository;
+import com.youcode.ebanking.repository.LoanPrepaymentRepository.PrepaymentView;
+import com.youcode.ebanking.repository.LoanRepository;
+import com.youcode.ebanking.repository.LoanRepository.LoanTermsView;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Loans and their amortization schedules. Schedules are derived data: computed by {@link AmortizationEngine},
+ * memoized per loan version in {@link LoanScheduleCache}, and recomputed from the prepaid installment on when
+ * a prepayment is recorded.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class LoanService {
+
+    private final LoanRepository loanRepository;
+
+    private final LoanPrepaymentRepository prepaymentRepository;
+
+    private final AccountService accountService;
+
+    private final LoanScheduleCache scheduleCache;
+
+    public LoanSummaryDTO openLoan(OpenLoanDTO openLoanDTO) {
+        Account account = accountService.findByAccountNumber(openLoanDTO.accountNumber());
+        AmortizationEngine.Terms terms = new AmortizationEngine.Terms(openLoanDTO.type(),
+                AccountMapper.toMinorUnits(openLoanDTO.principal()),
+                openLoanDTO.annualRate().movePointRight(2).intValueExact(),
+                openLoanDTO.termMonths());
+
+        Loan loan = loanRepository.save(new Loan()
+                .setBorrower(account.getOwner())
+                .setAccount(account)
+                .setType(terms.type())
+                .setPrincipal(terms.principal())
+                .setAnnualRateBps(terms.annualRateBps())
+                .setTermMonths(terms.termMonths())
+                .setFirstDueDate(openLoanDTO.firstDueDate())
+                .setCreatedAt(Instant.now()));
+
+        LoanSnapshot snapshot = new LoanSnapshot(loan.getId(), account.getOwner().getUsername(),
+                account.getAccountNumber(), account.getCurrency(), loan.getFirstDueDate(), terms,
+                AmortizationEngine.compute(terms, null, loan.getVersion()));
+        cacheAfterCommit(snapshot);
+        log.info("Prêt {} ouvert sur le compte {}", loan.getId(), account.getAccountNumber());
+        return summary(snapshot, today());
+    }
+
+    /**
+     * Served from the schedule cache; no transaction is opened on a hit.
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<LoanSummaryDTO> getMyLoans(String username) {
+        LocalDate today = today();
+        return loanRepository.findIdsByBorrower(username).stream()
+                .map(id -> summary(snapshot(id), today))
+                .toList();
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public LoanScheduleDTO getMySchedule(String username, long loanId) {
+        LoanSnapshot snapshot = snapshot(loanId);
+        if (!snapshot.borrowerUsername().equals(username)) {
+            throw new AccessDeniedException("Ce prêt n'appartient pas à l'utilisateur connecté");
+        }
+        return snapshot.toScheduleDTO();
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public LoanScheduleDTO getSchedule(long loanId) {
+        return snapshot(loanId).toScheduleDTO();
+    }
+
+    /**
+     * Records a prepayment and derives the new schedule from the cached one, recomputing only the installments
+     * from the prepaid one on. Prepayments are recorded in installment order.
+     */
+    public LoanScheduleDTO prepay(long loanId, PrepaymentDTO prepaymentDTO) {
+        Loan loan = loanRepository.findByIdForPrepayment(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Prêt introuvable : " + loanId));
+        LoanSnapshot current = snapshot(loanId);
+        if (current.version() != loan.getVersion()) {
+            current = load(loanId);
+        }
+
+        int installment = prepaymentDTO.afterInstallment() - 1;
+        if (prepaymentDTO.afterInstallment() < prepaymentRepository.findLastInstallment(loanId)) {
+            throw new IllegalArgumentException("Un remboursement anticipé ne peut précéder le dernier enregistré");
+        }
+        if (installment >= current.schedule().size()) {
+            throw new IllegalArgumentException("Échéance hors de l'échéancier : " + prepaymentDTO.afterInstallment());
+        }
+        long amount = AccountMapper.toMinorUnits(prepaymentDTO.amount());
+        long outstanding = current.schedule().balance(installment) + current.schedule().prepayment(installment);
+        if (amount > outstanding) {
+            throw new IllegalArgumentException("Le montant dépasse le capital restant dû");
+        }
+
+        prepaymentRepository.save(new LoanPrepayment()
+                .setLoan(loan)
+                .setAfterInstallment(prepaymentDTO.afterInstallment())
+                .setAmount(amount)
+                .setCreatedAt(Instant.now()));
+
+        // OPTIMISTIC_FORCE_INCREMENT : la version du prêt passe à version + 1 au commit
+        LoanSnapshot next = current.withSchedule(AmortizationEngine.withPrepayment(
+                current.terms(), current.schedule(), installment, amount, loan.getVersion() + 1));
+        cacheAfterCommit(next);
+        return next.toScheduleDTO();
+    }
+
+    private LoanSnapshot snapshot(long loanId) {
+        return scheduleCache.get(loanId, this::load);
+    }
+
+    private LoanSnapshot load(long loanId) {
+        LoanTermsView loan = loanRepository.findTermsById(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Prêt introuvable : " + loanId));
+        AmortizationEngine.Terms terms = new AmortizationEngine.Terms(loan.getType(), loan.getPrincipal(),
+                loan.getAnnualRateBps(), loan.getTermMonths());
+
+        long[] prepayments = new long[loan.getTermMonths()];
+        for (PrepaymentView prepayment : prepaymentRepository.findByLoanId(loanId)) {
+            prepayments[prepayment.getAfterInstallment() - 1] += prepayment.getAmount();
+        }
+        return new LoanSnapshot(loanId, loan.getBorrowerUsername(), loan.getAccountNumber(), loan.getCurrency(),
+                loan.getFirstDueDate(), terms, AmortizationEngine.compute(terms, prepayments, loan.getVersion()));
+    }
+
+    private void cacheAfterCommit(LoanSnapshot snapshot) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleCache.evict(snapshot.loanId());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleCache.put(snapshot);
+                }
+            });
+        } else {
+            scheduleCache.put(snapshot);
+        }
+    }
+
+    private static LoanSummaryDTO summary(LoanSnapshot snapshot, LocalDate today) {
+        AmortizationSchedule schedule = snapshot.schedule();
+        int due = snapshot.installmentsDue(today);
+        long outstanding = due == 0 ? snapshot.terms().principal() : schedule.balance(due - 1);
+        boolean finished = due >= schedule.size();
+        return new LoanSummaryDTO(snapshot.loanId(), snapshot.terms().type(), snapshot.accountNumber(),
+                snapshot.currency(), LoanSnapshot.decimal(snapshot.terms().principal()),
+                LoanSnapshot.annualRate(snapshot.terms().annualRateBps()), snapshot.terms().termMonths(),
+                LoanSnapshot.decimal(outstanding), schedule.size() - due,
+                finished ? null : snapshot.firstDueDate().plusMonths(due),
+                finished ? null : LoanSnapshot.decimal(schedule.payment(due)));
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,59 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.InstallmentDTO;
+import com.youcode.ebanking.dto.LoanScheduleDTO;
+import com.youcode.ebanking.mapper.AccountMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cached state of one loan version: its terms and computed schedule, so that a schedule read never queries
+ * the database. The DTO is rendered on read: keeping it would cost ~50 times the packed schedule.
+ */
+public record LoanSnapshot(long loanId, String borrowerUsername, String accountNumber, String currency,
+                           LocalDate firstDueDate, AmortizationEngine.Terms terms, AmortizationSchedule schedule) {
+
+    public LoanScheduleDTO toScheduleDTO() {
+        List<InstallmentDTO> installments = new ArrayList<>(schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            installments.add(new InstallmentDTO(i + 1, firstDueDate.plusMonths(i),
+                    decimal(schedule.payment(i)), decimal(schedule.interest(i)), decimal(schedule.principal(i)),
+                    decimal(schedule.prepayment(i)), decimal(schedule.balance(i))));
+        }
+        return new LoanScheduleDTO(loanId, schedule.version(), terms.type(), accountNumber, currency,
+                decimal(terms.principal()), annualRate(terms.annualRateBps()), terms.termMonths(),
+                decimal(schedule.totalInterest()), Collections.unmodifiableList(installments));
+    }
+
+    public LoanSnapshot withSchedule(AmortizationSchedule next) {
+        return new LoanSnapshot(loanId, borrowerUsername, accountNumber, currency, firstDueDate, terms, next);
+    }
+
+    public long version() {
+        return schedule.version();
+    }
+
+    /**
+     * Number of installments whose due date is on or before {@code day}.
+     */
+    public int installmentsDue(LocalDate day) {
+        if (day.isBefore(firstDueDate)) {
+            return 0;
+        }
+        long months = ChronoUnit.MONTHS.between(firstDueDate, day) + 1;
+        return (int) Math.min(months, schedule.size());
+    }
+
+    static BigDecimal annualRate(int annualRateBps) {
+        return BigDecimal.valueOf(annualRateBps, 2);
+    }
+
+    static BigDecimal decimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, AccountMapper.MINOR_UNIT_SCALE);
+    }
+}
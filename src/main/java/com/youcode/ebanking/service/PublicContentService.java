@@ -0,0 +1,197 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.model.PublicContent;
+import com.youcode.ebanking.repository.PublicContentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Public texts held as an immutable snapshot, each rendered once into its UTF-8 and gzip bodies, each body with
+ * its own strong ETag. An update builds a new snapshot and swaps the reference: readers never lock and never see a half-built one.
+ * Other nodes pick the change up at the next {@code refresh-interval}.
+ */
+@Service
+@Slf4j
+public class PublicContentService {
+
+    public static final int MAX_BODY_LENGTH = 64 * 1024;
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            PublicContent.NOTICES, "Here are the system notices.",
+            PublicContent.CONTACT, "Contact support at support@ebanking.com or call +123456789.");
+
+    /**
+     * One text, ready to be written as is.
+     */
+    public static final class Rendered {
+        private final byte[] body;
+        // null quand la compression n'apporte rien (textes courts)
+        private final byte[] gzipped;
+        private final String etag;
+        private final String gzipEtag;
+        private final long version;
+
+        private Rendered(String text, long version) {
+            this.body = text.getBytes(StandardCharsets.UTF_8);
+            byte[] compressed = gzip(body);
+            this.gzipped = compressed.length < body.length ? compressed : null;
+            String digest = digest(body);
+            this.etag = "\"" + digest + "\"";
+            // Deux représentations différentes ne partagent pas une ETag forte (RFC 9110, 8.8.3)
+            this.gzipEtag = "\"" + digest + "-gzip\"";
+            this.version = version;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public String etag(boolean gzip) {
+            return gzip ? gzipEtag : etag;
+        }
+
+        public boolean hasGzip() {
+            return gzipped != null;
+        }
+
+        public int contentLength(boolean gzip) {
+            return gzip ? gzipped.length : body.length;
+        }
+
+        public void writeTo(OutputStream out, boolean gzip) throws IOException {
+            out.write(gzip ? gzipped : body);
+        }
+    }
+
+    private final PublicContentRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Map<String, Rendered> snapshot = Map.of();
+
+    public PublicContentService(PublicContentRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, PublicContent> existing = new HashMap<>();
+                repository.findAll().forEach(content -> existing.put(content.getName(), content));
+                DEFAULTS.forEach((name, text) -> {
+                    if (!existing.containsKey(name)) {
+                        repository.save(new PublicContent().setName(name).setBody(text).setUpdatedAt(Instant.now()));
+                    }
+                });
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Un autre nœud a inséré les textes par défaut au même moment
+            log.info("Textes publics déjà initialisés par un autre nœud");
+        }
+        refresh();
+    }
+
+    /**
+     * @param name {@link PublicContent#NOTICES} or {@link PublicContent#CONTACT}
+     * @return {@code null} if there is no such text
+     */
+    public Rendered find(String name) {
+        return snapshot.get(name);
+    }
+
+    /**
+     * Replaces a text; this node serves it as soon as the transaction commits.
+     */
+    public Rendered update(String name, String text) {
+        if (!DEFAULTS.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown public content: " + name);
+        }
+        if (text == null || text.isBlank() || text.length() > MAX_BODY_LENGTH) {
+            throw new IllegalArgumentException("Content must be between 1 and " + MAX_BODY_LENGTH + " characters");
+        }
+        PublicContent saved = transactionTemplate.execute(status -> {
+            PublicContent content = repository.findById(name)
+                    .orElseGet(() -> new PublicContent().setName(name));
+            content.setBody(text).setUpdatedAt(Instant.now());
+            PublicContent flushed = repository.saveAndFlush(content);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(List.of(flushed));
+                }
+            });
+            return flushed;
+        });
+        log.info("Texte public {} mis à jour (version {})", name, saved.getVersion());
+        return snapshot.get(name);
+    }
+
+    /**
+     * Re-reads the texts and swaps the snapshot if any version changed (updates made on another node).
+     */
+    @Scheduled(initialDelayString = "${ebanking.public.refresh-interval:PT30S}",
+            fixedDelayString = "${ebanking.public.refresh-interval:PT30S}")
+    public void refresh() {
+        List<PublicContent> contents = transactionTemplate.execute(status -> repository.findAll());
+        publish(Objects.requireNonNull(contents));
+    }
+
+    private synchronized void publish(List<PublicContent> contents) {
+        Map<String, Rendered> current = snapshot;
+        Map<String, Rendered> next = new LinkedHashMap<>(current);
+        boolean changed = false;
+        for (PublicContent content : contents) {
+            Rendered rendered = current.get(content.getName());
+            // Une version plus ancienne (relecture concurrente d'une mise à jour) ne remplace jamais la courante
+            if (rendered == null || rendered.version < content.getVersion()) {
+                next.put(content.getName(), new Rendered(content.getBody(), content.getVersion()));
+                changed = true;
+            }
+        }
+        if (changed) {
+            snapshot = Map.copyOf(next);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
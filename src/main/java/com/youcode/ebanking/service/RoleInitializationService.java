@@ -1,28 +0,0 @@
-package com.youcode.ebanking.service;
-
-import com.youcode.ebanking.model.Role;
-import com.youcode.ebanking.repository.RoleRepository;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-
-@Service
-@RequiredArgsConstructor
-public class RoleInitializationService {
-
-    private final RoleRepository roleRepository;
-
-    @PostConstruct
-    public void initializeRoles() {
-        if (roleRepository.findByName("ROLE_USER").isEmpty()) {
-            Role userRole = new Role("ROLE_USER");
-            roleRepository.save(userRole);
-        }
-
-        if (roleRepository.findByName("ROLE_ADMIN").isEmpty()) {
-            Role adminRole = new Role("ROLE_ADMIN");
-            roleRepository.save(adminRole);
-        }
-    }
-}
\ No newline at end of file
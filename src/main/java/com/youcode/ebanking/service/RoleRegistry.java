@@ -0,0 +1,68 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.RoleEmbeddableDto;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the {@code roles} table, resolving role names without a query.
+ * <p>
+ * Loaded on first use rather than at startup (the default roles are created by the {@code V2} migration);
+ * {@link #refresh()} swaps in a new snapshot.
+ * The {@link Role} instances are detached and only meant to be used as association targets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    public static final String ROLE_USER = "ROLE_USER";
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, Role> roles = Map.of();
+
+    public Role resolve(String name) {
+        return find(name).orElseThrow(() -> new RuntimeException("Role not found: " + name));
+    }
+
+    public Optional<Role> find(String name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            // Registre pas encore chargé ou rôle ajouté hors application : une seule relecture
+            role = refresh().get(name);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public List<RoleEmbeddableDto> roles() {
+        Map<String, Role> roles = this.roles;
+        if (roles.isEmpty()) {
+            roles = refresh();
+        }
+        return roles.keySet().stream().sorted().map(RoleEmbeddableDto::new).toList();
+    }
+
+    public Map<String, Role> refresh() {
+        return replace(roleRepository.findAll());
+    }
+
+    private Map<String, Role> replace(Collection<Role> loaded) {
+        Map<String, Role> snapshot = loaded.stream()
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+        roles = snapshot;
+        log.info("Registre des rôles chargé : {}", snapshot.keySet());
+        return snapshot;
+    }
+}
@@ -0,0 +1,332 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.exception.InsufficientFundsException;
+import com.youcode.ebanking.exception.TransferInDoubtException;
+import com.youcode.ebanking.exception.TransferUnavailableException;
+import com.youcode.ebanking.journal.LedgerJournal;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.LedgerEntry;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process transfer engine.
+ * <p>
+ * The calling thread takes the {@link AccountLocks} stripes of both accounts, then queues the transfer and
+ * waits for its commit. A single
+ * committer thread drains the queue and commits whatever has accumulated as one transaction: one
+ * {@code findAllById}, one batched insert of ledger entries and batched versioned account updates.
+ * <p>
+ * The locks only serialise this node. If another node touched an account of the batch, the {@code @Version}
+ * check fails the batch, which is then replayed transfer by transfer so a single conflict does not fail
+ * unrelated transfers.
+ * <p>
+ * Balance checks include the postings still waiting in the {@link LedgerJournal}, and the debit may not consume
+ * funds held by card authorizations ({@link AccountHolds}). A transfer reported in doubt releases the locks with
+ * its batch still running: its debit stays recorded in {@link AccountHolds#inDoubt} until the batch settles.
+ */
+@Service
+@Slf4j
+public class TransferEngine {
+
+    public record TransferCommand(long fromAccountId, long toAccountId, long amount, String description) {
+    }
+
+    public record TransferResult(String reference, long fromBalanceAfter, long toBalanceAfter, Instant executedAt) {
+    }
+
+    // Référence attribuée à la soumission : annoncée au client même si l'issue n'est pas connue à temps
+    private record PendingTransfer(String reference, TransferCommand command, CompletableFuture<TransferResult> result) {
+    }
+
+    private record Outcome(TransferResult result, RuntimeException error) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLocks accountLocks;
+    private final LedgerJournal ledgerJournal;
+    private final AccountHolds accountHolds;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final long commitTimeoutNanos;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public TransferEngine(AccountRepository accountRepository,
+                          LedgerEntryRepository ledgerEntryRepository,
+                          TransactionTemplate transactionTemplate,
+                          AccountLocks accountLocks,
+                          LedgerJournal ledgerJournal,
+                          AccountHolds accountHolds,
+                          @Value("${ebanking.transfers.queue-capacity:10000}") int queueCapacity,
+                          @Value("${ebanking.transfers.max-batch-size:256}") int maxBatchSize,
+                          @Value("${ebanking.transfers.linger:0ms}") Duration linger,
+                          @Value("${ebanking.transfers.commit-timeout:10s}") Duration commitTimeout) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.accountLocks = accountLocks;
+        this.ledgerJournal = ledgerJournal;
+        this.accountHolds = accountHolds;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.commitTimeoutNanos = commitTimeout.toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        committer = new Thread(this::runCommitter, "transfer-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.NANOSECONDS.toMillis(commitTimeoutNanos));
+    }
+
+    public TransferResult transfer(TransferCommand command) {
+        if (command.fromAccountId() == command.toAccountId()) {
+            throw new IllegalArgumentException("Les comptes source et destination doivent être différents");
+        }
+        try (AccountLocks.Held ignored = accountLocks.lock(command.fromAccountId(), command.toAccountId())) {
+            if (!accountHolds.tryDebit(command.fromAccountId(), command.amount())) {
+                throw new InsufficientFundsException("Solde disponible insuffisant : fonds réservés par des paiements carte");
+            }
+            TransferResult result;
+            try {
+                result = submitAndAwait(command);
+            } catch (TransferInDoubtException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                settleHolds(command, false);
+                throw e;
+            }
+            settleHolds(command, true);
+            return result;
+        }
+    }
+
+    private TransferResult submitAndAwait(TransferCommand command) {
+        if (!running) {
+            throw new TransferUnavailableException("Moteur de virements arrêté");
+        }
+        PendingTransfer pending = new PendingTransfer(UUID.randomUUID().toString(), command, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new TransferUnavailableException("File des virements saturée, veuillez réessayer");
+        }
+
+        try {
+            return pending.result().get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new TransferUnavailableException("Délai dépassé, virement non exécuté", e);
+            }
+            // Déjà pris par un lot : son issue est attendue une seconde fois au plus, puis annoncée incertaine
+            return awaitTaken(pending, commitTimeoutNanos);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queue.remove(pending)) {
+                throw new TransferUnavailableException("Opération interrompue, virement non exécuté", e);
+            }
+            return awaitTaken(pending, 0);
+        }
+    }
+
+    private TransferResult awaitTaken(PendingTransfer pending, long timeoutNanos) {
+        try {
+            return pending.result().get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Virement {} sans issue après le délai de validation, annoncé en cours", pending.reference());
+            // Verrous encore détenus : le débit reste compté jusqu'à l'issue du lot, qui solde aussi les
+            // réservations carte sous les verrous des comptes
+            TransferCommand command = pending.command();
+            accountHolds.debitInDoubt(command.fromAccountId(), command.amount());
+            pending.result().whenCompleteAsync((result, error) -> {
+                try (AccountLocks.Held ignored = accountLocks.lock(command.fromAccountId(), command.toAccountId())) {
+                    settleHolds(command, error == null);
+                } catch (RuntimeException lockFailure) {
+                    log.error("Réservations non soldées pour le virement {}", pending.reference(), lockFailure);
+                } finally {
+                    accountHolds.debitSettled(command.fromAccountId(), command.amount());
+                }
+            });
+            throw new TransferInDoubtException(pending.reference());
+        }
+    }
+
+    // Sous les verrous des deux comptes
+    private void settleHolds(TransferCommand command, boolean committed) {
+        if (committed) {
+            accountHolds.debited(command.fromAccountId(), command.amount());
+            accountHolds.credited(command.toAccountId(), command.amount());
+        } else {
+            accountHolds.cancelDebit(command.fromAccountId(), command.amount());
+        }
+    }
+
+    private void runCommitter() {
+        List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransfer head = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (head == null) {
+                    continue;
+                }
+                batch.add(head);
+                fillBatch(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Erreur inattendue du moteur de virements", e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<PendingTransfer> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commit(List<PendingTransfer> batch) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> apply(batch));
+        } catch (RuntimeException batchFailure) {
+            log.warn("Échec du lot de {} virements, rejeu unitaire : {}", batch.size(), batchFailure.getMessage());
+            for (PendingTransfer pending : batch) {
+                commitAlone(pending);
+            }
+            return;
+        }
+        complete(batch, outcomes);
+    }
+
+    private void commitAlone(PendingTransfer pending) {
+        try {
+            complete(List.of(pending), transactionTemplate.execute(status -> apply(List.of(pending))));
+        } catch (OptimisticLockingFailureException e) {
+            pending.result().completeExceptionally(
+                    new TransferUnavailableException("Compte modifié simultanément, veuillez réessayer", e));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private static void complete(List<PendingTransfer> batch, List<Outcome> outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.error() != null) {
+                batch.get(i).result().completeExceptionally(outcome.error());
+            } else {
+                batch.get(i).result().complete(outcome.result());
+            }
+        }
+    }
+
+    /**
+     * Applies the batch in order on managed accounts. Business rejections (unknown account, insufficient
+     * funds) only skip their own transfer; the dirty accounts are flushed with their version at commit.
+     */
+    private List<Outcome> apply(List<PendingTransfer> batch) {
+        Set<Long> ids = new HashSet<>();
+        batch.forEach(p -> {
+            ids.add(p.command().fromAccountId());
+            ids.add(p.command().toAccountId());
+        });
+        Map<Long, Account> accounts = accountRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        Instant now = Instant.now();
+        List<LedgerEntry> entries = new ArrayList<>(batch.size() * 2);
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (PendingTransfer pending : batch) {
+            TransferCommand command = pending.command();
+            Account from = accounts.get(command.fromAccountId());
+            Account to = accounts.get(command.toAccountId());
+            if (from == null || to == null) {
+                outcomes.add(new Outcome(null, new EntityNotFoundException("Compte introuvable")));
+                continue;
+            }
+            long fromPending = ledgerJournal.pendingDelta(from.getId());
+            if (from.getBalance() + fromPending < command.amount()) {
+                outcomes.add(new Outcome(null, new InsufficientFundsException(
+                        "Solde insuffisant sur le compte " + from.getAccountNumber())));
+                continue;
+            }
+
+            String reference = pending.reference();
+            entries.add(from.post(EntryType.DEBIT, -command.amount(), command.description(), reference, now));
+            entries.add(to.post(EntryType.CREDIT, command.amount(), command.description(), reference, now));
+            outcomes.add(new Outcome(new TransferResult(reference, from.getBalance() + fromPending,
+                    to.getBalance() + ledgerJournal.pendingDelta(to.getId()), now), null));
+        }
+
+        ledgerEntryRepository.saveAll(entries);
+        return outcomes;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause);
+    }
+}
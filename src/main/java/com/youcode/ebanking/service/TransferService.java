@@ -0,0 +1,55 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.TransferRequestDTO;
+import com.youcode.ebanking.dto.TransferResultDTO;
+import com.youcode.ebanking.mapper.AccountMapper;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.AccountRepository.AccountRefView;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class TransferService {
+
+    private final AccountRepository accountRepository;
+
+    private final TransferEngine transferEngine;
+
+    private final AccountMapper accountMapper;
+
+    public TransferResultDTO transfer(String username, TransferRequestDTO transferRequest) {
+        Map<String, AccountRefView> refs = accountRepository.findRefsByAccountNumberIn(
+                        List.of(transferRequest.fromAccountNumber(), transferRequest.toAccountNumber()))
+                .stream()
+                .collect(Collectors.toMap(AccountRefView::getAccountNumber, Function.identity()));
+
+        AccountRefView from = refs.get(transferRequest.fromAccountNumber());
+        AccountRefView to = refs.get(transferRequest.toAccountNumber());
+        if (from == null || to == null) {
+            throw new EntityNotFoundException("Compte introuvable");
+        }
+        if (!from.getOwnerUsername().equals(username)) {
+            throw new AccessDeniedException("Le compte source n'appartient pas à l'utilisateur connecté");
+        }
+        if (!from.getCurrency().equals(to.getCurrency())) {
+            throw new IllegalArgumentException("Les comptes doivent être dans la même devise");
+        }
+
+        long amount = AccountMapper.toMinorUnits(transferRequest.amount());
+        String description = transferRequest.description() == null ? "Virement" : transferRequest.description();
+        TransferEngine.TransferResult result = transferEngine.transfer(
+                new TransferEngine.TransferCommand(from.getId(), to.getId(), amount, description));
+
+        return new TransferResultDTO(result.reference(), from.getAccountNumber(), to.getAccountNumber(),
+                accountMapper.toDecimal(amount), from.getCurrency(), accountMapper.toDecimal(result.fromBalanceAfter()),
+                result.executedAt());
+    }
+}
@@ -0,0 +1,219 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.BulkImportReportDTO;
+import com.youcode.ebanking.dto.BulkImportRowResultDTO;
+import com.youcode.ebanking.dto.BulkImportStatus;
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.security.CustomUserDetailsService;
+import com.youcode.ebanking.security.PasswordHashingService;
+import com.youcode.ebanking.security.TokenEpochRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registers users in bulk, chunk by chunk: one duplicate query per chunk, passwords hashed in
+ * parallel by {@link PasswordHashingService} (same pool, queue and meters as logins), and one JDBC-batched insert transaction per chunk (users and their accounts).
+ * <p>
+ * Imported users get {@code ROLE_USER}. A failing chunk is retried row by row, one transaction per user, so a
+ * single conflict (a name created meanwhile, or by another node and not yet known to the {@link UsernameBloomFilter})
+ * only rejects its own row; the chunks already committed are never rolled back.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final UsernameBloomFilter usernameFilter;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository,
+                             AccountRepository accountRepository,
+                             AccountService accountService,
+                             RoleRegistry roleRegistry,
+                             PasswordHashingService passwordHashingService,
+                             Validator validator,
+                             TransactionTemplate transactionTemplate,
+                             CustomUserDetailsService userDetailsService,
+                             TokenEpochRegistry tokenEpochRegistry,
+                             UsernameBloomFilter usernameFilter,
+                             @Value("${ebanking.users.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.userDetailsService = userDetailsService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.usernameFilter = usernameFilter;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportReportDTO importUsers(Iterator<UserRegistrationDTO> rows) {
+        List<BulkImportRowResultDTO> results = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<UserRegistrationDTO> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        int firstRowOfChunk = 1;
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            rowNumber++;
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, firstRowOfChunk, seen, results);
+                chunk.clear();
+                firstRowOfChunk = rowNumber + 1;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, firstRowOfChunk, seen, results);
+        }
+
+        results.sort(Comparator.comparingInt(BulkImportRowResultDTO::row));
+        int created = (int) results.stream().filter(r -> r.status() == BulkImportStatus.CREATED).count();
+        log.info("Import en masse terminé : {} lignes, {} utilisateurs créés", rowNumber, created);
+        return new BulkImportReportDTO(rowNumber, created, rowNumber - created, results);
+    }
+
+    private void importChunk(List<UserRegistrationDTO> chunk, int firstRow, Set<String> seen,
+                             List<BulkImportRowResultDTO> results) {
+        List<Integer> candidateRows = new ArrayList<>();
+        List<UserRegistrationDTO> candidates = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            UserRegistrationDTO dto = chunk.get(i);
+            int row = firstRow + i;
+            Set<ConstraintViolation<UserRegistrationDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining(", "));
+                results.add(new BulkImportRowResultDTO(row, dto.username(), BulkImportStatus.INVALID, message));
+            } else if (!seen.add(dto.username())) {
+                results.add(new BulkImportRowResultDTO(row, dto.username(), BulkImportStatus.DUPLICATE,
+                        "Username appears more than once in this import"));
+            } else {
+                candidateRows.add(row);
+                candidates.add(dto);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Seuls les noms que le filtre ne peut pas écarter sont vérifiés en base
+        List<String> maybeExisting = candidates.stream().map(UserRegistrationDTO::username)
+                .filter(usernameFilter::mightContain)
+                .toList();
+        Set<String> existing = maybeExisting.isEmpty() ? Set.of() : userRepository.findExistingUsernames(maybeExisting);
+
+        Role role = roleRegistry.resolve(RoleRegistry.ROLE_USER);
+        List<Integer> toInsertRows = new ArrayList<>();
+        List<UserRegistrationDTO> toInsert = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            UserRegistrationDTO dto = candidates.get(i);
+            if (existing.contains(dto.username())) {
+                results.add(new BulkImportRowResultDTO(candidateRows.get(i), dto.username(), BulkImportStatus.DUPLICATE,
+                        "Username already exists: " + dto.username()));
+                continue;
+            }
+            toInsertRows.add(candidateRows.get(i));
+            toInsert.add(dto);
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(toInsert.stream().map(UserRegistrationDTO::password).toList());
+        List<EbUser> users = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            UserRegistrationDTO dto = toInsert.get(i);
+            users.add(new EbUser()
+                    .setUsername(dto.username())
+                    .setEmail(dto.email())
+                    .setPassword(hashes.get(i))
+                    .setRole(role)
+                    .setEnabled(true)
+                    .setTokenEpoch(tokenEpochRegistry.current(dto.username())));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                accountRepository.saveAll(users.stream().map(user -> accountService.newAccount(user, null)).toList());
+                userRepository.flush();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Échec de l'insertion d'un lot de {} utilisateurs à partir de la ligne {}, insertion unitaire : {}",
+                    users.size(), firstRow, e.getMessage());
+            for (int i = 0; i < users.size(); i++) {
+                results.add(insertAlone(toInsertRows.get(i), users.get(i)));
+            }
+            return;
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            results.add(created(toInsertRows.get(i), users.get(i)));
+        }
+    }
+
+    // Entité neuve : celle du lot a reçu un identifiant dans la transaction annulée
+    private BulkImportRowResultDTO insertAlone(int row, EbUser prepared) {
+        EbUser user = new EbUser()
+                .setUsername(prepared.getUsername())
+                .setEmail(prepared.getEmail())
+                .setPassword(prepared.getPassword())
+                .setRole(prepared.getRole())
+                .setEnabled(prepared.isEnabled())
+                .setTokenEpoch(prepared.getTokenEpoch());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.save(user);
+                accountRepository.save(accountService.newAccount(user, null));
+                userRepository.flush();
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!userRepository.findExistingUsernames(List.of(user.getUsername())).isEmpty()) {
+                usernameFilter.add(user.getUsername());
+                return new BulkImportRowResultDTO(row, user.getUsername(), BulkImportStatus.DUPLICATE,
+                        "Username already exists: " + user.getUsername());
+            }
+            log.error("Échec de l'insertion de l'utilisateur {} (ligne {})", user.getUsername(), row, e);
+            return new BulkImportRowResultDTO(row, user.getUsername(), BulkImportStatus.FAILED, "Insert failed");
+        } catch (RuntimeException e) {
+            log.error("Échec de l'insertion de l'utilisateur {} (ligne {})", user.getUsername(), row, e);
+            return new BulkImportRowResultDTO(row, user.getUsername(), BulkImportStatus.FAILED, "Insert failed");
+        }
+        return created(row, user);
+    }
+
+    private BulkImportRowResultDTO created(int row, EbUser user) {
+        userDetailsService.evict(user.getUsername());
+        usernameFilter.add(user.getUsername());
+        return new BulkImportRowResultDTO(row, user.getUsername(), BulkImportStatus.CREATED, null);
+    }
+}
@@ -1,30 +1,47 @@
 package com.youcode.ebanking.service;
 
+import com.youcode.ebanking.audit.AuditLog;
 import com.youcode.ebanking.dto.*;
+import com.youcode.ebanking.exception.InvalidCredentialsException;
+import com.youcode.ebanking.exception.PreconditionFailedException;
 import com.youcode.ebanking.exception.UsernameAlreadyExistsException;
 import com.youcode.ebanking.mapper.UserMapper;
 import com.youcode.ebanking.model.EbUser;
 import com.youcode.ebanking.model.Role;
-import com.youcode.ebanking.repository.RoleRepository;
 import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.repository.UserRepository.UserPageRowView;
+import com.youcode.ebanking.repository.UserRepository.UserSummaryView;
+import com.youcode.ebanking.security.AccessTokenService;
+import com.youcode.ebanking.security.CustomUserDetailsService;
+import com.youcode.ebanking.security.PasswordHashingService;
+import com.youcode.ebanking.security.TokenEpochRegistry;
+import com.youcode.ebanking.security.VerifiedCredentialCache;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -33,41 +50,86 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * A user with the strong ETag of the version it was read or written at.
+     */
+    public record VersionedUser(UserResponseDTO user, String etag) {
+    }
+
+    /**
+     * A page of users with the ETag computed from the very rows it holds.
+     */
+    public record VersionedPage(UserPageDTO page, String etag) {
+    }
+
     private final UserRepository userRepository;
 
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private final AuthenticationManager authenticationManager;
 
     private final UserMapper userMapper;
 
+    private final AccountService accountService;
+
+    private final VerifiedCredentialCache credentialCache;
+
+    private final CustomUserDetailsService userDetailsService;
+
+    private final AccessTokenService tokenService;
+
+    private final TokenEpochRegistry tokenEpochRegistry;
+
+    private final AuditLog auditLog;
+
+    private final UsernameBloomFilter usernameFilter;
+
+    /**
+     * Relies on the unique constraint: a single insert, and the loser of a concurrent registration gets a 409.
+     * The filter only spares the password hash for a name already taken; a new name costs no extra round trip.
+     */
     public UserResponseDTO registerNewUser(UserRegistrationDTO registrationDTO) {
-        if (userRepository.existsEbUserByUsername(registrationDTO.username())) {
-            throw new UsernameAlreadyExistsException("Username already exists: " + registrationDTO.username());
+        String username = registrationDTO.username();
+        if (usernameFilter.mightContain(username) && userRepository.existsEbUserByUsername(username)) {
+            throw new UsernameAlreadyExistsException("Username already exists: " + username);
         }
 
-        Role userRole = roleRepository.findByName("ROLE_ADMIN")
+        Role userRole = roleRegistry.find(RoleRegistry.ROLE_ADMIN)
                 .orElseThrow(() -> new RuntimeException("Default role not found"));
 
         EbUser newUser = new EbUser();
-        newUser.setUsername(registrationDTO.username()).
-                setEmail(registrationDTO.email()).setPassword(passwordEncoder.encode(registrationDTO.password()))
-                .setRole(userRole).setEnabled(true);
-        EbUser savedUser = userRepository.save(newUser);
-
+        newUser.setUsername(username).
+                setEmail(registrationDTO.email()).setPassword(passwordHashingService.encode(registrationDTO.password()))
+                .setRole(userRole).setEnabled(true)
+                .setTokenEpoch(tokenEpochRegistry.current(username));
+        EbUser savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            // Seule contrainte d'unicité de la table users : le nom vient d'être pris par une inscription concurrente
+            throw new UsernameAlreadyExistsException("Username already exists: " + username, e);
+        }
+        accountService.openAccount(savedUser);
+        evictAuthState(savedUser.getUsername());
+        afterCommit(() -> usernameFilter.add(username));
 
         return userMapper.userToUserResponseDTO(savedUser);
     }
 
-    public String login(LoginRequestDto loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.username(),
-                        loginRequest.password()
-                )
+    /**
+     * @param remoteAddress client address, used to throttle failed logins per source
+     */
+    public TokenResponseDTO login(LoginRequestDto loginRequest, String remoteAddress) {
+        UsernamePasswordAuthenticationToken credentials = new UsernamePasswordAuthenticationToken(
+                loginRequest.username(),
+                loginRequest.password()
         );
+        credentials.setDetails(new WebAuthenticationDetails(remoteAddress, null));
+        Authentication authentication = authenticationManager.authenticate(credentials);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -75,8 +137,23 @@ public class UserService {
         EbUser user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé"));
 
-        RoleEmbeddableDto roleDto = toRoleEmbeddableDto(user.getRole());
-        return "Connexion réussie pour l'utilisateur : " + loginRequest.username();
+        log.info("Connexion réussie pour l'utilisateur : {}", loginRequest.username());
+        auditLog.loginSucceeded(user.getUsername(), remoteAddress);
+        return tokenService.issue(user.getUsername(), toRoleEmbeddableDto(user.getRole()), user.getTokenEpoch());
+    }
+
+    public TokenResponseDTO refreshToken(RefreshTokenRequestDTO refreshRequest) {
+        String username = tokenService.verify(refreshRequest.refreshToken(), AccessTokenService.REFRESH)
+                .orElseThrow(() -> new InvalidCredentialsException("Jeton de rafraîchissement invalide ou expiré"))
+                .sub();
+
+        EbUser user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new InvalidCredentialsException("Jeton de rafraîchissement invalide ou expiré"));
+        if (!user.isEnabled()) {
+            throw new DisabledException("Compte utilisateur désactivé");
+        }
+
+        return tokenService.issue(user.getUsername(), toRoleEmbeddableDto(user.getRole()), user.getTokenEpoch());
     }
 
     public RoleEmbeddableDto toRoleEmbeddableDto(Role role) {
@@ -89,18 +166,27 @@ public class UserService {
     }
 
 
-    public UserResponseDTO changeUserRole(String username, String newRoleName) {
-        Role newRole = roleRepository.findByName(newRoleName)
-                .orElseThrow(() -> new RuntimeException("Role not found: " + newRoleName));
+    /**
+     * @param ifMatch {@code If-Match} header, or {@code null} for an unconditional update
+     */
+    public VersionedUser changeUserRole(String username, String newRoleName, String ifMatch) {
+        Role newRole = roleRegistry.resolve(newRoleName);
 
         EbUser user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        checkIfMatch(user, ifMatch);
 
+        String previousRole = user.getRole() != null ? user.getRole().getName() : null;
         user.setRole(newRole);
+        revokeTokens(user);
 
-        EbUser updatedUser = userRepository.save(user);
+        // Écriture immédiate : la nouvelle version est connue pour l'ETag, et un conflit devient un 412
+        EbUser updatedUser = flushChecked(() -> userRepository.saveAndFlush(user), username, ifMatch);
+        evictAuthState(username);
+        String actor = currentActor();
+        afterCommit(() -> auditLog.roleChanged(actor, username, previousRole, newRole.getName()));
 
-        return userMapper.userToUserResponseDTO(updatedUser);
+        return new VersionedUser(userMapper.userToUserResponseDTO(updatedUser), etag(updatedUser));
     }
 
 
@@ -110,7 +196,7 @@ public class UserService {
         }
 
         if(passwordChangeDTO.currentPassword().equals(passwordChangeDTO.newPassword())) {
-            throw new BadCredentialsException("Le nouveau mot de passe ne peut pas être identique à l'ancien mot de passe.");
+            throw new InvalidCredentialsException("Le nouveau mot de passe ne peut pas être identique à l'ancien mot de passe.");
         }
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -119,27 +205,221 @@ public class UserService {
         EbUser user = userRepository.findByUsername(userAuth)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé"));
 
-        if (!passwordEncoder.matches(passwordChangeDTO.currentPassword(), user.getPassword())) {
-            throw new BadCredentialsException("Ancien mot de passe incorrect");
+        if (!passwordHashingService.matches(passwordChangeDTO.currentPassword(), user.getPassword())) {
+            throw new InvalidCredentialsException("Ancien mot de passe incorrect");
         }
 
-        user.setPassword(passwordEncoder.encode(passwordChangeDTO.newPassword()));
+        user.setPassword(passwordHashingService.encode(passwordChangeDTO.newPassword()));
+        revokeTokens(user);
         userRepository.save(user);
+        evictAuthState(userAuth);
+        afterCommit(() -> auditLog.passwordChanged(userAuth));
+    }
+
+    /**
+     * Strong ETag of the user from its id and version: a single scalar query, no entity loaded.
+     */
+    @Transactional(readOnly = true)
+    public String getUserETag(String username) {
+        return userRepository.findVersionByUsername(username)
+                .map(view -> etag(view.getId(), view.getVersion()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * ETag of the page {@link #getUsersPage} returns: changes with any insert, delete or update among its rows,
+     * and is computed without loading them.
+     */
+    @Transactional(readOnly = true)
+    public String getUsersPageETag(Long after, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        UserRepository.PageVersionView page = userRepository.findPageVersion(after == null ? 0L : after, size);
+        return pageEtag(page.getUsers(), page.getMaxId(), page.getVersionSum());
     }
 
-    public List<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll().stream().map(userMapper::userToUserResponseDTO).collect(Collectors.toList());
+    /**
+     * The page and its ETag, both from the same rows: never older or newer than one another.
+     */
+    @Transactional(readOnly = true)
+    public VersionedPage getUsersPage(Long after, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<UserPageRowView> rows = userRepository.findSummariesAfter(after == null ? 0L : after, Limit.of(size));
+        List<UserResponseDTO> users = rows.stream().map(userMapper::userSummaryToUserResponseDTO).toList();
+
+        Long nextCursor = users.size() == size ? users.get(size - 1).id() : null;
+        long versionSum = rows.stream().mapToLong(UserPageRowView::getVersion).sum();
+        long maxId = rows.isEmpty() ? 0 : rows.get(rows.size() - 1).getId();
+        return new VersionedPage(new UserPageDTO(users, users.size(), nextCursor),
+                pageEtag(rows.size(), maxId, versionSum));
     }
 
-    public UserResponseDTO getUserByUsername(String username) {
-        return userRepository.findByUsername(username).map(userMapper::userToUserResponseDTO)
+    /**
+     * Pushes every user to {@code consumer} from a forward-only cursor, keeping memory constant.
+     * Must be called from the thread that consumes the rows: the cursor lives in this transaction.
+     */
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<UserResponseDTO> consumer) {
+        try (Stream<UserSummaryView> summaries = userRepository.streamSummaries()) {
+            summaries.map(userMapper::userSummaryToUserResponseDTO).forEach(consumer);
+        }
+    }
+
+    /**
+     * Answered from memory when the filter rules the name out; only a "maybe" reads the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UsernameAvailabilityDTO checkUsernameAvailability(String username) {
+        if (username.isBlank() || username.length() < 3 || username.length() > 50) {
+            throw new IllegalArgumentException("Username must be between 3 and 50 characters");
+        }
+        if (!usernameFilter.mightContain(username)) {
+            return new UsernameAvailabilityDTO(username, true);
+        }
+        boolean exists = userRepository.existsEbUserByUsername(username);
+        if (!exists && usernameFilter.isReady()) {
+            usernameFilter.falsePositive();
+        }
+        return new UsernameAvailabilityDTO(username, !exists);
+    }
+
+    /**
+     * The user and the ETag of the version it was loaded at.
+     */
+    @Transactional(readOnly = true)
+    public VersionedUser getUserByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new VersionedUser(userMapper.userToUserResponseDTO(user), etag(user)))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
-    public void deleteUser(String username) {
+    /**
+     * @param ifMatch {@code If-Match} header, or {@code null} for an unconditional delete
+     */
+    public void deleteUser(String username, String ifMatch) {
         EbUser user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        checkIfMatch(user, ifMatch);
+
+        revokeTokens(user);
+        accountService.deleteEmptyAccounts(user);
+        flushChecked(() -> {
+            userRepository.delete(user);
+            userRepository.flush();
+            return user;
+        }, username, ifMatch);
+        evictAuthState(username);
+        String actor = currentActor();
+        afterCommit(() -> {
+            usernameFilter.removed(username);
+            auditLog.userDeleted(actor, username);
+        });
+    }
+
+    public UserResponseDTO setUserEnabled(String username, boolean enabled) {
+        EbUser user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+        user.setEnabled(enabled);
+        if (!enabled) {
+            revokeTokens(user);
+        }
+        EbUser updatedUser = userRepository.save(user);
+        evictAuthState(username);
+        String actor = currentActor();
+        afterCommit(() -> auditLog.enablementChanged(actor, username, enabled));
+
+        return userMapper.userToUserResponseDTO(updatedUser);
+    }
+
+    public CredentialCacheStatsDTO getCredentialCacheStats() {
+        return credentialCache.stats();
+    }
+
+    public PasswordHashingStatsDTO getPasswordHashingStats() {
+        return passwordHashingService.stats();
+    }
+
+    /**
+     * Drops cached credentials and user details now and again after commit, so that a concurrent
+     * authentication cannot re-cache the state being replaced by this transaction.
+     */
+    private void evictAuthState(String username) {
+        credentialCache.invalidate(username);
+        userDetailsService.evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    credentialCache.invalidate(username);
+                    userDetailsService.evict(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs {@code action} once the transaction commits, or now without one: a rolled-back change is not audited.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static String etag(EbUser user) {
+        return etag(user.getId(), user.getVersion());
+    }
+
+    // L'id distingue un utilisateur recréé sous le même nom, dont la version repart de zéro
+    private static String etag(long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Même empreinte que findPageVersion : la validation sans corps doit retrouver l'ETag envoyé avec le corps
+    private static String pageEtag(long users, long maxId, long versionSum) {
+        return "\"p" + users + "-" + maxId + "-" + versionSum + "\"";
+    }
+
+    private static void checkIfMatch(EbUser user, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        String current = etag(user);
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("L'utilisateur " + user.getUsername()
+                + " a été modifié entre-temps, version actuelle " + current);
+    }
+
+    // Conflit détecté à l'écriture (version modifiée après la lecture) : 412 si la requête était conditionnelle
+    private static EbUser flushChecked(Supplier<EbUser> write, String username, String ifMatch) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null || ifMatch.isBlank()) {
+                throw e;
+            }
+            throw new PreconditionFailedException("L'utilisateur " + username + " a été modifié entre-temps", e);
+        }
+    }
 
-        userRepository.delete(user);
+    private void revokeTokens(EbUser user) {
+        user.setTokenEpoch(tokenEpochRegistry.bump(user.getUsername(), user.getTokenEpoch()));
     }
 }
\ No newline at end of file
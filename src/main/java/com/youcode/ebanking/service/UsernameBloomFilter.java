@@ -0,0 +1,229 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of the existing usernames: "absent" is certain and needs no database round trip,
+ * "present" may be a false positive (about {@code false-positive-rate}) and must be confirmed.
+ * <p>
+ * Built by streaming the usernames off the startup path, then kept current by {@link #add} after each committed
+ * insert on this node. Names inserted by other nodes are only learnt by a rebuild, made once the filter is older
+ * than {@code max-age}: until then such a name may be reported absent, and the insert that relies on it fails on
+ * the unique constraint. A Bloom filter cannot forget either: deleted names stay set until the next rebuild, also
+ * made early once they exceed {@code stale-ratio} of the entries, or once the population outgrows the capacity the
+ * filter was sized for. Until the first build completes every name is reported as possibly present.
+ */
+@Component
+@Slf4j
+public class UsernameBloomFilter implements MeterBinder {
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong entries = new AtomicLong();
+
+        private Bits(long capacity, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6);
+            this.words = new AtomicLongArray(words);
+            this.size = (long) words << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        private void add(String username) {
+            long h1 = hash(username);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (current, set) -> current | set);
+                }
+            }
+            entries.incrementAndGet();
+        }
+
+        private boolean mightContain(String username) {
+            long h1 = hash(username);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final double staleRatio;
+    private final long maxAgeNanos;
+
+    // null tant que la première construction n'est pas terminée
+    private volatile Bits bits;
+    // filtre en cours de reconstruction : reçoit aussi les ajouts concurrents
+    private volatile Bits next;
+    private final AtomicLong stale = new AtomicLong();
+    private volatile long builtAt;
+
+    private final LongAdder absent = new LongAdder();
+    private final LongAdder maybePresent = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public UsernameBloomFilter(UserRepository userRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${ebanking.users.availability.expected-users:1000000}") long expectedUsers,
+                               @Value("${ebanking.users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${ebanking.users.availability.stale-ratio:0.1}") double staleRatio,
+                               @Value("${ebanking.users.availability.max-age:PT1M}") Duration maxAge) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.staleRatio = staleRatio;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * @return {@code false} if the username certainly does not exist
+     */
+    public boolean mightContain(String username) {
+        Bits current = bits;
+        if (current != null && !current.mightContain(username)) {
+            absent.increment();
+            return false;
+        }
+        maybePresent.increment();
+        return true;
+    }
+
+    /**
+     * Records a "maybe" that the database did not confirm.
+     */
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Adds a username whose insert has committed.
+     */
+    public void add(String username) {
+        Bits current = bits;
+        if (current != null) {
+            current.add(username);
+        }
+        // Lu après le commit : si aucune reconstruction n'est en cours, la prochaine lira ce nom en base
+        Bits pending = next;
+        if (pending != null) {
+            pending.add(username);
+        }
+    }
+
+    /**
+     * Notes a username whose delete has committed; its bits stay set until the next rebuild.
+     */
+    public void removed(String username) {
+        stale.incrementAndGet();
+    }
+
+    public boolean isReady() {
+        return bits != null;
+    }
+
+    @Scheduled(initialDelayString = "${ebanking.users.availability.initial-delay:PT0S}",
+            fixedDelayString = "${ebanking.users.availability.check-interval:PT15S}")
+    public void maintain() {
+        Bits current = bits;
+        if (current == null || current.entries.get() > current.capacity
+                || stale.get() > staleRatio * current.entries.get()
+                || System.nanoTime() - builtAt > maxAgeNanos) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams every username into a new filter sized for twice the current population, then swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Transactions en écriture : lues sur le primaire, sans retard de réplication
+        long users = transactionTemplate.execute(status -> userRepository.count());
+        Bits fresh = new Bits(Math.max(expectedUsers, users * 2), falsePositiveRate);
+        stale.set(0);
+        next = fresh;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamUsernames()) {
+                    usernames.forEach(fresh::add);
+                }
+            });
+            bits = fresh;
+            builtAt = start;
+        } finally {
+            next = null;
+        }
+        log.info("Filtre des noms d'utilisateur reconstruit : {} noms, {} bits, {} hachages, en {} ms",
+                fresh.entries.get(), fresh.size, fresh.hashes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ebanking.users.bloom.lookups", absent, LongAdder::sum)
+                .tag("result", "absent")
+                .register(registry);
+        FunctionCounter.builder("ebanking.users.bloom.lookups", maybePresent, LongAdder::sum)
+                .tag("result", "maybe")
+                .register(registry);
+        FunctionCounter.builder("ebanking.users.bloom.false.positives", falsePositives, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("ebanking.users.bloom.entries", this, filter -> {
+                    Bits current = filter.bits;
+                    return current == null ? 0 : current.entries.get();
+                })
+                .register(registry);
+        Gauge.builder("ebanking.users.bloom.stale", stale, AtomicLong::get)
+                .register(registry);
+    }
+
+    // FNV-1a 64 bits sur les caractères (aucune allocation), puis finaliseur de MurmurHash3 pour répartir les bits
+    private static long hash(String username) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,22 @@
+-- Schéma d'origine, tel que créé par ddl-auto: update avant l'arrivée de Flyway : rôles et utilisateurs,
+-- identifiants IDENTITY. Les bases existantes sont marquées à cette version (spring.flyway.baseline-version: 0)
+-- sans que ce script ne soit rejoué ; seules les bases vides l'exécutent.
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table users (
+    enabled boolean not null,
+    id bigint generated by default as identity,
+    role_id bigint not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+alter table users
+    add constraint fk_users_role foreign key (role_id) references roles;
@@ -0,0 +1,176 @@
+-- Du schéma d'origine (V0 : rôles et utilisateurs) au modèle actuel (PostgreSQL ; accepté aussi par H2).
+-- Toute évolution du modèle passe désormais par un nouveau script V<n>__.
+
+create sequence accounts_seq start with 1 increment by 50;
+
+create sequence audit_events_seq start with 1 increment by 500;
+
+create sequence balance_checkpoints_seq start with 1 increment by 50;
+
+create sequence card_holds_seq start with 1 increment by 500;
+
+create sequence cards_seq start with 1 increment by 50;
+
+create sequence ledger_entries_seq start with 1 increment by 100;
+
+create sequence loan_prepayments_seq start with 1 increment by 50;
+
+create sequence loans_seq start with 1 increment by 50;
+
+-- Les utilisateurs passent d'IDENTITY à une séquence allouée par blocs de 50 (EbUser), repositionnée au-delà des
+-- identifiants existants par V1_1 (db/vendor/<base>)
+alter table users alter column id drop identity;
+
+create sequence users_seq start with 1 increment by 50;
+
+alter table users add column token_epoch bigint default 0 not null;
+
+alter table users add column version bigint default 0 not null;
+
+create table accounts (
+    currency varchar(3) not null,
+    balance bigint not null,
+    id bigint not null,
+    last_sequence bigint not null,
+    opened_at timestamp(6) with time zone not null,
+    owner_id bigint not null,
+    version bigint default 0 not null,
+    account_number varchar(20) not null unique,
+    primary key (id)
+);
+
+create table audit_events (
+    id bigint not null,
+    occurred_at timestamp(6) with time zone not null,
+    type varchar(20) not null check (type in ('LOGIN_SUCCEEDED','LOGIN_FAILED','LOGIN_THROTTLED','ROLE_CHANGED','PASSWORD_CHANGED','USER_ENABLED','USER_DISABLED','USER_DELETED')),
+    remote_address varchar(45),
+    actor varchar(50),
+    subject varchar(50) not null,
+    detail varchar(255),
+    primary key (id)
+);
+
+create table balance_checkpoints (
+    account_id bigint not null,
+    balance bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint not null,
+    ledger_sequence bigint not null,
+    primary key (id)
+);
+
+create table card_holds (
+    amount bigint not null,
+    card_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    id bigint not null,
+    resolved_at timestamp(6) with time zone,
+    status varchar(10) not null check (status in ('ACTIVE','CAPTURED','RELEASED','EXPIRED')),
+    reference varchar(36) not null unique,
+    merchant varchar(100),
+    primary key (id)
+);
+
+create table cards (
+    account_id bigint not null,
+    daily_limit bigint not null,
+    id bigint not null,
+    issued_at timestamp(6) with time zone not null,
+    monthly_limit bigint not null,
+    status varchar(10) not null check (status in ('ACTIVE','BLOCKED')),
+    primary key (id)
+);
+
+create table journal_checkpoints (
+    applied_sequence bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    name varchar(50) not null,
+    primary key (name)
+);
+
+create table ledger_entries (
+    account_id bigint not null,
+    amount bigint not null,
+    balance_after bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint not null,
+    sequence bigint not null,
+    type varchar(10) not null check (type in ('CREDIT','DEBIT')),
+    reference varchar(36),
+    description varchar(140),
+    primary key (id),
+    constraint uk_ledger_account_sequence unique (account_id, sequence)
+);
+
+create table loan_prepayments (
+    after_installment integer not null,
+    amount bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint not null,
+    loan_id bigint not null,
+    primary key (id)
+);
+
+create table loans (
+    annual_rate_bps integer not null,
+    first_due_date date not null,
+    term_months integer not null,
+    account_id bigint not null,
+    borrower_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint not null,
+    principal bigint not null,
+    version bigint default 0 not null,
+    type varchar(10) not null check (type in ('ANNUITY','LINEAR')),
+    primary key (id)
+);
+
+create table public_content (
+    updated_at timestamp(6) with time zone not null,
+    version bigint default 0 not null,
+    name varchar(50) not null,
+    body text not null,
+    primary key (name)
+);
+
+create index idx_accounts_owner on accounts (owner_id);
+
+create index idx_audit_events_subject_occurred on audit_events (subject, occurred_at);
+
+create index idx_audit_events_occurred on audit_events (occurred_at);
+
+create index idx_checkpoints_account_sequence on balance_checkpoints (account_id, ledger_sequence);
+
+create index idx_card_holds_status on card_holds (status);
+
+create index idx_card_holds_card_created on card_holds (card_id, created_at);
+
+create index idx_cards_account on cards (account_id);
+
+create index idx_ledger_account_created on ledger_entries (account_id, created_at);
+
+create index idx_prepayments_loan on loan_prepayments (loan_id);
+
+create index idx_loans_borrower on loans (borrower_id);
+
+alter table accounts
+    add constraint fk_accounts_owner foreign key (owner_id) references users;
+
+alter table card_holds
+    add constraint fk_card_holds_card foreign key (card_id) references cards;
+
+alter table cards
+    add constraint fk_cards_account foreign key (account_id) references accounts;
+
+alter table ledger_entries
+    add constraint fk_ledger_entries_account foreign key (account_id) references accounts;
+
+alter table loan_prepayments
+    add constraint fk_loan_prepayments_loan foreign key (loan_id) references loans;
+
+alter table loans
+    add constraint fk_loans_account foreign key (account_id) references accounts;
+
+alter table loans
+    add constraint fk_loans_borrower foreign key (borrower_id) references users;
@@ -0,0 +1,10 @@
+-- Rôles attendus par l'application, créés jusqu'ici au démarrage (RoleInitializationService).
+-- Idempotent : sans effet sur une base de référence qui les contient déjà.
+
+insert into roles (name)
+select 'ROLE_USER'
+where not exists (select 1 from roles where name = 'ROLE_USER');
+
+insert into roles (name)
+select 'ROLE_ADMIN'
+where not exists (select 1 from roles where name = 'ROLE_ADMIN');
@@ -0,0 +1,202 @@
+package com.youcode.ebanking.audit;
+
+import com.youcode.ebanking.config.AuditConfig;
+import com.youcode.ebanking.model.AuditEvent;
+import com.youcode.ebanking.model.AuditEventType;
+import com.youcode.ebanking.repository.AuditEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({AuditConfig.class, AuditLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "ebanking.audit.batch-size=64"
+})
+class AuditLogTest {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private AuditEventRepository repository;
+
+    @Test
+    void eventsReachTheTableInOrder() throws Exception {
+        String username = "audit-" + UUID.randomUUID();
+        auditLog.loginFailed(username, "10.0.0.1", "mot de passe incorrect");
+        auditLog.loginSucceeded(username, "10.0.0.1");
+        auditLog.roleChanged("admin", username, "ROLE_USER", "ROLE_ADMIN");
+        auditLog.enablementChanged("admin", username, false);
+
+        awaitUntil(() -> repository.findBySubjectOrderByOccurredAt(username).size() == 4);
+
+        List<AuditEvent> events = repository.findBySubjectOrderByOccurredAt(username);
+        assertThat(events).extracting(AuditEvent::getType).containsExactly(AuditEventType.LOGIN_FAILED,
+                AuditEventType.LOGIN_SUCCEEDED, AuditEventType.ROLE_CHANGED, AuditEventType.USER_DISABLED);
+        assertThat(events.get(0).getRemoteAddress()).isEqualTo("10.0.0.1");
+        assertThat(events.get(2).getActor()).isEqualTo("admin");
+        assertThat(events.get(2).getDetail()).isEqualTo("ROLE_USER -> ROLE_ADMIN");
+    }
+
+    @Test
+    void oversizedUsernameIsTruncatedAndDoesNotStopLaterEvents() throws Exception {
+        String prefix = "audit-" + UUID.randomUUID().toString().substring(0, 8);
+        String oversized = prefix + "x".repeat(500);
+        auditLog.loginFailed(oversized, "2001:db8::1".repeat(10), "utilisateur inconnu");
+        String username = "audit-" + UUID.randomUUID();
+        auditLog.loginSucceeded(username, "10.0.0.1");
+
+        awaitUntil(() -> repository.findBySubjectOrderByOccurredAt(username).size() == 1);
+
+        List<AuditEvent> truncated = repository.findBySubjectOrderByOccurredAt(oversized.substring(0, 50));
+        assertThat(truncated).hasSize(1);
+        assertThat(truncated.get(0).getRemoteAddress()).hasSize(45);
+    }
+
+    @Test
+    void rejectedBatchIsWrittenEventByEventWithoutRetry() throws Exception {
+        List<String> written = new ArrayList<>();
+        List<Integer> attempts = new ArrayList<>();
+        AuditLog poisoned = new AuditLog(batch -> {
+            synchronized (written) {
+                attempts.add(batch.size());
+                if (batch.stream().anyMatch(record -> record.subject().equals("poison"))) {
+                    throw new DataIntegrityViolationException("valeur refusée");
+                }
+                batch.forEach(record -> written.add(record.subject()));
+            }
+        }, 16, 8, AuditLog.OverflowPolicy.DROP, Duration.ZERO);
+        for (String subject : List.of("a", "poison", "b")) {
+            poisoned.loginFailed(subject, null, null);
+        }
+        poisoned.start();
+        try {
+            awaitUntil(() -> {
+                synchronized (written) {
+                    return written.size() == 2;
+                }
+            });
+            poisoned.loginFailed("c", null, null);
+            awaitUntil(() -> {
+                synchronized (written) {
+                    return written.size() == 3;
+                }
+            });
+        } finally {
+            poisoned.stop();
+        }
+        synchronized (written) {
+            assertThat(written).containsExactly("a", "b", "c");
+            // Le lot, puis chaque événement une fois, puis le lot suivant : aucune nouvelle tentative du lot rejeté
+            assertThat(attempts).containsExactly(3, 1, 1, 1, 1);
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        AuditRing ring = new AuditRing(1024);
+        int producers = 8;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        Set<String> consumed = new HashSet<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        AuditRecord record = new AuditRecord(AuditEventType.LOGIN_FAILED, null,
+                                producer + ":" + i, null, null, Instant.now());
+                        while (!ring.offer(record)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+            List<AuditRecord> batch = new ArrayList<>();
+            int[] lastSeen = new int[producers];
+            Arrays.fill(lastSeen, -1);
+            while (consumed.size() < producers * perProducer) {
+                batch.clear();
+                ring.drainTo(batch, 256);
+                for (AuditRecord record : batch) {
+                    assertThat(consumed.add(record.subject())).as("doublon %s", record.subject()).isTrue();
+                    // Ordre FIFO conservé pour chaque producteur
+                    String[] parts = record.subject().split(":");
+                    int producer = Integer.parseInt(parts[0]);
+                    int sequence = Integer.parseInt(parts[1]);
+                    assertThat(sequence).isEqualTo(lastSeen[producer] + 1);
+                    lastSeen[producer] = sequence;
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingCallers() throws Exception {
+        CountDownLatch sinkReleased = new CountDownLatch(1);
+        List<AuditRecord> written = new ArrayList<>();
+        AuditLog stalled = new AuditLog(batch -> {
+            sinkReleased.await();
+            synchronized (written) {
+                written.addAll(batch);
+            }
+        }, 16, 4, AuditLog.OverflowPolicy.DROP, Duration.ZERO);
+        stalled.start();
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) {
+                stalled.loginFailed("flood", "10.0.0.2", null);
+            }
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+            assertThat(stalled.backlog()).isLessThanOrEqualTo(16);
+        } finally {
+            sinkReleased.countDown();
+            stalled.stop();
+        }
+        // Au plus un lot en cours d'écriture plus une file pleine ont survécu
+        synchronized (written) {
+            assertThat(written.size()).isBetween(1, 16 + 4);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("délai d'attente dépassé").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
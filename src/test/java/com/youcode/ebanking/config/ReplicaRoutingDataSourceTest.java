@@ -0,0 +1,152 @@
+package com.youcode.ebanking.config;
+
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primary and two replicas as separate in-memory H2 databases. The replicas get the schema but not the rows
+ * written through JPA, so each read shows which database served it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "ebanking.datasource.routing.enabled=true",
+        "ebanking.datasource.routing.replicas[0].url=" + ReplicaRoutingDataSourceTest.REPLICA_1,
+        "ebanking.datasource.routing.replicas[0].username=sa",
+        "ebanking.datasource.routing.replicas[1].url=" + ReplicaRoutingDataSourceTest.REPLICA_2,
+        "ebanking.datasource.routing.replicas[1].username=sa",
+        "ebanking.datasource.routing.max-lag=PT10S",
+        "ebanking.datasource.routing.lag-query=SELECT lag_seconds FROM replication_status"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:routing_replica_1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing_replica_2;DB_CLOSE_DELAY=-1";
+
+    private static final String PRIMARY_ROLE = "ROLE_PRIMARY";
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+    private List<JdbcTemplate> replicas;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = new JdbcTemplate(primaryDataSource);
+        replicas = Stream.of(REPLICA_1, REPLICA_2)
+                .map(url -> new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")))
+                .toList();
+
+        // « Réplication » du schéma créé par Hibernate, sans les données
+        Path script = Files.createTempFile("routing-schema", ".sql");
+        primary.execute("SCRIPT NODATA DROP TO '" + script + "'");
+        for (int i = 0; i < replicas.size(); i++) {
+            JdbcTemplate replica = replicas.get(i);
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+            replica.execute("CREATE TABLE IF NOT EXISTS replication_status (lag_seconds DOUBLE)");
+            replica.execute("DELETE FROM replication_status");
+            replica.update("INSERT INTO replication_status VALUES (0)");
+            replica.update("INSERT INTO roles (name) VALUES (?)", "ROLE_REPLICA_" + (i + 1));
+        }
+        Files.delete(script);
+
+        if (roleRepository.findByName(PRIMARY_ROLE).isEmpty()) {
+            roleRepository.save(new Role(PRIMARY_ROLE));
+        }
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverReplicas() {
+        assertThat(servedBy(4)).containsExactlyInAnyOrder("ROLE_REPLICA_1", "ROLE_REPLICA_2");
+        assertThat(readWrite(() -> roleRepository.findByName(PRIMARY_ROLE))).isPresent();
+        assertThat(readWrite(() -> roleRepository.findByName("ROLE_REPLICA_1"))).isEmpty();
+    }
+
+    @Test
+    void laggingReplicaIsEvictedUntilItCatchesUp() {
+        replicas.get(0).update("UPDATE replication_status SET lag_seconds = 60");
+        routingDataSource.checkReplicas();
+        assertThat(servedBy(4)).containsExactly("ROLE_REPLICA_2");
+
+        replicas.get(0).update("UPDATE replication_status SET lag_seconds = 1");
+        routingDataSource.checkReplicas();
+        assertThat(servedBy(4)).containsExactlyInAnyOrder("ROLE_REPLICA_1", "ROLE_REPLICA_2");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWithoutHealthyReplica() {
+        replicas.forEach(replica -> replica.update("UPDATE replication_status SET lag_seconds = 60"));
+        routingDataSource.checkReplicas();
+
+        assertThat(readOnly(() -> roleRepository.findByName(PRIMARY_ROLE))).isPresent();
+        assertThat(servedBy(2)).isEmpty();
+    }
+
+    /**
+     * Names of the replica roles visible to {@code reads} consecutive read-only transactions.
+     */
+    private Set<String> servedBy(int reads) {
+        Set<String> seen = new HashSet<>();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        for (int i = 0; i < reads; i++) {
+            template.execute(status -> roleRepository.findByNameIn(List.of("ROLE_REPLICA_1", "ROLE_REPLICA_2")))
+                    .forEach(role -> seen.add(role.getName()));
+        }
+        return seen;
+    }
+
+    private Optional<Role> readOnly(Supplier<Optional<Role>> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> read.get());
+    }
+
+    private Optional<Role> readWrite(Supplier<Optional<Role>> read) {
+        return new TransactionTemplate(transactionManager).execute(status -> read.get());
+    }
+}
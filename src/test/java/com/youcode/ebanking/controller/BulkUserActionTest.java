@@ -0,0 +1,224 @@
+package com.youcode.ebanking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.dto.BulkUserAction;
+import com.youcode.ebanking.dto.BulkUserActionDTO;
+import com.youcode.ebanking.dto.BulkUserActionReportDTO;
+import com.youcode.ebanking.dto.LedgerPostingDTO;
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.security.TokenEpochRegistry;
+import com.youcode.ebanking.service.AccountService;
+import com.youcode.ebanking.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ebanking.journal.directory=${java.io.tmpdir}/bulk-journal-${random.uuid}",
+        "ebanking.users.bulk-action.chunk-size=10",
+        // Les écritures restent dans le journal le temps du test
+        "ebanking.journal.drain.interval=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class BulkUserActionTest {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    private String admin;
+    private String prefix;
+    private List<String> usernames;
+
+    // L'inscription attribue ROLE_ADMIN ; les utilisateurs visés sont insérés directement, sans hachage
+    @BeforeEach
+    void setUp() {
+        admin = "bulk-admin-" + UUID.randomUUID();
+        userService.registerNewUser(new UserRegistrationDTO(admin, "Passw0rd!", admin + "@ebanking.com"));
+        prefix = "bulk-" + UUID.randomUUID().toString().substring(0, 8) + "_";
+        usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = prefix + i;
+            userRepository.save(new EbUser().setUsername(username).setPassword("x")
+                    .setEmail(username + "@partner.example").setEnabled(true)
+                    .setRole(roleRepository.findByName("ROLE_USER").orElseThrow()));
+            usernames.add(username);
+        }
+    }
+
+    @Test
+    void filterDisablesEveryMatchingUserInChunks() throws Exception {
+        long version = userRepository.findVersionByUsername(usernames.get(0)).orElseThrow().getVersion();
+
+        BulkUserActionReportDTO report = report(bulk("{\"action\":\"DISABLE\",\"filter\":{\"usernamePrefix\":\""
+                + prefix + "\"}}").andExpect(status().isOk()));
+
+        assertThat(report.done()).isTrue();
+        assertThat(report.chunks()).isEqualTo(3);
+        assertThat(report.matched()).isEqualTo(USERS);
+        assertThat(report.applied()).isEqualTo(USERS);
+        for (String username : usernames) {
+            EbUser user = userRepository.findByUsername(username).orElseThrow();
+            assertThat(user.isEnabled()).isFalse();
+            assertThat(user.getTokenEpoch()).isPositive().isEqualTo(tokenEpochRegistry.current(username));
+        }
+        assertThat(userRepository.findVersionByUsername(usernames.get(0)).orElseThrow().getVersion())
+                .isGreaterThan(version);
+
+        // Déjà désactivés : rien à écrire
+        report = report(bulk("{\"action\":\"DISABLE\",\"filter\":{\"usernamePrefix\":\"" + prefix + "\"}}"));
+        assertThat(report.applied()).isZero();
+        assertThat(report.unchanged()).isEqualTo(USERS);
+    }
+
+    @Test
+    void usernameListReportsUnknownNamesAndSparesTheActor() throws Exception {
+        String unknown = prefix + "unknown";
+        List<String> names = new ArrayList<>(usernames);
+        names.add(unknown);
+        names.add(admin);
+        String body = objectMapper.writeValueAsString(
+                new BulkUserActionDTO(BulkUserAction.CHANGE_ROLE, "ROLE_ADMIN", names, null));
+
+        BulkUserActionReportDTO report = report(bulk(body).andExpect(status().isOk()));
+
+        assertThat(report.applied()).isEqualTo(USERS);
+        assertThat(report.notFound()).containsExactly(unknown);
+        assertThat(report.skipped()).containsExactly(admin);
+        assertThat(userRepository.findByUsername(usernames.get(USERS - 1)).orElseThrow().getRole().getName())
+                .isEqualTo("ROLE_ADMIN");
+    }
+
+    @Test
+    void deleteKeepsUsersWithAccountActivity() throws Exception {
+        EbUser active = userRepository.findByUsername(usernames.get(3)).orElseThrow();
+        String accountNumber = String.format("EB%016d", ThreadLocalRandom.current().nextLong(10_000_000_000_000_000L));
+        accountRepository.save(new Account()
+                .setAccountNumber(accountNumber)
+                .setOwner(active)
+                .setCurrency("MAD")
+                .setBalance(100_00)
+                .setLastSequence(1)
+                .setOpenedAt(Instant.now()));
+
+        BulkUserActionReportDTO report = report(bulk("{\"action\":\"DELETE\",\"filter\":{\"usernamePrefix\":\""
+                + prefix + "\",\"emailDomain\":\"partner.example\"}}").andExpect(status().isOk()));
+
+        assertThat(report.applied()).isEqualTo(USERS - 1);
+        assertThat(report.skipped()).containsExactly(active.getUsername());
+        assertThat(userRepository.findExistingUsernames(usernames)).containsExactly(active.getUsername());
+    }
+
+    @Test
+    void deleteKeepsUsersWithPostingsStillInTheJournal() throws Exception {
+        EbUser active = userRepository.findByUsername(usernames.get(5)).orElseThrow();
+        String accountNumber = accountService.openAccount(active).getAccountNumber();
+        accountService.post(accountNumber, new LedgerPostingDTO(EntryType.CREDIT, new BigDecimal("10.00"), "dépôt"));
+        long epoch = tokenEpochRegistry.current(active.getUsername());
+
+        BulkUserActionReportDTO report = report(bulk("{\"action\":\"DELETE\",\"filter\":{\"usernamePrefix\":\""
+                + prefix + "\"}}").andExpect(status().isOk()));
+
+        assertThat(report.applied()).isEqualTo(USERS - 1);
+        assertThat(report.skipped()).containsExactly(active.getUsername());
+        assertThat(accountRepository.findByAccountNumber(accountNumber)).isPresent();
+        assertThat(tokenEpochRegistry.current(active.getUsername())).isEqualTo(epoch);
+        assertThat(tokenEpochRegistry.current(usernames.get(0))).isPositive();
+    }
+
+    @Test
+    void progressIsStreamedPerChunk() throws Exception {
+        MvcResult started = mockMvc.perform(patch("/api/users/bulk").header(HttpHeaders.AUTHORIZATION, basic())
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\":\"DISABLE\",\"filter\":{\"usernamePrefix\":\"" + prefix + "\"}}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).trim().split("\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(objectMapper.readValue(lines[0], BulkUserActionReportDTO.class).applied()).isEqualTo(10);
+        BulkUserActionReportDTO last = objectMapper.readValue(lines[3], BulkUserActionReportDTO.class);
+        assertThat(last.done()).isTrue();
+        assertThat(last.applied()).isEqualTo(USERS);
+    }
+
+    @Test
+    void emptyFilterIsRejected() throws Exception {
+        bulk("{\"action\":\"DELETE\",\"filter\":{}}").andExpect(status().isBadRequest());
+        bulk("{\"action\":\"CHANGE_ROLE\",\"usernames\":[\"" + usernames.get(0) + "\"]}")
+                .andExpect(status().isBadRequest());
+        assertThat(userRepository.findExistingUsernames(usernames)).hasSize(USERS);
+    }
+
+    private ResultActions bulk(String body) throws Exception {
+        return mockMvc.perform(patch("/api/users/bulk").header(HttpHeaders.AUTHORIZATION, basic())
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private BulkUserActionReportDTO report(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(),
+                BulkUserActionReportDTO.class);
+    }
+
+    private String basic() {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((admin + ":Passw0rd!").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.youcode.ebanking.controller;
+
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ebanking.journal.directory=${java.io.tmpdir}/public-journal-${random.uuid}")
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class PublicContentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void noticesAreServedWithValidatorsAndReplacedAtomically() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/api/contact"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn().getResponse();
+        assertThat(first.getContentAsString(StandardCharsets.UTF_8)).contains("support@ebanking.com");
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/contact").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        String notices = "Maintenance planifiée dimanche de 2h à 4h. ".repeat(50);
+        mockMvc.perform(put("/api/notices").contentType(MediaType.TEXT_PLAIN).content(notices))
+                .andExpect(status().isUnauthorized());
+        String admin = "public-" + UUID.randomUUID();
+        userService.registerNewUser(new UserRegistrationDTO(admin, "Passw0rd!", admin + "@ebanking.com"));
+        mockMvc.perform(put("/api/notices").header(HttpHeaders.AUTHORIZATION, basic(admin))
+                        .contentType(MediaType.TEXT_PLAIN).characterEncoding(StandardCharsets.UTF_8).content(notices))
+                .andExpect(status().isNoContent());
+
+        MockHttpServletResponse compressed = mockMvc.perform(get("/api/notices")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse();
+        byte[] body = compressed.getContentAsByteArray();
+        assertThat(body.length).isLessThan(notices.getBytes(StandardCharsets.UTF_8).length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(notices);
+        }
+
+        String gzipEtag = compressed.getHeader(HttpHeaders.ETAG);
+        assertThat(gzipEtag).endsWith("-gzip\"");
+        mockMvc.perform(get("/api/notices").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+
+        // L'ETag de la version gzip ne valide pas le corps non compressé, et inversement
+        String identityEtag = mockMvc.perform(get("/api/notices").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(identityEtag).isNotEqualTo(gzipEtag);
+        mockMvc.perform(get("/api/notices").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    private static String basic(String username) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":Passw0rd!").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,170 @@
+package com.youcode.ebanking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youcode.ebanking.dto.TokenResponseDTO;
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.security.AccessTokenService;
+import com.youcode.ebanking.security.TokenEpochRegistry;
+import com.youcode.ebanking.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ebanking.journal.directory=${java.io.tmpdir}/etag-journal-${random.uuid}")
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class UserConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @Autowired
+    private AccessTokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String admin;
+    private String user;
+
+    // L'inscription attribue ROLE_ADMIN
+    @BeforeEach
+    void setUp() {
+        admin = "etag-admin-" + UUID.randomUUID();
+        user = "etag-user-" + UUID.randomUUID();
+        userService.registerNewUser(new UserRegistrationDTO(admin, "Passw0rd!", admin + "@ebanking.com"));
+        userService.registerNewUser(new UserRegistrationDTO(user, "Passw0rd!", user + "@ebanking.com"));
+    }
+
+    @Test
+    void unchangedUserIsNotSentAgain() throws Exception {
+        String etag = mockMvc.perform(get("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String updated = changeRole(etag).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updated).isNotEqualTo(etag);
+
+        mockMvc.perform(get("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updated));
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String etag = mockMvc.perform(get("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        changeRole(etag).andExpect(status().isOk());
+
+        changeRole(etag).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+
+        String current = userService.getUserETag(user);
+        mockMvc.perform(delete("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_MATCH, current))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void rejectedDeleteKeepsTheUserAbleToLogIn() throws Exception {
+        long ownerId = userRepository.findByUsername(user).orElseThrow().getId();
+        Account account = accountRepository.findByOwnerIdOrderByIdAsc(ownerId).get(0);
+        accountRepository.save(account.setLastSequence(1));
+
+        mockMvc.perform(delete("/api/users/" + user).header(HttpHeaders.AUTHORIZATION, basic()))
+                .andExpect(status().isConflict());
+
+        // Révocation annulée avec la transaction : l'époque en mémoire n'a pas dépassé celle de la base
+        assertThat(tokenEpochRegistry.current(user))
+                .isEqualTo(userRepository.findByUsername(user).orElseThrow().getTokenEpoch());
+        String body = mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + user + "\",\"password\":\"Passw0rd!\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        TokenResponseDTO tokens = objectMapper.readValue(body, TokenResponseDTO.class);
+        assertThat(tokenService.verify(tokens.accessToken(), AccessTokenService.ACCESS)).isPresent();
+    }
+
+    @Test
+    void userListETagFollowsItsRows() throws Exception {
+        String etag = mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, basic()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        userService.setUserEnabled(user, false);
+
+        MockHttpServletResponse changed = mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        // ETag calculé sur les lignes envoyées : unique, et reconnu par la validation sans corps
+        assertThat(changed.getHeaders(HttpHeaders.ETAG)).hasSize(1).doesNotContain(etag);
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, basic())
+                        .header(HttpHeaders.IF_NONE_MATCH, changed.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    private ResultActions changeRole(String ifMatch) throws Exception {
+        return mockMvc.perform(put("/api/users/" + user + "/updateRole").header(HttpHeaders.AUTHORIZATION, basic())
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + user + "\",\"roleName\":\"ROLE_USER\"}"));
+    }
+
+    private String basic() {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((admin + ":Passw0rd!").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package com.youcode.ebanking.journal;
+
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.JournalCheckpointRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import com.youcode.ebanking.service.AccountLocks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(AccountLocks.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class LedgerJournalReplayTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void undrainedRecordsAreReplayedExactlyOnceOnStartup() throws Exception {
+        Role role = roleRepository.findByName("ROLE_USER").orElseThrow();
+        EbUser owner = userRepository.save(new EbUser()
+                .setUsername("journal").setPassword("x").setEmail("journal@ebanking.com").setRole(role));
+        Account account = accountRepository.save(new Account()
+                .setAccountNumber("EB0000000000000042")
+                .setOwner(owner)
+                .setCurrency("MAD")
+                .setOpenedAt(Instant.now()));
+
+        // Écritures acquittées puis « crash » avant toute vidange
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, 64 * 1024, 1)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(new JournalRecord(account.getId(), EntryType.CREDIT, 10_00, "ref-" + i, "replay",
+                        Instant.now()).encode());
+            }
+            journal.sync();
+        }
+
+        LedgerJournal ledgerJournal = newLedgerJournal();
+        ledgerJournal.start();
+        ledgerJournal.stop();
+        assertThat(accountRepository.findBalanceById(account.getId())).contains(100 * 10_00L);
+        assertThat(checkpointRepository.findById("test").orElseThrow().getAppliedSequence()).isEqualTo(100);
+
+        // Redémarrage : rien n'est rejoué deux fois, et une nouvelle écriture est vidangée
+        LedgerJournal restarted = newLedgerJournal();
+        restarted.start();
+        LedgerJournal.Receipt receipt = restarted.append(account.getId(), EntryType.DEBIT, 5_00, "after restart");
+        assertThat(receipt.sequence()).isEqualTo(101);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (restarted.pendingDelta(account.getId()) != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        restarted.stop();
+
+        assertThat(accountRepository.findBalanceById(account.getId())).contains(100 * 10_00L - 5_00);
+        assertThat(ledgerEntryRepository.count()).isEqualTo(101);
+    }
+
+    private LedgerJournal newLedgerJournal() {
+        return new LedgerJournal(accountRepository, ledgerEntryRepository, checkpointRepository, accountLocks,
+                transactionTemplate, directory, DataSize.ofKilobytes(64), "test", 16, Duration.ofMillis(1));
+    }
+}
@@ -0,0 +1,136 @@
+package com.youcode.ebanking.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kill-and-restart harness: a child JVM appends and syncs records until it is killed with SIGKILL, then the
+ * journal is reopened and every acknowledged record must be there, intact and in sequence.
+ */
+class SegmentedJournalCrashTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void acknowledgedRecordsSurviveKill() throws Exception {
+        long lastAcked = 0;
+        for (int cycle = 0; cycle < 3; cycle++) {
+            lastAcked = Math.max(lastAcked, runAndKill(lastAcked + 2_000));
+
+            try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+                List<SegmentedJournal.Entry> entries = journal.read(1, Integer.MAX_VALUE);
+                assertThat(entries.size()).isGreaterThanOrEqualTo((int) lastAcked);
+                for (int i = 0; i < entries.size(); i++) {
+                    assertThat(entries.get(i).sequence()).isEqualTo(i + 1);
+                    assertThat(entries.get(i).payload()).isEqualTo(payload(i + 1));
+                }
+                assertThat(journal.segmentCount()).isGreaterThan(1);
+            }
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedAndSequenceReused() throws Exception {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            for (long sequence = 1; sequence <= 10; sequence++) {
+                journal.append(payload(sequence));
+            }
+            journal.sync();
+        }
+
+        // Corrompt un octet de la charge utile du dernier enregistrement
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int lastRecordOffset = 9 * (SegmentedJournal.HEADER_SIZE + payload(1).length);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'#'}), lastRecordOffset + SegmentedJournal.HEADER_SIZE);
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertThat(journal.durableSequence()).isEqualTo(9);
+            assertThat(journal.append(payload(10))).isEqualTo(10);
+            journal.sync();
+            assertThat(journal.read(1, 100)).hasSize(10);
+        }
+    }
+
+    @Test
+    void emptyDirectoryStartsAtMinimumSequence() throws Exception {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 42)) {
+            assertThat(journal.append(payload(42))).isEqualTo(42);
+        }
+    }
+
+    /**
+     * Starts the writer, kills it once it acknowledged at least {@code minimumAcks}, and returns the last ack.
+     */
+    private long runAndKill(long minimumAcks) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Writer.class.getName(), directory.toString(), String.valueOf(SEGMENT_SIZE))
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        long lastAcked = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            long killAt = minimumAcks + ThreadLocalRandom.current().nextInt(1_000);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastAcked = Long.parseLong(line);
+                if (lastAcked >= killAt) {
+                    process.destroyForcibly();
+                    break;
+                }
+            }
+        }
+        assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(lastAcked).isGreaterThanOrEqualTo(minimumAcks);
+        return lastAcked;
+    }
+
+    private static byte[] payload(long sequence) {
+        return String.format("record-%012d", sequence).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Child process: appends small groups of records forever and prints the last sequence of each synced group.
+     */
+    static final class Writer {
+
+        public static void main(String[] args) throws Exception {
+            SegmentedJournal journal = SegmentedJournal.open(Path.of(args[0]), Integer.parseInt(args[1]), 1);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long next = journal.durableSequence() + 1;
+            while (true) {
+                int group = random.nextInt(1, 20);
+                for (int i = 0; i < group; i++) {
+                    journal.append(payload(next++));
+                }
+                System.out.println(journal.sync());
+                System.out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.youcode.ebanking.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: {@code concurrency} virtual threads call the endpoint back to back for the warm-up,
+ * then for the measured window. Each thread records into its own {@link Histogram}, merged at the end.
+ * <p>
+ * Latencies are those seen by the client. In a closed loop a stalled server also stalls the callers, so the upper
+ * percentiles understate what an open-loop arrival rate would see.
+ */
+final class LoadDriver {
+
+    /**
+     * One request; returns the HTTP status.
+     */
+    @FunctionalInterface
+    interface Call {
+        int execute(long sequence) throws Exception;
+    }
+
+    record Result(String endpoint, int concurrency, long requests, long errors, double throughput,
+                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private LoadDriver() {
+    }
+
+    static Result run(String endpoint, int concurrency, Duration warmup, Duration duration, Call call)
+            throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        drive(concurrency, warmup, call, sequence);
+
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        List<Histogram> histograms = drive(concurrency, duration, call, sequence, errors);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        histograms.forEach(total::add);
+        return new Result(endpoint, concurrency, total.getTotalCount(), errors.get(),
+                total.getTotalCount() / elapsedSeconds,
+                millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(99)),
+                millis(total.getValueAtPercentile(99.9)), millis(total.getMaxValue()));
+    }
+
+    private static void drive(int concurrency, Duration duration, Call call, AtomicLong sequence) throws Exception {
+        drive(concurrency, duration, call, sequence, new AtomicLong());
+    }
+
+    private static List<Histogram> drive(int concurrency, Duration duration, Call call, AtomicLong sequence,
+                                         AtomicLong errors) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Histogram>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    Histogram histogram = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        int status;
+                        try {
+                            status = call.execute(sequence.getAndIncrement());
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        histogram.recordValue(Math.min(System.nanoTime() - begin, HIGHEST_TRACKABLE_NANOS));
+                        if (status < 200 || status >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return histogram;
+                }));
+            }
+            List<Histogram> histograms = new ArrayList<>(concurrency);
+            for (Future<Histogram> future : futures) {
+                histograms.add(future.get());
+            }
+            return histograms;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,247 @@
+package com.youcode.ebanking.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the whole application on H2 (profile {@code perf}): registration, login,
+ * {@code GET /api/users} and {@code GET /api/myBalance} over HTTP, one endpoint after the other.
+ * <p>
+ * Run with {@code mvn -Pperf verify}. Concurrency and durations come from the {@code perf.*} system properties;
+ * limits from {@code perf/thresholds.properties}, each overridable as {@code -Dperf.<endpoint>.<limit>=...}.
+ * With {@code -Dperf.baseline=<previous load-report.json>} the run also fails when an endpoint's p99 or
+ * throughput is worse than the baseline by more than {@code perf.tolerance}.
+ */
+@Tag("perf")
+// Le profil perf limite les journaux à WARN : le tableau de résultats reste affiché
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.youcode.ebanking.perf=INFO")
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class LoadTest {
+
+    private static final String PASSWORD = "Passw0rd!";
+    private static final Path REPORT = Path.of("target", "perf", "load-report.json");
+    // L'inscription est bornée par le pool de hachage : au-delà, les requêtes ne font qu'attendre leur tour
+    private static final Map<String, Integer> DEFAULT_CONCURRENCY = Map.of("register", 8);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Properties thresholds = new Properties();
+    private final String runId = Long.toString(System.nanoTime(), 36);
+    private String adminToken;
+    private List<String> customers;
+    private List<String> customerTokens;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ebanking.journal.directory",
+                () -> Path.of(System.getProperty("java.io.tmpdir"), "perf-journal-" + UUID.randomUUID()).toString());
+    }
+
+    @BeforeAll
+    void setUp() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perf/thresholds.properties")) {
+            thresholds.load(in);
+        }
+
+        // Toute inscription reçoit ROLE_ADMIN : les clients sont ensuite rétrogradés en ROLE_USER
+        String admin = "perf-admin-" + runId;
+        assertThat(register(admin)).isEqualTo(201);
+        adminToken = login(admin);
+
+        int count = intSetting("perf.customers", 100);
+        customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add("perf-customer-" + runId + "-" + i);
+        }
+        customerTokens = new ArrayList<>(count);
+        for (String username : customers) {
+            assertThat(register(username)).isEqualTo(201);
+            assertThat(send(put("/api/users/" + username + "/updateRole", adminToken,
+                    Map.of("username", username, "roleName", "ROLE_USER"))).statusCode()).isEqualTo(200);
+            customerTokens.add(login(username));
+        }
+    }
+
+    @Test
+    void endpointsStayWithinThresholds() throws Exception {
+        List<LoadDriver.Result> results = new ArrayList<>();
+        results.add(measure("register", sequence -> register("perf-load-" + runId + "-" + sequence)));
+        results.add(measure("login", sequence -> {
+            String username = customers.get(ThreadLocalRandom.current().nextInt(customers.size()));
+            return send(post("/api/users/login", null, Map.of("username", username, "password", PASSWORD)))
+                    .statusCode();
+        }));
+        results.add(measure("users", sequence -> send(get("/api/users?limit=100", adminToken)).statusCode()));
+        results.add(measure("balance", sequence -> {
+            String token = customerTokens.get(ThreadLocalRandom.current().nextInt(customerTokens.size()));
+            return send(get("/api/myBalance", token)).statusCode();
+        }));
+
+        results.forEach(result -> log.info("{}",
+                "%-8s c=%-4d %8d req %6d err %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms".formatted(
+                        result.endpoint(), result.concurrency(), result.requests(), result.errors(), result.throughput(),
+                        result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis())));
+        JsonNode baseline = loadBaseline();
+        writeReport(results);
+
+        List<String> violations = new ArrayList<>();
+        for (LoadDriver.Result result : results) {
+            checkThresholds(result, violations);
+            checkBaseline(result, baseline, violations);
+        }
+        assertThat(violations).as("régressions de performance").isEmpty();
+    }
+
+    private LoadDriver.Result measure(String endpoint, LoadDriver.Call call) throws Exception {
+        int concurrency = intSetting("perf." + endpoint + ".concurrency",
+                DEFAULT_CONCURRENCY.getOrDefault(endpoint, intSetting("perf.concurrency", 32)));
+        return LoadDriver.run(endpoint, concurrency, durationSetting("perf.warmup", Duration.ofSeconds(5)),
+                durationSetting("perf.duration", Duration.ofSeconds(15)), call);
+    }
+
+    private void checkThresholds(LoadDriver.Result result, List<String> violations) {
+        double maxP99 = threshold(result.endpoint(), "max-p99-ms");
+        double minThroughput = threshold(result.endpoint(), "min-throughput");
+        double maxErrorRate = threshold(result.endpoint(), "max-error-rate");
+        if (result.p99Millis() > maxP99) {
+            violations.add("%s : p99 %.2f ms > %.2f ms".formatted(result.endpoint(), result.p99Millis(), maxP99));
+        }
+        if (result.throughput() < minThroughput) {
+            violations.add("%s : débit %.1f req/s < %.1f req/s"
+                    .formatted(result.endpoint(), result.throughput(), minThroughput));
+        }
+        if (result.errorRate() > maxErrorRate) {
+            violations.add("%s : taux d'erreur %.4f > %.4f"
+                    .formatted(result.endpoint(), result.errorRate(), maxErrorRate));
+        }
+    }
+
+    private void checkBaseline(LoadDriver.Result result, JsonNode baseline, List<String> violations) {
+        JsonNode previous = baseline == null ? null : baseline.get(result.endpoint());
+        if (previous == null) {
+            return;
+        }
+        double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+        double previousP99 = previous.get("p99Millis").asDouble();
+        double previousThroughput = previous.get("throughput").asDouble();
+        if (result.p99Millis() > previousP99 * (1 + tolerance)) {
+            violations.add("%s : p99 %.2f ms, référence %.2f ms"
+                    .formatted(result.endpoint(), result.p99Millis(), previousP99));
+        }
+        if (result.throughput() < previousThroughput * (1 - tolerance)) {
+            violations.add("%s : débit %.1f req/s, référence %.1f req/s"
+                    .formatted(result.endpoint(), result.throughput(), previousThroughput));
+        }
+    }
+
+    private JsonNode loadBaseline() throws IOException {
+        String baseline = System.getProperty("perf.baseline", "");
+        return baseline.isBlank() ? null : objectMapper.readTree(Path.of(baseline).toFile());
+    }
+
+    private void writeReport(List<LoadDriver.Result> results) throws IOException {
+        Map<String, LoadDriver.Result> report = new LinkedHashMap<>();
+        results.forEach(result -> report.put(result.endpoint(), result));
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT.toFile(), report);
+    }
+
+    private double threshold(String endpoint, String limit) {
+        String key = endpoint + "." + limit;
+        String value = System.getProperty("perf." + key, thresholds.getProperty(key));
+        assertThat(value).as("seuil %s non configuré", key).isNotNull();
+        return Double.parseDouble(value);
+    }
+
+    private int register(String username) throws Exception {
+        return send(post("/api/users/register", null,
+                Map.of("username", username, "password", PASSWORD, "email", username + "@ebanking.com"))).statusCode();
+    }
+
+    private String login(String username) throws Exception {
+        HttpResponse<byte[]> response = send(post("/api/users/login", null,
+                Map.of("username", username, "password", PASSWORD)));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        return request(path, token).POST(json(body)).header("Content-Type", "application/json").build();
+    }
+
+    private HttpRequest put(String path, String token, Object body) throws IOException {
+        return request(path, token).PUT(json(body)).header("Content-Type", "application/json").build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    private static Duration durationSetting(String name, Duration defaultValue) {
+        String value = System.getProperty(name, "");
+        return value.isBlank() ? defaultValue : Duration.parse(value);
+    }
+}
@@ -0,0 +1,134 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    // 3 échecs par nom d'utilisateur puis 1 par minute ; 10 par adresse puis 1 par seconde
+    private final LoginThrottle throttle = new LoginThrottle(true, 1000, 3, Duration.ofMinutes(1), 10,
+            Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(10), clock::get);
+
+    @Test
+    void usernameIsLockedOutOnceItsBurstIsSpent() {
+        for (int i = 0; i < 3; i++) {
+            throttle.failed(throttle.check("alice", "10.0.0." + i));
+        }
+
+        assertThatThrownBy(() -> throttle.check("Alice", "10.0.0.9"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isEqualTo(60));
+        assertThatCode(() -> throttle.check("bob", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void lockoutDoublesOnEveryRelapse() {
+        assertThat(failUntilThrottled("alice")).isEqualTo(60);
+        // Les jetons regagnés pendant un blocage restent utilisables ; le blocage suivant est doublé
+        assertThat(failUntilThrottled("alice")).isEqualTo(60);
+        assertThat(failUntilThrottled("alice")).isEqualTo(120);
+        assertThat(failUntilThrottled("alice")).isEqualTo(240);
+        assertThat(failUntilThrottled("alice")).isEqualTo(480);
+        assertThat(failUntilThrottled("alice")).isEqualTo(600);
+    }
+
+    @Test
+    void attemptsInFlightCannotOverrunTheBurstOnceTheKeyHasFailed() {
+        throttle.failed(throttle.check("alice", "10.0.0.1"));
+        // Deux tentatives concurrentes réservent les deux jetons restants avant que l'une d'elles n'ait échoué
+        for (int i = 2; i < 4; i++) {
+            throttle.check("alice", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> throttle.check("alice", "10.0.0.9")).isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void concurrentValidLoginsAboveTheBurstAreNeverThrottled() throws Exception {
+        // 32 connexions en vol : au-delà des rafales du nom (3) et de l'adresse (10)
+        int logins = 32;
+        CyclicBarrier allChecked = new CyclicBarrier(logins);
+        ExecutorService pool = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(pool.submit(() -> {
+                    LoginThrottle.Attempt attempt = throttle.check("alice", "10.0.0.1");
+                    allChecked.await(10, TimeUnit.SECONDS);
+                    throttle.succeeded(attempt);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                assertThatCode(() -> result.get(10, TimeUnit.SECONDS)).doesNotThrowAnyException();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThatCode(() -> throttle.check("alice", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successAndReleaseGiveTheTokensBack() {
+        for (int i = 0; i < 3; i++) {
+            throttle.failed(throttle.check("user" + i, "10.0.0.1"));
+        }
+        // Adresse en échec : chaque tentative réserve, et doit rendre son jeton
+        for (int i = 0; i < 20; i++) {
+            throttle.succeeded(throttle.check("alice", "10.0.0.1"));
+            throttle.released(throttle.check("bob", "10.0.0.1"));
+        }
+
+        assertThatCode(() -> throttle.check("bob", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsTheUsernameButNotTheAddress() {
+        for (int i = 0; i < 10; i++) {
+            String username = i < 2 ? "user0" : "user" + i;
+            throttle.failed(throttle.check(username, "10.0.0.1"));
+        }
+        throttle.succeeded(throttle.check("user0", "10.0.0.2"));
+
+        assertThatThrownBy(() -> throttle.check("user0", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        // Sans effacement, les deux échecs précédents ne laisseraient qu'un seul jeton
+        for (int i = 0; i < 3; i++) {
+            throttle.check("user0", "10.0.0.3");
+        }
+    }
+
+    /**
+     * Fails until throttled, returns the wait in seconds and lets it elapse.
+     */
+    private long failUntilThrottled(String username) {
+        while (true) {
+            try {
+                throttle.failed(throttle.check(username, null));
+            } catch (LoginThrottledException e) {
+                advance(Duration.ofSeconds(e.getRetryAfterSeconds()));
+                return e.getRetryAfterSeconds();
+            }
+        }
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
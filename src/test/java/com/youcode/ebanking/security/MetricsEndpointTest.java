@@ -0,0 +1,69 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ebanking.journal.directory=${java.io.tmpdir}/metrics-journal-${random.uuid}")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("perf")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void prometheusScrapeIsReservedToAdministrators() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+
+        // L'inscription attribue ROLE_ADMIN
+        String admin = "metrics-" + UUID.randomUUID();
+        userService.registerNewUser(new UserRegistrationDTO(admin, "Passw0rd!", admin + "@ebanking.com"));
+        mockMvc.perform(get("/api/users/" + admin).header(HttpHeaders.AUTHORIZATION, basic(admin, "Passw0rd!"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic(admin, "wrong-password")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("EB-AUTH-002"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic(admin, "Passw0rd!")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("ebanking_authentication_seconds_count{application=\"ebanking\",outcome=\"success\"}")
+                .contains("ebanking_authentication_seconds_count{application=\"ebanking\",outcome=\"bad_credentials\"}")
+                .contains("ebanking_password_hashing_seconds_count{application=\"ebanking\",operation=\"matches\"}")
+                .contains("ebanking_credential_cache_requests_total")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .contains("repository=\"UserRepository\"")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/users/{username}\"")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total");
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
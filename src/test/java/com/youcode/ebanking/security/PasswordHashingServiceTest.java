@@ -0,0 +1,44 @@
+package com.youcode.ebanking.security;
+
+import com.youcode.ebanking.dto.HashingOperationStatsDTO;
+import com.youcode.ebanking.dto.PasswordHashingStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+    // 2 threads et une file d'une seule place : un lot d'import la dépasse largement
+    private final PasswordHashingService hashing = new PasswordHashingService(encoder, 2, 1, Duration.ofSeconds(5));
+
+    @AfterEach
+    void shutdown() {
+        hashing.shutdown();
+    }
+
+    @Test
+    void batchLargerThanTheQueueIsHashedInOrderOnTheSharedPool() {
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "password-" + i).toList();
+
+        List<String> hashes = hashing.encodeAll(passwords);
+
+        assertThat(hashes).hasSize(20);
+        for (int i = 0; i < passwords.size(); i++) {
+            assertThat(encoder.matches(passwords.get(i), hashes.get(i))).isTrue();
+        }
+        PasswordHashingStatsDTO stats = hashing.stats();
+        assertThat(stats.rejected()).isZero();
+        assertThat(stats.operations()).filteredOn(op -> op.operation().equals("encode"))
+                .extracting(HashingOperationStatsDTO::count).containsExactly(20L);
+        // Un lot ne garde jamais plus d'une tâche par thread : la file reste libre pour les connexions
+        assertThat(hashing.matches("password-0", hashes.get(0))).isTrue();
+    }
+}
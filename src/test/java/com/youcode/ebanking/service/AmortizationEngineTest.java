@@ -0,0 +1,66 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.model.AmortizationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmortizationEngineTest {
+
+    @Test
+    void annuityOf30YearsMatchesTheClosedForm() {
+        // 200 000,00 à 3,60 % sur 360 mois : mensualité exacte 909,2939…, arrondie au centime supérieur
+        AmortizationEngine.Terms terms = new AmortizationEngine.Terms(AmortizationType.ANNUITY, 200_000_00, 360, 360);
+        AmortizationSchedule schedule = AmortizationEngine.compute(terms, null, 0);
+
+        assertThat(schedule.size()).isEqualTo(360);
+        assertThat(schedule.payment(0)).isEqualTo(909_30);
+        assertThat(schedule.interest(0)).isEqualTo(600_00);
+        assertThat(schedule.balance(359)).isZero();
+        assertPrincipalFullyRepaid(terms, schedule);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AmortizationType.class)
+    void incrementalPrepaymentEqualsFullRecomputation(AmortizationType type) {
+        AmortizationEngine.Terms terms = new AmortizationEngine.Terms(type, 150_000_00, 425, 240);
+        long[] prepayments = new long[240];
+        prepayments[23] = 10_000_00;
+        prepayments[119] = 5_000_00;
+
+        AmortizationSchedule incremental = AmortizationEngine.compute(terms, null, 0);
+        incremental = AmortizationEngine.withPrepayment(terms, incremental, 23, 10_000_00, 1);
+        incremental = AmortizationEngine.withPrepayment(terms, incremental, 119, 5_000_00, 2);
+        AmortizationSchedule full = AmortizationEngine.compute(terms, prepayments, 2);
+
+        assertThat(incremental.size()).isEqualTo(full.size());
+        for (int i = 0; i < full.size(); i++) {
+            assertThat(incremental.payment(i)).isEqualTo(full.payment(i));
+            assertThat(incremental.balance(i)).isEqualTo(full.balance(i));
+        }
+        assertThat(full.payment(24)).isLessThan(full.payment(23));
+        assertPrincipalFullyRepaid(terms, full);
+    }
+
+    @Test
+    void prepayingTheWholeBalanceEndsTheSchedule() {
+        AmortizationEngine.Terms terms = new AmortizationEngine.Terms(AmortizationType.LINEAR, 12_000_00, 0, 12);
+        AmortizationSchedule schedule = AmortizationEngine.compute(terms, null, 0);
+        schedule = AmortizationEngine.withPrepayment(terms, schedule, 2, schedule.balance(2), 1);
+
+        assertThat(schedule.size()).isEqualTo(3);
+        assertThat(schedule.balance(2)).isZero();
+        assertPrincipalFullyRepaid(terms, schedule);
+    }
+
+    private static void assertPrincipalFullyRepaid(AmortizationEngine.Terms terms, AmortizationSchedule schedule) {
+        long repaid = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            assertThat(schedule.payment(i)).isEqualTo(schedule.principal(i) + schedule.interest(i));
+            repaid += schedule.principal(i) + schedule.prepayment(i);
+        }
+        assertThat(repaid).isEqualTo(terms.principal());
+    }
+}
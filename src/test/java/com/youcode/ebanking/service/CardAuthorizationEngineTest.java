@@ -0,0 +1,233 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.journal.LedgerJournal;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.Card;
+import com.youcode.ebanking.model.CardStatus;
+import com.youcode.ebanking.model.DeclineReason;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.HoldStatus;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.CardHoldRepository;
+import com.youcode.ebanking.repository.CardRepository;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CardAuthorizationEngine.class, CardHoldWriter.class, AccountHolds.class, AccountLocks.class,
+        LedgerJournal.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "ebanking.accounts.lock-stripes=64"
+})
+class CardAuthorizationEngineTest {
+
+    private static final long BALANCE = 2_000_00;
+    private static final long DAILY_LIMIT = 1_500_00;
+
+    @Autowired
+    private CardAuthorizationEngine engine;
+
+    @Autowired
+    private CardHoldWriter holdWriter;
+
+    @Autowired
+    private AccountHolds accountHolds;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private LedgerJournal ledgerJournal;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardHoldRepository holdRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private long accountId;
+    private long limitedCardId;
+    private long unlimitedCardId;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ebanking.journal.directory",
+                () -> Path.of(System.getProperty("java.io.tmpdir"), "card-journal-" + UUID.randomUUID()).toString());
+    }
+
+    // Chaque test a son propre titulaire : le moteur et l'écriture différée sont partagés par le contexte
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.findByName("ROLE_USER").orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
+        String username = "card-" + UUID.randomUUID();
+        EbUser owner = userRepository.save(new EbUser()
+                .setUsername(username).setPassword("x").setEmail(username + "@ebanking.com").setRole(role));
+        Account account = accountRepository.save(new Account()
+                .setAccountNumber(String.format("EB%016d", ThreadLocalRandom.current().nextLong(10_000_000_000_000_000L)))
+                .setOwner(owner)
+                .setCurrency("MAD")
+                .setBalance(BALANCE)
+                .setOpenedAt(Instant.now()));
+        accountId = account.getId();
+        limitedCardId = issueCard(account, DAILY_LIMIT);
+        unlimitedCardId = issueCard(account, 100_000_00);
+    }
+
+    @Test
+    void concurrentAuthorizationsRespectLimitsAndFunds() throws Exception {
+        int threads = 16;
+        int perThread = 500;
+        AtomicLong approvedOnLimitedCard = new AtomicLong();
+        AtomicLong approvedTotal = new AtomicLong();
+        AtomicLong approvedCount = new AtomicLong();
+        // Premier accès : chargement des cartes et du solde
+        for (long cardId : List.of(limitedCardId, unlimitedCardId)) {
+            engine.release(engine.authorize(cardId, 1, "warm-up").reference());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        long cardId = random.nextBoolean() ? limitedCardId : unlimitedCardId;
+                        long amount = random.nextLong(1, 1_00);
+                        CardAuthorizationEngine.Authorization authorization = engine.authorize(cardId, amount, "POS");
+                        if (authorization.approved()) {
+                            approvedTotal.addAndGet(amount);
+                            approvedCount.incrementAndGet();
+                            if (cardId == limitedCardId) {
+                                approvedOnLimitedCard.addAndGet(amount);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(approvedOnLimitedCard.get()).isLessThanOrEqualTo(DAILY_LIMIT);
+        assertThat(approvedTotal.get()).isLessThanOrEqualTo(BALANCE);
+        assertThat(accountHolds.held(accountId)).isEqualTo(approvedTotal.get());
+        assertThat(accountHolds.available(accountId)).isEqualTo(BALANCE - approvedTotal.get());
+
+        awaitUntil(() -> activeHolds() == approvedCount.get());
+    }
+
+    @Test
+    void activeHoldsAndSpendAreRecoveredOnRestart() throws Exception {
+        engine.authorize(limitedCardId, 400_00, "POS");
+        engine.authorize(limitedCardId, 400_00, "POS");
+        String released = engine.authorize(limitedCardId, 400_00, "POS").reference();
+        engine.release(released);
+        awaitUntil(() -> activeHolds() == 2 && holdWriter.backlog() == 0);
+        awaitUntil(() -> holdRepository.findByReferenceIn(List.of(released)).stream()
+                .allMatch(hold -> hold.getStatus() == HoldStatus.RELEASED));
+
+        // Nouvelle instance, comme après un redémarrage
+        AccountHolds recoveredHolds = new AccountHolds();
+        CardAuthorizationEngine recovered = new CardAuthorizationEngine(cardRepository, holdRepository,
+                accountRepository, accountLocks, recoveredHolds, ledgerJournal, holdWriter, Duration.ofDays(7));
+        recovered.recover();
+
+        assertThat(recoveredHolds.available(accountId)).isEqualTo(BALANCE - 800_00);
+        assertThat(recovered.authorize(limitedCardId, 800_00, "POS").declineReason())
+                .isEqualTo(DeclineReason.DAILY_LIMIT_EXCEEDED);
+        assertThat(recovered.authorize(limitedCardId, 700_00, "POS").approved()).isTrue();
+    }
+
+    @Test
+    void captureDebitsTheAccountWithoutFreeingFunds() throws Exception {
+        CardAuthorizationEngine.Authorization authorization = engine.authorize(unlimitedCardId, 300_00, "Marjane");
+        assertThat(accountHolds.tryDebit(accountId, BALANCE - 200_00)).isFalse();
+
+        engine.capture(authorization.reference());
+
+        assertThat(accountHolds.held(accountId)).isZero();
+        assertThat(accountHolds.available(accountId)).isEqualTo(BALANCE - 300_00);
+        assertThatThrownBy(() -> engine.release(authorization.reference()))
+                .isInstanceOf(EntityNotFoundException.class);
+        awaitUntil(() -> accountRepository.findBalanceById(accountId).orElseThrow() == BALANCE - 300_00);
+    }
+
+    @Test
+    void blockedCardIsDeclined() {
+        assertThat(engine.authorize(limitedCardId, 1_00, "POS").approved()).isTrue();
+
+        engine.cardUpdated(limitedCardId, CardStatus.BLOCKED, DAILY_LIMIT, DAILY_LIMIT);
+
+        assertThat(engine.authorize(limitedCardId, 1_00, "POS").declineReason())
+                .isEqualTo(DeclineReason.CARD_NOT_ACTIVE);
+        assertThat(accountHolds.available(accountId)).isEqualTo(BALANCE - 1_00);
+    }
+
+    private long issueCard(Account account, long dailyLimit) {
+        return cardRepository.save(new Card()
+                .setAccount(account)
+                .setStatus(CardStatus.ACTIVE)
+                .setDailyLimit(dailyLimit)
+                .setMonthlyLimit(Math.max(dailyLimit, 10_000_00))
+                .setIssuedAt(Instant.now())).getId();
+    }
+
+    private long activeHolds() {
+        return holdRepository.findActive().stream()
+                .filter(hold -> hold.getAccountId() == accountId)
+                .count();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("délai d'attente dépassé").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.LedgerPostingDTO;
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.exception.AccountActivityException;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Vidange du journal suspendue après le démarrage : les écritures acceptées pendant un test y restent en attente
+@SpringBootTest(properties = {
+        "ebanking.journal.directory=${java.io.tmpdir}/pending-journal-${random.uuid}",
+        "ebanking.journal.drain.interval=1h"
+})
+@ActiveProfiles("perf")
+class PendingPostingsTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private String user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        user = "pending-" + UUID.randomUUID();
+        userService.registerNewUser(new UserRegistrationDTO(user, "Passw0rd!", user + "@ebanking.com"));
+        long ownerId = userRepository.findByUsername(user).orElseThrow().getId();
+        account = accountRepository.findByOwnerIdOrderByIdAsc(ownerId).get(0);
+    }
+
+    @Test
+    void balanceIncludesPostingsStillInTheJournal() {
+        accountService.post(account.getAccountNumber(),
+                new LedgerPostingDTO(EntryType.CREDIT, new BigDecimal("10.00"), "dépôt"));
+        accountService.post(account.getAccountNumber(),
+                new LedgerPostingDTO(EntryType.DEBIT, new BigDecimal("2.50"), "retrait"));
+
+        assertThat(accountRepository.findBalanceById(account.getId())).contains(0L);
+        assertThat(accountService.getMyBalance(user).balance()).isEqualByComparingTo("7.50");
+    }
+
+    @Test
+    void deleteIsRefusedWhilePostingsWaitInTheJournal() {
+        accountService.post(account.getAccountNumber(),
+                new LedgerPostingDTO(EntryType.CREDIT, new BigDecimal("10.00"), "dépôt"));
+
+        assertThatThrownBy(() -> userService.deleteUser(user, null)).isInstanceOf(AccountActivityException.class);
+        assertThat(accountRepository.findById(account.getId())).isPresent();
+    }
+}
@@ -0,0 +1,266 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.LedgerPostingDTO;
+import com.youcode.ebanking.exception.InsufficientFundsException;
+import com.youcode.ebanking.exception.TransferInDoubtException;
+import com.youcode.ebanking.journal.LedgerJournal;
+import com.youcode.ebanking.mapper.AccountMapperImpl;
+import com.youcode.ebanking.model.Account;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.EntryType;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.AccountRepository;
+import com.youcode.ebanking.repository.LedgerEntryRepository;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({TransferEngine.class, AccountLocks.class, AccountHolds.class, LedgerJournal.class, AccountService.class,
+        AccountMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "ebanking.accounts.lock-stripes=64"
+})
+class TransferEngineConcurrencyTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final long INITIAL_BALANCE = 1_000_00;
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private LedgerJournal ledgerJournal;
+
+    @Autowired
+    private AccountHolds accountHolds;
+
+    @Autowired
+    private AccountService accountService;
+
+    private List<Long> accountIds;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ebanking.journal.directory",
+                () -> Path.of(System.getProperty("java.io.tmpdir"), "transfer-journal-" + UUID.randomUUID()).toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+
+        Role role = roleRepository.save(new Role("ROLE_USER"));
+        EbUser owner = userRepository.save(new EbUser()
+                .setUsername("owner").setPassword("x").setEmail("owner@ebanking.com").setRole(role));
+
+        accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accountRepository.save(new Account()
+                    .setAccountNumber(String.format("EB%016d", i))
+                    .setOwner(owner)
+                    .setCurrency("MAD")
+                    .setBalance(INITIAL_BALANCE)
+                    .setOpenedAt(Instant.now()));
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    void concurrentTransfersConserveMoney() throws Exception {
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        runTransfers(16, 250, succeeded, rejected);
+
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        long total = accounts.stream().mapToLong(Account::getBalance).sum();
+        assertThat(total).isEqualTo(ACCOUNTS * INITIAL_BALANCE);
+        assertThat(accounts).allSatisfy(account -> {
+            assertThat(account.getBalance()).isNotNegative();
+            assertThat(INITIAL_BALANCE + ledgerEntryRepository.sumAmounts(account.getId(), 0, account.getLastSequence()))
+                    .isEqualTo(account.getBalance());
+        });
+        assertThat(ledgerEntryRepository.count()).isEqualTo(2 * succeeded.get());
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(16 * 250);
+    }
+
+    @Test
+    void highContentionAnswersEveryTransfer() throws Exception {
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        runTransfers(32, 300, succeeded, rejected);
+
+        assertThat(succeeded.get()).isPositive();
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(32 * 300);
+        assertThat(ledgerEntryRepository.count()).isEqualTo(2 * succeeded.get());
+        assertThat(accountRepository.findAllById(accountIds).stream().mapToLong(Account::getBalance).sum())
+                .isEqualTo(ACCOUNTS * INITIAL_BALANCE);
+    }
+
+    @Test
+    void transferTakenByAStalledBatchIsReportedInDoubt() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        TransferEngine engine = stalledEngine(stalled);
+        try {
+            long from = accountIds.get(0);
+            long to = accountIds.get(1);
+
+            assertThatThrownBy(() -> engine.transfer(new TransferEngine.TransferCommand(from, to, 10_00, "lent")))
+                    .isInstanceOf(TransferInDoubtException.class);
+
+            // Le lot reprend après la réponse : le virement annoncé incertain est bien exécuté
+            stalled.countDown();
+            awaitLedgerEntries(2);
+            assertThat(ledgerEntryRepository.count()).isEqualTo(2);
+            assertThat(accountRepository.findById(from).orElseThrow().getBalance()).isEqualTo(INITIAL_BALANCE - 10_00);
+        } finally {
+            stalled.countDown();
+            engine.stop();
+        }
+    }
+
+    @Test
+    void postingCannotSpendTheDebitOfATransferInDoubt() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        TransferEngine engine = stalledEngine(stalled);
+        try {
+            long from = accountIds.get(0);
+            String fromNumber = accountRepository.findById(from).orElseThrow().getAccountNumber();
+
+            assertThatThrownBy(() -> engine.transfer(
+                    new TransferEngine.TransferCommand(from, accountIds.get(1), 900_00, "lent")))
+                    .isInstanceOf(TransferInDoubtException.class);
+            // Verrous relâchés, lot toujours en cours : le débit incertain n'est pas disponible
+            assertThatThrownBy(() -> accountService.post(fromNumber,
+                    new LedgerPostingDTO(EntryType.DEBIT, new BigDecimal("200.00"), "retrait")))
+                    .isInstanceOf(InsufficientFundsException.class);
+
+            stalled.countDown();
+            awaitLedgerEntries(2);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (accountHolds.inDoubt(from) != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            accountService.post(fromNumber, new LedgerPostingDTO(EntryType.DEBIT, new BigDecimal("100.00"), "retrait"));
+            assertThat(accountRepository.findBalanceById(from).orElseThrow() + ledgerJournal.pendingDelta(from))
+                    .isZero();
+        } finally {
+            stalled.countDown();
+            engine.stop();
+        }
+    }
+
+    // Moteur dont chaque lot attend le loquet avant de valider, avec un délai de validation de 50 ms
+    private TransferEngine stalledEngine(CountDownLatch stalled) {
+        TransactionTemplate slowCommits = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.execute(action);
+            }
+        };
+        TransferEngine engine = new TransferEngine(accountRepository, ledgerEntryRepository, slowCommits,
+                accountLocks, ledgerJournal, accountHolds, 16, 16, Duration.ZERO, Duration.ofMillis(50));
+        engine.start();
+        return engine;
+    }
+
+    private void awaitLedgerEntries(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ledgerEntryRepository.count() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void runTransfers(int threads, int transfersPerThread, AtomicLong succeeded, AtomicLong rejected)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        long from = accountIds.get(random.nextInt(ACCOUNTS));
+                        long to = accountIds.get(random.nextInt(ACCOUNTS));
+                        while (to == from) {
+                            to = accountIds.get(random.nextInt(ACCOUNTS));
+                        }
+                        try {
+                            transferEngine.transfer(new TransferEngine.TransferCommand(
+                                    from, to, random.nextLong(1, 500_00), "stress"));
+                            succeeded.incrementAndGet();
+                        } catch (InsufficientFundsException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
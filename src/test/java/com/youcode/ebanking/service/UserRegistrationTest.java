@@ -0,0 +1,103 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.dto.BulkImportReportDTO;
+import com.youcode.ebanking.dto.BulkImportRowResultDTO;
+import com.youcode.ebanking.dto.BulkImportStatus;
+import com.youcode.ebanking.dto.UserRegistrationDTO;
+import com.youcode.ebanking.exception.UsernameAlreadyExistsException;
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "ebanking.journal.directory=${java.io.tmpdir}/registration-journal-${random.uuid}")
+@ActiveProfiles("perf")
+class UserRegistrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UsernameBloomFilter usernameFilter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Test
+    void concurrentRegistrationsOfTheSameNameYieldOneUser() throws Exception {
+        String username = "race-" + UUID.randomUUID();
+        assertThat(userService.checkUsernameAvailability(username).available()).isTrue();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int created = 0;
+        int conflicts = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userService.registerNewUser(
+                            new UserRegistrationDTO(username, "Passw0rd!", username + "@ebanking.com"));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(UsernameAlreadyExistsException.class);
+                    conflicts++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(created).isEqualTo(1);
+        assertThat(conflicts).isEqualTo(threads - 1);
+        assertThat(userService.checkUsernameAvailability(username).available()).isFalse();
+    }
+
+    @Test
+    void importRejectsOnlyTheRowOfANameCreatedByAnotherNode() {
+        usernameFilter.rebuild();
+        // Créé sans passer par ce nœud : le filtre l'ignore et la requête d'existence est sautée
+        String elsewhere = "import-" + UUID.randomUUID();
+        userRepository.save(new EbUser().setUsername(elsewhere).setPassword("x").setEmail(elsewhere + "@ebanking.com")
+                .setRole(roleRepository.findByName("ROLE_USER").orElseThrow()));
+        List<UserRegistrationDTO> rows = new ArrayList<>();
+        for (String username : List.of("import-" + UUID.randomUUID(), elsewhere, "import-" + UUID.randomUUID())) {
+            rows.add(new UserRegistrationDTO(username, "Passw0rd!", username + "@ebanking.com"));
+        }
+
+        BulkImportReportDTO report = userImportService.importUsers(rows.iterator());
+
+        assertThat(report.created()).isEqualTo(2);
+        assertThat(report.rows()).extracting(BulkImportRowResultDTO::status).containsExactly(
+                BulkImportStatus.CREATED, BulkImportStatus.DUPLICATE, BulkImportStatus.CREATED);
+        assertThat(userService.checkUsernameAvailability(elsewhere).available()).isFalse();
+    }
+}
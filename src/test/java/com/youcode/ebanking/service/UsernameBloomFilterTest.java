@@ -0,0 +1,126 @@
+package com.youcode.ebanking.service;
+
+import com.youcode.ebanking.model.EbUser;
+import com.youcode.ebanking.model.Role;
+import com.youcode.ebanking.repository.RoleRepository;
+import com.youcode.ebanking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(UsernameBloomFilter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "ebanking.users.availability.expected-users=10000",
+        "ebanking.users.availability.initial-delay=PT1H"
+})
+class UsernameBloomFilterTest {
+
+    @Autowired
+    private UsernameBloomFilter filter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<String> usernames = new ArrayList<>();
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        role = roleRepository.findByName("ROLE_USER").orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
+        List<EbUser> users = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String username = "bloom-" + UUID.randomUUID();
+            usernames.add(username);
+            users.add(newUser(username));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @Test
+    void existingNamesAreNeverRuledOut() {
+        UsernameBloomFilter unbuilt = new UsernameBloomFilter(userRepository, transactionTemplate, 10_000, 0.01, 0.1,
+                Duration.ofMinutes(1));
+        assertThat(unbuilt.mightContain("free-" + UUID.randomUUID())).as("avant construction").isTrue();
+
+        filter.rebuild();
+
+        assertThat(usernames).allMatch(filter::mightContain);
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("free-" + UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        // Dimensionné pour 1 % : une marge large évite les échecs aléatoires
+        assertThat(falsePositives).isLessThan(probes * 3 / 100);
+    }
+
+    @Test
+    void namesAddedDuringARebuildAreKept() throws Exception {
+        filter.rebuild();
+        List<String> added = new ArrayList<>();
+        // Comme en production : ajouté au filtre une fois l'insertion validée
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 300; i++) {
+                String username = "late-" + UUID.randomUUID();
+                userRepository.save(newUser(username));
+                filter.add(username);
+                synchronized (added) {
+                    added.add(username);
+                }
+            }
+        });
+        writer.start();
+        filter.rebuild();
+        filter.rebuild();
+        writer.join();
+
+        synchronized (added) {
+            assertThat(added).allMatch(filter::mightContain);
+        }
+    }
+
+    @Test
+    void namesInsertedByAnotherNodeAreLearntOnceTheFilterIsTooOld() throws Exception {
+        UsernameBloomFilter aging = new UsernameBloomFilter(userRepository, transactionTemplate, 10_000, 0.01, 0.1,
+                Duration.ofMillis(50));
+        aging.rebuild();
+        // Inséré sans passer par add() : comme sur un autre nœud
+        String elsewhere = "elsewhere-" + UUID.randomUUID();
+        userRepository.save(newUser(elsewhere));
+
+        aging.maintain();
+        assertThat(aging.mightContain(elsewhere)).as("filtre encore récent").isFalse();
+        Thread.sleep(100);
+        aging.maintain();
+        assertThat(aging.mightContain(elsewhere)).isTrue();
+    }
+
+    private EbUser newUser(String username) {
+        return new EbUser().setUsername(username).setPassword("x").setEmail(username + "@ebanking.com").setRole(role);
+    }
+}